@@ -6,6 +6,7 @@ public enum StreamId {
     RAW_QUOTE(1000),
     MARKET_QUOTE(2000),
     CLIENT_QUOTE(3000),
+    SIGNAL(4000),
     HEARTBEAT(8000),
     CONFIG_STREAM(9000);
 
@@ -13,13 +13,22 @@ public class ClientTierConfigCache {
 
     private final Long2ObjectHashMap<ClientTierConfig> clientTierConfigCache = new Long2ObjectHashMap<>();
     private final ArrayObjectPool<ClientTierConfig> clientTierConfigArrayObjectPool = new ArrayObjectPool<>("clientTierConfigArrayObjectPool", ClientTierConfig::new);
+    private volatile TierPricingTable pricingTable = TierPricingTable.compile(this);
 
     public ClientTierConfig get(int tierId) {
         return clientTierConfigCache.get(tierId);
     }
 
+    /**
+     * @return the pricing coefficients of every tier as of the last update, read once per quote
+     */
+    public TierPricingTable pricingTable() {
+        return pricingTable;
+    }
+
     public void update(final ClientTierLevel clientTierLevel, final ClientTierConfig clientTier) {
         clientTierConfigCache.put(clientTierLevel.getId(), clientTier);
+        pricingTable = TierPricingTable.compile(this);
     }
 
     public void update(final ClientTierConfigMessageDecoder clientTierDecoder) {
@@ -67,5 +76,6 @@ public class ClientTierConfigCache {
             clientTierConfigCache.put(config.tierId(), config);
             LOGGER.debug("Added clientTierConfigCache :: {}", config);
         }
+        pricingTable = TierPricingTable.compile(this);
     }
 }
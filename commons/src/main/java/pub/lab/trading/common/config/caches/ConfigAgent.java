@@ -8,7 +8,10 @@ import org.slf4j.LoggerFactory;
 import play.lab.model.sbe.ClientTierConfigMessageDecoder;
 import play.lab.model.sbe.ConfigLoadCompleteMessageDecoder;
 import play.lab.model.sbe.CurrencyConfigMessageDecoder;
+import play.lab.model.sbe.GeneratorParamsMessageDecoder;
 import play.lab.model.sbe.MessageHeaderDecoder;
+import play.lab.model.sbe.PricingShardConfigMessageDecoder;
+import play.lab.model.sbe.SymbolRegistryMessageDecoder;
 import pub.lab.trading.common.config.StreamId;
 import pub.lab.trading.common.lifecycle.Worker;
 import pub.lab.trading.common.model.ClientTierLevel;
@@ -22,11 +25,17 @@ public class ConfigAgent implements Worker {
     private final CurrencyConfigMessageDecoder currencyDecoder;
     private final ClientTierConfigMessageDecoder clientTierDecoder;
     private final ConfigLoadCompleteMessageDecoder completeDecoder;
+    private final SymbolRegistryMessageDecoder symbolDecoder = new SymbolRegistryMessageDecoder();
+    private final GeneratorParamsMessageDecoder generatorParamsDecoder = new GeneratorParamsMessageDecoder();
+    private final PricingShardConfigMessageDecoder pricingShardDecoder = new PricingShardConfigMessageDecoder();
     private final UnsafeBuffer buffer;
 
     // caches
-    private final CurrencyConfigCache currencyConfigCache = new CurrencyConfigCache();
+    private final SymbolRegistry symbolRegistry = new SymbolRegistry();
+    private final CurrencyConfigCache currencyConfigCache = new CurrencyConfigCache(symbolRegistry);
     private final ClientTierConfigCache clientTierConfigCache = new ClientTierConfigCache();
+    private final GeneratorParamsCache generatorParamsCache = new GeneratorParamsCache();
+    private final PricingShards pricingShards = new PricingShards();
 
     private volatile boolean isInitialLoadComplete;
 
@@ -103,6 +112,18 @@ public class ConfigAgent implements Worker {
         return clientTierConfigCache;
     }
 
+    public SymbolRegistry getSymbolRegistry() {
+        return symbolRegistry;
+    }
+
+    public GeneratorParamsCache getGeneratorParamsCache() {
+        return generatorParamsCache;
+    }
+
+    public PricingShards getPricingShards() {
+        return pricingShards;
+    }
+
     @Override
     public int doWork() {
         return subscription.poll((buf, offset, length, header) -> {
@@ -115,6 +136,12 @@ public class ConfigAgent implements Worker {
                 updateCurrencyConfig(headerDecoder);
             } else if (templateId == ClientTierConfigMessageDecoder.TEMPLATE_ID) {
                 updateClientTierConfig(headerDecoder);
+            } else if (templateId == SymbolRegistryMessageDecoder.TEMPLATE_ID) {
+                updateSymbolRegistry(headerDecoder);
+            } else if (templateId == GeneratorParamsMessageDecoder.TEMPLATE_ID) {
+                updateGeneratorParams(headerDecoder);
+            } else if (templateId == PricingShardConfigMessageDecoder.TEMPLATE_ID) {
+                updatePricingShards(headerDecoder);
             } else if (templateId == ConfigLoadCompleteMessageDecoder.TEMPLATE_ID) {
                 if (!isInitialLoadComplete) {
                     completeDecoder.wrapAndApplyHeader(buffer, 0, headerDecoder);
@@ -133,6 +160,28 @@ public class ConfigAgent implements Worker {
         clientTierConfigCache.update(clientTierDecoder);
     }
 
+    private void updateSymbolRegistry(MessageHeaderDecoder headerDecoder) {
+        symbolDecoder.wrapAndApplyHeader(buffer, 0, headerDecoder);
+        try {
+            symbolRegistry.update(symbolDecoder);
+        } catch (IllegalStateException e) {
+            // keep the ids quotes are already carrying rather than rebinding them under running consumers
+            LOGGER.error("Rejected symbol registry update: {}", e.getMessage());
+            return;
+        }
+        currencyConfigCache.refreshSpotPrecisions();
+    }
+
+    private void updateGeneratorParams(MessageHeaderDecoder headerDecoder) {
+        generatorParamsDecoder.wrapAndApplyHeader(buffer, 0, headerDecoder);
+        generatorParamsCache.update(generatorParamsDecoder);
+    }
+
+    private void updatePricingShards(MessageHeaderDecoder headerDecoder) {
+        pricingShardDecoder.wrapAndApplyHeader(buffer, 0, headerDecoder);
+        pricingShards.update(pricingShardDecoder);
+    }
+
     private void updateCurrencyConfig(MessageHeaderDecoder headerDecoder) {
         currencyDecoder.wrapAndApplyHeader(buffer, 0, headerDecoder);
         currencyConfigCache.update(currencyDecoder);
@@ -6,16 +6,51 @@ import org.slf4j.LoggerFactory;
 import play.lab.model.sbe.CurrencyConfigMessageDecoder;
 import pub.lab.trading.common.lifecycle.ArrayObjectPool;
 
+import java.util.Arrays;
+
 public class CurrencyConfigCache {
+    public static final int NO_PRECISION = -1;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(CurrencyConfigCache.class);
 
     private final Long2ObjectHashMap<CurrencyConfig> currencyCache = new Long2ObjectHashMap<>();
     private final ArrayObjectPool<CurrencyConfig> currencyConfigArrayObjectPool = new ArrayObjectPool<>("currencyConfigArrayObjectPool", CurrencyConfig::new);
+    private final SymbolRegistry symbolRegistry;
+    // spot precision by symbol registry id, rebuilt whenever a currency or symbol is added
+    private volatile int[] spotPrecisions = new int[0];
+
+    public CurrencyConfigCache(final SymbolRegistry symbolRegistry) {
+        this.symbolRegistry = symbolRegistry;
+    }
 
     public CurrencyConfig get(int tierId) {
         return currencyCache.get(tierId);
     }
 
+    /**
+     * @return the spot precision of the symbol with the given registry id, or {@link #NO_PRECISION} if it has no
+     * currency config
+     */
+    public int spotPrecision(int symbolId) {
+        final int[] current = spotPrecisions;
+        return symbolId >= 0 && symbolId < current.length ? current[symbolId] : NO_PRECISION;
+    }
+
+    /**
+     * Rebuilds the spot precisions by symbol id, called by the config owner when a symbol is registered.
+     */
+    public void refreshSpotPrecisions() {
+        final int[] updated = new int[symbolRegistry.size()];
+        Arrays.fill(updated, NO_PRECISION);
+        for (CurrencyConfig config : currencyCache.values()) {
+            final int symbolId = symbolRegistry.symbolId(config.symbol());
+            if (SymbolRegistry.NULL_SYMBOL_ID != symbolId && symbolId < updated.length) {
+                updated[symbolId] = config.spotPrecision();
+            }
+        }
+        spotPrecisions = updated;
+    }
+
     public void update(final CurrencyConfigMessageDecoder currencyDecoder) {
         if (currencyCache.containsKey(currencyDecoder.id())) {
             CurrencyConfig config = currencyCache.get(currencyDecoder.id()).update(
@@ -35,5 +70,6 @@ public class CurrencyConfigCache {
             currencyCache.put(config.id(), config);
             LOGGER.debug("Added currencyCache :: {}", config);
         }
+        refreshSpotPrecisions();
     }
 }
@@ -0,0 +1,81 @@
+package pub.lab.trading.common.config.caches;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.lab.model.sbe.GeneratorParamsMessageDecoder;
+
+import java.util.Arrays;
+
+/**
+ * Market-data generator parameters per symbol, indexed by {@link SymbolRegistry} id. Every update copies the
+ * current {@link Snapshot} and publishes the copy with a single volatile write, so a generator thread reads a
+ * consistent set of primitives with one volatile load and never sees a half written volatility/spread pair.
+ * <p>
+ * Updates are rare and may come from any thread; readers are lock free.
+ */
+public class GeneratorParamsCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GeneratorParamsCache.class);
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * @return the latest parameters, compare by reference to detect a change
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    public void update(final GeneratorParamsMessageDecoder decoder) {
+        update((int) decoder.symbolId(), decoder.volatility(), decoder.spreadBp());
+    }
+
+    public synchronized void update(int symbolId, double volatility, double spreadBp) {
+        if (symbolId < 0) {
+            throw new IllegalArgumentException("Invalid symbol id " + symbolId);
+        }
+        if (!(volatility >= 0.0) || !(spreadBp >= 0.0)) {
+            throw new IllegalArgumentException("Invalid generator params for symbol id " + symbolId
+                    + ": volatility=" + volatility + " spreadBp=" + spreadBp);
+        }
+        snapshot = snapshot.with(symbolId, volatility, spreadBp);
+        LOGGER.debug("Generator params for symbol id {}: volatility={} spreadBp={}", symbolId, volatility, spreadBp);
+    }
+
+    /**
+     * Immutable parameters by symbol id, NaN where a symbol has none.
+     */
+    public static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new double[0], new double[0]);
+
+        private final double[] volatilities;
+        private final double[] spreadsBp;
+
+        private Snapshot(final double[] volatilities, final double[] spreadsBp) {
+            this.volatilities = volatilities;
+            this.spreadsBp = spreadsBp;
+        }
+
+        public boolean contains(int symbolId) {
+            return symbolId >= 0 && symbolId < volatilities.length && !Double.isNaN(volatilities[symbolId]);
+        }
+
+        public double volatility(int symbolId) {
+            return volatilities[symbolId];
+        }
+
+        public double spreadBp(int symbolId) {
+            return spreadsBp[symbolId];
+        }
+
+        private Snapshot with(int symbolId, double volatility, double spreadBp) {
+            final int length = Math.max(volatilities.length, symbolId + 1);
+            final double[] newVolatilities = Arrays.copyOf(volatilities, length);
+            final double[] newSpreadsBp = Arrays.copyOf(spreadsBp, length);
+            Arrays.fill(newVolatilities, volatilities.length, length, Double.NaN);
+            Arrays.fill(newSpreadsBp, spreadsBp.length, length, Double.NaN);
+            newVolatilities[symbolId] = volatility;
+            newSpreadsBp[symbolId] = spreadBp;
+            return new Snapshot(newVolatilities, newSpreadsBp);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package pub.lab.trading.common.config.caches;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.lab.model.sbe.PricingShardConfigMessageDecoder;
+
+/**
+ * Splits the symbols the spot pricing engine prices across {@code shardCount} pricing agents. config-service
+ * publishes the shard count, each agent is given a shard id and prices only the symbols whose {@link SymbolRegistry}
+ * id hashes to it, so agents on one process or several share RAW_QUOTE without pricing a symbol twice.
+ * <p>
+ * Until a count is received there is a single shard, shard 0 prices every symbol and agents for the other shards
+ * stay idle. Symbols without a registry id always belong to shard 0. Reads are lock free and safe from any thread.
+ */
+public class PricingShards {
+    public static final int DEFAULT_SHARD_COUNT = 1;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PricingShards.class);
+    // 2^32 / golden ratio, spreads dense ids so a shard does not get a run of ids registered together
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    private volatile int shardCount = DEFAULT_SHARD_COUNT;
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public void update(final PricingShardConfigMessageDecoder decoder) {
+        update(decoder.shardCount());
+    }
+
+    public void update(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Invalid pricing shard count " + shardCount);
+        }
+        if (this.shardCount != shardCount) {
+            this.shardCount = shardCount;
+            LOGGER.info("Pricing shard count {}", shardCount);
+        }
+    }
+
+    /**
+     * @return true if the shard prices the symbol, {@link SymbolRegistry#NULL_SYMBOL_ID} belongs to shard 0
+     */
+    public boolean owns(int shardId, int symbolId) {
+        return shardId == shardOf(symbolId, shardCount);
+    }
+
+    public static int shardOf(int symbolId, int shardCount) {
+        if (symbolId < 0 || 1 == shardCount) {
+            return 0;
+        }
+        final int hash = symbolId * HASH_MULTIPLIER;
+        return Integer.remainderUnsigned(hash ^ (hash >>> 16), shardCount);
+    }
+}
@@ -0,0 +1,97 @@
+package pub.lab.trading.common.config.caches;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.lab.model.sbe.SymbolRegistryMessageDecoder;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps each currency pair to a dense int id. config-service assigns the ids and publishes them on CONFIG_STREAM,
+ * quotes then carry the id so consumers can index primitive arrays instead of decoding and hashing the symbol.
+ * <p>
+ * Ids are never reassigned: an update binding a registered id to another symbol, or a registered symbol to another
+ * id, is rejected so every process keeps the first binding it saw. Lookups by id are lock free and safe from any
+ * thread; updates are rare and copy the id table.
+ */
+public class SymbolRegistry {
+    public static final int NULL_SYMBOL_ID = -1;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SymbolRegistry.class);
+
+    private final Map<String, Integer> idsBySymbol = new ConcurrentHashMap<>();
+    private volatile String[] symbols = new String[0];
+
+    /**
+     * Assigns the next free id to a new symbol, used by the registry's owner.
+     *
+     * @return the symbol's id, existing or new
+     */
+    public synchronized int register(String symbol) {
+        Integer symbolId = idsBySymbol.get(symbol);
+        if (null != symbolId) {
+            return symbolId;
+        }
+        int newSymbolId = symbols.length;
+        update(newSymbolId, symbol);
+        return newSymbolId;
+    }
+
+    public void update(final SymbolRegistryMessageDecoder decoder) {
+        update((int) decoder.symbolId(), decoder.symbol());
+    }
+
+    /**
+     * Binds {@code symbolId} to {@code symbol}, a repeat of an existing binding is ignored.
+     *
+     * @throws IllegalStateException if the id or the symbol is already bound to something else
+     */
+    public synchronized void update(int symbolId, String symbol) {
+        if (symbolId < 0) {
+            throw new IllegalArgumentException("Invalid symbol id " + symbolId + " for " + symbol);
+        }
+        String[] current = symbols;
+        String registeredSymbol = symbolId < current.length ? current[symbolId] : null;
+        if (symbol.equals(registeredSymbol)) {
+            return;
+        }
+        if (null != registeredSymbol) {
+            throw new IllegalStateException("Symbol id " + symbolId + " is registered to " + registeredSymbol + ", not " + symbol);
+        }
+        Integer registeredId = idsBySymbol.get(symbol);
+        if (null != registeredId) {
+            throw new IllegalStateException("Symbol " + symbol + " is registered as " + registeredId + ", not " + symbolId);
+        }
+
+        String[] updated = Arrays.copyOf(current, Math.max(current.length, symbolId + 1));
+        updated[symbolId] = symbol;
+        idsBySymbol.put(symbol, symbolId);
+        symbols = updated;
+        LOGGER.debug("Registered symbol {} as {}", symbol, symbolId);
+    }
+
+    /**
+     * @return the symbol's id, or {@link #NULL_SYMBOL_ID} if it is not registered
+     */
+    public int symbolId(String symbol) {
+        Integer symbolId = idsBySymbol.get(symbol);
+        return null == symbolId ? NULL_SYMBOL_ID : symbolId;
+    }
+
+    /**
+     * @return the symbol with the given id, or null if the id is not registered
+     */
+    public String symbol(int symbolId) {
+        String[] current = symbols;
+        return symbolId >= 0 && symbolId < current.length ? current[symbolId] : null;
+    }
+
+    /**
+     * @return one more than the highest registered id, grows whenever a symbol is registered
+     */
+    public int size() {
+        return symbols.length;
+    }
+}
@@ -0,0 +1,148 @@
+package pub.lab.trading.common.config.caches;
+
+import pub.lab.trading.common.model.ClientTierLevel;
+
+/**
+ * Client tier pricing parameters compiled into one flat {@code double[]} so the pricing loop reads plain array
+ * slots instead of a hash lookup and a handful of volatile fields per rung. The tier markup
+ * <pre>
+ *   vf     = log10(volume / 1M + 1)
+ *   offset = spreadTighteningFactor / 2 * (1 + 0.05 vf) + signal * (markupBps * (1 + 0.1 vf) + tierSkew * vf)
+ *   bid    = mid - offset, ask = mid + offset
+ * </pre>
+ * is linear in the volume factor, so each tier compiles to a base offset and a per unit of volume factor slope.
+ * The volume factors of the standard LP volume bands are precomputed, other volumes fall back to {@code log10}.
+ * The tier priority, quote throttle interval, latency protection horizon, quote expiry and price precision are
+ * carried alongside for the later stages of the loop.
+ * <p>
+ * Tables are immutable, {@link ClientTierConfigCache} compiles a new one on every tier update.
+ */
+public final class TierPricingTable {
+    static final int ENABLED = 0;
+    static final int BASE_OFFSET = 1;
+    static final int VOLUME_FACTOR_SLOPE = 2;
+    static final int PRIORITY = 3;
+    static final int THROTTLE_MS = 4;
+    static final int LATENCY_PROTECTION_MS = 5;
+    static final int QUOTE_EXPIRY_MS = 6;
+    static final int PRICE_PRECISION = 7;
+    static final int STRIDE = 8;
+
+    private static final double BASE_VOLUME = 1_000_000.0;
+    private static final double[] VOLUME_BANDS = {
+            1_000_000, 2_000_000, 3_000_000, 5_000_000, 10_000_000,
+            15_000_000, 20_000_000, 25_000_000, 50_000_000, 100_000_000
+    };
+    private static final double[] VOLUME_BAND_FACTORS = new double[VOLUME_BANDS.length];
+
+    static {
+        for (int i = 0; i < VOLUME_BANDS.length; i++) {
+            VOLUME_BAND_FACTORS[i] = Math.log10(VOLUME_BANDS[i] / BASE_VOLUME + 1.0);
+        }
+    }
+
+    private static final int MAX_TIER_ID = maxTierId();
+
+    private final double[] coefficients;
+
+    private TierPricingTable(final double[] coefficients) {
+        this.coefficients = coefficients;
+    }
+
+    static TierPricingTable compile(final ClientTierConfigCache cache) {
+        final double[] coefficients = new double[(MAX_TIER_ID + 1) * STRIDE];
+        for (int tierId = 0; tierId <= MAX_TIER_ID; tierId++) {
+            final int base = tierId * STRIDE;
+            final ClientTierConfig config = cache.get(tierId);
+            if (null == config) {
+                coefficients[base + PRIORITY] = Integer.MAX_VALUE;
+                continue;
+            }
+            final double spread = config.spreadTighteningFactor();
+            final double markup = config.markupBps();
+            final double signal = config.signal();
+            coefficients[base + ENABLED] = 1.0;
+            coefficients[base + BASE_OFFSET] = spread / 2.0 + signal * markup;
+            coefficients[base + VOLUME_FACTOR_SLOPE] = spread * 0.025 + signal * (0.1 * markup + config.tierSkew());
+            coefficients[base + PRIORITY] = config.tierPriority();
+            coefficients[base + THROTTLE_MS] = config.quoteThrottleMs();
+            coefficients[base + LATENCY_PROTECTION_MS] = config.latencyProtectionMs();
+            coefficients[base + QUOTE_EXPIRY_MS] = config.quoteExpiryMs();
+            coefficients[base + PRICE_PRECISION] = config.pricePrecision();
+        }
+        return new TierPricingTable(coefficients);
+    }
+
+    private static int maxTierId() {
+        int max = 0;
+        for (ClientTierLevel level : ClientTierLevel.values()) {
+            max = Math.max(max, level.getId());
+        }
+        return max;
+    }
+
+    /**
+     * @return the volume factor {@code log10(volume / 1M + 1)}, from the band table when the volume is a standard band
+     */
+    public static double volumeFactor(final double volume) {
+        for (int i = 0; i < VOLUME_BANDS.length; i++) {
+            if (VOLUME_BANDS[i] == volume) {
+                return VOLUME_BAND_FACTORS[i];
+            }
+        }
+        return Math.log10(volume / BASE_VOLUME + 1.0);
+    }
+
+    public boolean isEnabled(final int tierId) {
+        return coefficients[tierId * STRIDE + ENABLED] != 0.0;
+    }
+
+    /**
+     * @return how far the tier bid sits below, and its ask above, the mid at a volume factor of zero
+     */
+    public double baseOffset(final int tierId) {
+        return coefficients[tierId * STRIDE + BASE_OFFSET];
+    }
+
+    /**
+     * @return how much the offset grows per unit of volume factor
+     */
+    public double volumeFactorSlope(final int tierId) {
+        return coefficients[tierId * STRIDE + VOLUME_FACTOR_SLOPE];
+    }
+
+    /**
+     * @return the tier priority, {@link Integer#MAX_VALUE} for a tier without config
+     */
+    public int priority(final int tierId) {
+        return (int) coefficients[tierId * STRIDE + PRIORITY];
+    }
+
+    /**
+     * @return the minimum interval between two quotes of one symbol to the tier, zero for unthrottled
+     */
+    public long quoteThrottleMs(final int tierId) {
+        return (long) coefficients[tierId * STRIDE + THROTTLE_MS];
+    }
+
+    /**
+     * @return the horizon over which the tier's quotes are smoothed after a price jump, zero for none
+     */
+    public long latencyProtectionMs(final int tierId) {
+        return (long) coefficients[tierId * STRIDE + LATENCY_PROTECTION_MS];
+    }
+
+    /**
+     * @return how long a tier quote stays live without a newer one, zero for no expiry
+     */
+    public long quoteExpiryMs(final int tierId) {
+        return (long) coefficients[tierId * STRIDE + QUOTE_EXPIRY_MS];
+    }
+
+    /**
+     * @return the most decimals the tier is quoted to, zero for the symbol's own spot precision
+     */
+    public int pricePrecision(final int tierId) {
+        return (int) coefficients[tierId * STRIDE + PRICE_PRECISION];
+    }
+}
@@ -0,0 +1,127 @@
+package pub.lab.trading.common.logging;
+
+import org.agrona.IoUtil;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.MessageHandler;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pub.lab.trading.common.lifecycle.Worker;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+
+/**
+ * Drains a {@link BinaryLogger} into memory mapped segment files laid out as described by
+ * {@link BinaryLogDescriptor}, rolling to a new segment when the current one is full. Runs on its own
+ * low priority thread so the copy to the page cache stays off the hot path.
+ */
+public class BinaryLogAgent implements Worker {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BinaryLogAgent.class);
+    private static final int READ_LIMIT = 1024;
+    private static final long DROP_REPORT_INTERVAL_MS = 1_000;
+
+    private final BinaryLogger logger;
+    private final File dir;
+    private final String name;
+    private final long segmentSize;
+    private final UnsafeBuffer segmentBuffer = new UnsafeBuffer(0, 0);
+    private final MessageHandler handler = this::onEvent;
+
+    private MappedByteBuffer mappedSegment;
+    private int segmentIndex;
+    private int position;
+    private long eventCount;
+    private long reportedDroppedCount;
+    private long nextDropReportMs;
+
+    /**
+     * @param name distinguishes this process's segments from others logging to the same directory
+     */
+    public BinaryLogAgent(final BinaryLogger logger, final File dir, final String name, final long segmentSize) {
+        if (segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size " + segmentSize + " exceeds " + Integer.MAX_VALUE);
+        }
+        if (!logger.isEnabled()) {
+            throw new IllegalArgumentException("Binary logger is disabled");
+        }
+        this.logger = logger;
+        this.dir = dir;
+        this.name = name;
+        this.segmentSize = segmentSize;
+        IoUtil.ensureDirectoryExists(dir, "binary log");
+        LOGGER.info("Binary logging {} to {} in {} byte segments", name, dir, segmentSize);
+    }
+
+    public static BinaryLogAgent fromSystemProperties(final BinaryLogger logger, final String name) {
+        return new BinaryLogAgent(logger, BinaryLogDescriptor.directory(), name, BinaryLogDescriptor.segmentSize());
+    }
+
+    @Override
+    public int doWork() {
+        final int workCount = logger.ringBuffer().read(handler, READ_LIMIT);
+        if (0 == workCount) {
+            reportDropped();
+        }
+        return workCount;
+    }
+
+    private void onEvent(int eventId, MutableDirectBuffer buffer, int index, int length) {
+        final int entryLength = BinaryLogDescriptor.entryLength(length);
+        if (null == mappedSegment || position + entryLength > segmentBuffer.capacity()) {
+            nextSegment();
+        }
+        segmentBuffer.putInt(position + BinaryLogDescriptor.EVENT_ID_OFFSET, eventId);
+        segmentBuffer.putBytes(position + BinaryLogDescriptor.ENTRY_HEADER_LENGTH, buffer, index, length);
+        segmentBuffer.putIntOrdered(position + BinaryLogDescriptor.LENGTH_OFFSET, length);
+        position += entryLength;
+        eventCount++;
+    }
+
+    private void nextSegment() {
+        unmapSegment();
+        File file = BinaryLogDescriptor.segmentFile(dir, name, segmentIndex++);
+        while (file.exists()) {
+            // never overwrite the log of an earlier run
+            file = BinaryLogDescriptor.segmentFile(dir, name, segmentIndex++);
+        }
+        mappedSegment = IoUtil.mapNewFile(file, segmentSize);
+        segmentBuffer.wrap(mappedSegment);
+        position = 0;
+        LOGGER.info("Binary log segment {}", file);
+    }
+
+    private void unmapSegment() {
+        if (null != mappedSegment) {
+            IoUtil.unmap(mappedSegment);
+            mappedSegment = null;
+        }
+    }
+
+    private void reportDropped() {
+        final long nowMs = System.currentTimeMillis();
+        if (nowMs < nextDropReportMs) {
+            return;
+        }
+        nextDropReportMs = nowMs + DROP_REPORT_INTERVAL_MS;
+        final long droppedCount = logger.droppedCount();
+        if (droppedCount != reportedDroppedCount) {
+            LOGGER.warn("Binary log ring buffer full, {} events dropped", droppedCount - reportedDroppedCount);
+            reportedDroppedCount = droppedCount;
+        }
+    }
+
+    @Override
+    public void onClose() {
+        while (logger.ringBuffer().read(handler, READ_LIMIT) > 0) {
+            // flush what the hot path logged before closing
+        }
+        unmapSegment();
+        LOGGER.info("Binary log {} closed events={} dropped={}", name, eventCount, logger.droppedCount());
+    }
+
+    @Override
+    public String roleName() {
+        return "BinaryLogAgent-" + name;
+    }
+}
@@ -0,0 +1,84 @@
+package pub.lab.trading.common.logging;
+
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.time.Instant;
+
+/**
+ * Renders binary log segments as text, one line per event. Run offline with a segment file or a log directory,
+ * which defaults to {@code -Dbinlog.dir}:
+ * <pre>
+ *   java -cp commons.jar pub.lab.trading.common.logging.BinaryLogDecoder [file|dir]
+ * </pre>
+ */
+public final class BinaryLogDecoder {
+    private BinaryLogDecoder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        File path = args.length > 0 ? new File(args[0]) : BinaryLogDescriptor.directory();
+        File[] segments = path.isDirectory() ? BinaryLogDescriptor.listSegments(path) : new File[]{path};
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out)))) {
+            for (File segment : segments) {
+                decode(segment, out);
+            }
+        }
+    }
+
+    /**
+     * @return the number of events decoded from the segment
+     */
+    public static long decode(File segment, PrintWriter out) {
+        MappedByteBuffer mapped = IoUtil.mapExistingFile(segment, FileChannel.MapMode.READ_ONLY, "binary log segment");
+        try {
+            UnsafeBuffer buffer = new UnsafeBuffer(mapped);
+            StringBuilder line = new StringBuilder(256);
+            long eventCount = 0;
+            int position = 0;
+            while (position + BinaryLogDescriptor.ENTRY_HEADER_LENGTH <= buffer.capacity()) {
+                int length = buffer.getIntVolatile(position + BinaryLogDescriptor.LENGTH_OFFSET);
+                if (0 == length) {
+                    break;
+                }
+                int eventId = buffer.getInt(position + BinaryLogDescriptor.EVENT_ID_OFFSET);
+                line.setLength(0);
+                render(eventId, buffer, position + BinaryLogDescriptor.ENTRY_HEADER_LENGTH, length, line);
+                out.println(line);
+                position += BinaryLogDescriptor.entryLength(length);
+                eventCount++;
+            }
+            return eventCount;
+        } finally {
+            IoUtil.unmap(mapped);
+        }
+    }
+
+    static void render(int eventId, UnsafeBuffer buffer, int offset, int length, StringBuilder line) {
+        BinaryLogEvent event = BinaryLogEvent.get(eventId);
+        if (null == event || length < BinaryLogDescriptor.QUOTE_RECORD_LENGTH) {
+            line.append("UNKNOWN eventId=").append(eventId).append(" length=").append(length);
+            return;
+        }
+        long timestamp = buffer.getLong(offset + BinaryLogDescriptor.TIMESTAMP_OFFSET);
+        line.append(Instant.ofEpochSecond(0, timestamp))
+                .append(' ').append(event.name())
+                .append(" symbol=").append(BinaryLogDescriptor.unpackSymbol(buffer.getLong(offset + BinaryLogDescriptor.SYMBOL_OFFSET)))
+                .append(" symbolId=").append(buffer.getInt(offset + BinaryLogDescriptor.SYMBOL_ID_OFFSET))
+                .append(" clientTier=").append(buffer.getInt(offset + BinaryLogDescriptor.CLIENT_TIER_OFFSET))
+                .append(" rung=").append(buffer.getInt(offset + BinaryLogDescriptor.RUNG_OFFSET))
+                .append(" priceTimestamp=").append(buffer.getLong(offset + BinaryLogDescriptor.PRICE_TIMESTAMP_OFFSET))
+                .append(" valueDate=").append(buffer.getLong(offset + BinaryLogDescriptor.VALUE_DATE_OFFSET))
+                .append(" bid=").append(buffer.getDouble(offset + BinaryLogDescriptor.BID_OFFSET))
+                .append(" ask=").append(buffer.getDouble(offset + BinaryLogDescriptor.ASK_OFFSET))
+                .append(" volume=").append(buffer.getDouble(offset + BinaryLogDescriptor.VOLUME_OFFSET))
+                .append(" result=").append(buffer.getLong(offset + BinaryLogDescriptor.RESULT_OFFSET));
+    }
+}
@@ -0,0 +1,110 @@
+package pub.lab.trading.common.logging;
+
+import org.agrona.BitUtil;
+
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * Layout of the binary log. Each {@link BinaryLogEvent} is a fixed size quote record
+ * <pre>
+ *   0: long   log timestamp, epoch nanos
+ *   8: long   symbol, up to 8 ASCII chars packed little endian
+ *  16: long   price creation timestamp
+ *  24: long   value date
+ *  32: long   publication result, stream position or error code
+ *  40: double bid
+ *  48: double ask
+ *  56: double volume
+ *  64: int    symbol id
+ *  68: int    client tier
+ *  72: int    rung, or level count for a whole ladder
+ *  76: int    padding
+ * </pre>
+ * A log is a directory of fixed size, zero filled segment files per process, each a sequence of entries laid out as
+ * <pre>
+ *   0: int  record length, written last so a reader never sees a partial entry
+ *   4: int  event id
+ *   8: record, padded to 8 bytes
+ * </pre>
+ * and a zero length marks the end of the entries in a segment.
+ */
+public final class BinaryLogDescriptor {
+    public static final String DIR_PROPERTY = "binlog.dir";
+    public static final String SEGMENT_SIZE_PROPERTY = "binlog.segmentSize";
+    public static final String DEFAULT_DIR = "binlog";
+    public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+    static final int TIMESTAMP_OFFSET = 0;
+    static final int SYMBOL_OFFSET = 8;
+    static final int PRICE_TIMESTAMP_OFFSET = 16;
+    static final int VALUE_DATE_OFFSET = 24;
+    static final int RESULT_OFFSET = 32;
+    static final int BID_OFFSET = 40;
+    static final int ASK_OFFSET = 48;
+    static final int VOLUME_OFFSET = 56;
+    static final int SYMBOL_ID_OFFSET = 64;
+    static final int CLIENT_TIER_OFFSET = 68;
+    static final int RUNG_OFFSET = 72;
+    static final int QUOTE_RECORD_LENGTH = 80;
+
+    static final int LENGTH_OFFSET = 0;
+    static final int EVENT_ID_OFFSET = 4;
+    static final int ENTRY_HEADER_LENGTH = 8;
+    static final int ENTRY_ALIGNMENT = 8;
+
+    private static final String SEGMENT_PREFIX = "binlog-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private BinaryLogDescriptor() {
+    }
+
+    public static File directory() {
+        return new File(System.getProperty(DIR_PROPERTY, DEFAULT_DIR));
+    }
+
+    public static long segmentSize() {
+        return Long.getLong(SEGMENT_SIZE_PROPERTY, DEFAULT_SEGMENT_SIZE);
+    }
+
+    static int entryLength(int recordLength) {
+        return BitUtil.align(ENTRY_HEADER_LENGTH + recordLength, ENTRY_ALIGNMENT);
+    }
+
+    static File segmentFile(File dir, String name, int index) {
+        return new File(dir, String.format("%s%s-%06d%s", SEGMENT_PREFIX, name, index, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * @return the segments of every log in the directory, grouped by process name and in writing order within one
+     */
+    static File[] listSegments(File dir) {
+        File[] files = dir.listFiles((d, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (null == files) {
+            return new File[0];
+        }
+        Arrays.sort(files);
+        return files;
+    }
+
+    static long packSymbol(CharSequence symbol) {
+        long packed = 0;
+        final int length = null == symbol ? 0 : Math.min(Long.BYTES, symbol.length());
+        for (int i = 0; i < length; i++) {
+            packed |= (long) (symbol.charAt(i) & 0xFF) << (i << 3);
+        }
+        return packed;
+    }
+
+    static String unpackSymbol(long packed) {
+        final StringBuilder symbol = new StringBuilder(Long.BYTES);
+        for (int i = 0; i < Long.BYTES; i++) {
+            final char c = (char) ((packed >>> (i << 3)) & 0xFF);
+            if (0 == c) {
+                break;
+            }
+            symbol.append(c);
+        }
+        return symbol.toString();
+    }
+}
@@ -0,0 +1,38 @@
+package pub.lab.trading.common.logging;
+
+/**
+ * Events the hot path records through {@link BinaryLogger}. The id is the ring buffer message type and is
+ * written to the log file, so ids must never be reused once logs have been written with them.
+ */
+public enum BinaryLogEvent {
+    RAW_QUOTE_PUBLISHED(1),
+    TIER_QUOTE_PUBLISHED(2),
+    QUOTE_CONFLATED(3),
+    QUOTE_DROPPED(4),
+    QUOTE_EXPIRED(5);
+
+    private static final BinaryLogEvent[] BY_ID = new BinaryLogEvent[6];
+
+    static {
+        for (BinaryLogEvent event : values()) {
+            BY_ID[event.id] = event;
+        }
+    }
+
+    private final int id;
+
+    BinaryLogEvent(int id) {
+        this.id = id;
+    }
+
+    public int id() {
+        return id;
+    }
+
+    /**
+     * @return the event with the given id, or null if the id is unknown
+     */
+    public static BinaryLogEvent get(int id) {
+        return id > 0 && id < BY_ID.length ? BY_ID[id] : null;
+    }
+}
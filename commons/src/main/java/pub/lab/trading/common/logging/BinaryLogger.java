@@ -0,0 +1,110 @@
+package pub.lab.trading.common.logging;
+
+import org.agrona.concurrent.AtomicBuffer;
+import org.agrona.concurrent.EpochNanoClock;
+import org.agrona.concurrent.SystemEpochNanoClock;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.ManyToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBuffer;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.agrona.concurrent.ringbuffer.RingBufferDescriptor.TRAILER_LENGTH;
+
+/**
+ * Allocation free audit log for the hot path. Events are encoded as fixed layout records straight into an
+ * off-heap ring buffer, which a {@link BinaryLogAgent} drains to memory mapped files off the hot path and
+ * {@link BinaryLogDecoder} renders as text offline. Any number of threads may log through one instance.
+ * <p>
+ * Logging never blocks: when the ring buffer is full the event is dropped and counted.
+ */
+public class BinaryLogger {
+    public static final String ENABLED_PROPERTY = "binlog.enabled";
+    public static final String CAPACITY_PROPERTY = "binlog.capacity";
+    public static final int DEFAULT_CAPACITY = 4 * 1024 * 1024;
+
+    private final RingBuffer ringBuffer;
+    private final AtomicBuffer buffer;
+    private final EpochNanoClock clock;
+    private final boolean enabled;
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * @param capacity ring buffer capacity in bytes, a power of two
+     */
+    public BinaryLogger(final int capacity, final EpochNanoClock clock) {
+        this.ringBuffer = new ManyToOneRingBuffer(new UnsafeBuffer(ByteBuffer.allocateDirect(capacity + TRAILER_LENGTH)));
+        this.buffer = ringBuffer.buffer();
+        this.clock = clock;
+        this.enabled = true;
+    }
+
+    private BinaryLogger() {
+        this.ringBuffer = null;
+        this.buffer = null;
+        this.clock = null;
+        this.enabled = false;
+    }
+
+    /**
+     * @return a logger that discards every event, for processes running without a {@link BinaryLogAgent}
+     */
+    public static BinaryLogger disabled() {
+        return new BinaryLogger();
+    }
+
+    public static BinaryLogger fromSystemProperties() {
+        if (!Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"))) {
+            return disabled();
+        }
+        return new BinaryLogger(Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY), new SystemEpochNanoClock());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return events dropped because the ring buffer was full
+     */
+    public long droppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Records a quote event.
+     *
+     * @param rung   the rung of a single priced level, or the level count of a whole ladder
+     * @param result the publication result, a stream position or an error code
+     */
+    public void logQuote(final BinaryLogEvent event, final CharSequence symbol, final int symbolId, final long clientTier,
+                         final int rung, final long priceTimestamp, final long valueDate,
+                         final double bid, final double ask, final double volume, final long result) {
+        if (!enabled) {
+            return;
+        }
+        final int index = ringBuffer.tryClaim(event.id(), BinaryLogDescriptor.QUOTE_RECORD_LENGTH);
+        if (index < 0) {
+            droppedCount.incrementAndGet();
+            return;
+        }
+        final AtomicBuffer buffer = this.buffer;
+        buffer.putLong(index + BinaryLogDescriptor.TIMESTAMP_OFFSET, clock.nanoTime());
+        buffer.putLong(index + BinaryLogDescriptor.SYMBOL_OFFSET, BinaryLogDescriptor.packSymbol(symbol));
+        buffer.putLong(index + BinaryLogDescriptor.PRICE_TIMESTAMP_OFFSET, priceTimestamp);
+        buffer.putLong(index + BinaryLogDescriptor.VALUE_DATE_OFFSET, valueDate);
+        buffer.putLong(index + BinaryLogDescriptor.RESULT_OFFSET, result);
+        buffer.putDouble(index + BinaryLogDescriptor.BID_OFFSET, bid);
+        buffer.putDouble(index + BinaryLogDescriptor.ASK_OFFSET, ask);
+        buffer.putDouble(index + BinaryLogDescriptor.VOLUME_OFFSET, volume);
+        buffer.putInt(index + BinaryLogDescriptor.SYMBOL_ID_OFFSET, symbolId);
+        buffer.putInt(index + BinaryLogDescriptor.CLIENT_TIER_OFFSET, (int) clientTier);
+        buffer.putInt(index + BinaryLogDescriptor.RUNG_OFFSET, rung);
+        ringBuffer.commit(index);
+    }
+
+    RingBuffer ringBuffer() {
+        return ringBuffer;
+    }
+}
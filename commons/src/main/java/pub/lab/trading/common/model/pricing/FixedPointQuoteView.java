@@ -0,0 +1,53 @@
+package pub.lab.trading.common.model.pricing;
+
+import org.agrona.DirectBuffer;
+import play.lab.model.sbe.FixedPointQuoteMessageDecoder;
+
+/**
+ * The fixed point counterpart of {@link QuoteView}. Prices are mantissas of {@code 10^-decimals()}, so two prices of
+ * a symbol compare exactly as longs and {@link PriceRounding#toPrice} turns one into a double where needed.
+ */
+public class FixedPointQuoteView {
+    private final FixedPointQuoteMessageDecoder decoder = new FixedPointQuoteMessageDecoder();
+
+    public FixedPointQuoteView wrap(DirectBuffer buffer, int offset) {
+        decoder.wrap(buffer, offset, FixedPointQuoteMessageDecoder.BLOCK_LENGTH, FixedPointQuoteMessageDecoder.SCHEMA_VERSION);
+        return this;
+    }
+
+    public int getSymbol(final Appendable value) {
+        return decoder.getSymbol(value);
+    }
+
+    // SymbolRegistry.NULL_SYMBOL_ID when the sender had no id for the symbol
+    public int getSymbolId() {
+        return (int) decoder.symbolId();
+    }
+
+    public long priceCreationTimestamp() {
+        return decoder.priceCreationTimestamp();
+    }
+
+    public long getTenor() {
+        return decoder.tenor();
+    }
+
+    public long getValueDate() {
+        return decoder.valueDate();
+    }
+
+    public long getClientTier() {
+        return decoder.clientTier();
+    }
+
+    /**
+     * @return the number of decimals of every price in the quote, the price exponent negated
+     */
+    public int decimals() {
+        return -decoder.priceExponent();
+    }
+
+    public FixedPointQuoteMessageDecoder.RungDecoder getRung() {
+        return decoder.rung();
+    }
+}
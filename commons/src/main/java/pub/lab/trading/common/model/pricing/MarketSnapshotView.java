@@ -0,0 +1,39 @@
+package pub.lab.trading.common.model.pricing;
+
+import org.agrona.DirectBuffer;
+import play.lab.model.sbe.MarketSnapshotMessageDecoder;
+
+public class MarketSnapshotView {
+    private final MarketSnapshotMessageDecoder decoder = new MarketSnapshotMessageDecoder();
+
+    // Wrap the buffer for decoding
+    public MarketSnapshotView wrap(DirectBuffer buffer, int offset) {
+        decoder.wrap(buffer, offset, MarketSnapshotMessageDecoder.BLOCK_LENGTH, MarketSnapshotMessageDecoder.SCHEMA_VERSION);
+        return this;
+    }
+
+    // Accessor for priceCreationTimestamp (uint64)
+    public long priceCreationTimestamp() {
+        return decoder.priceCreationTimestamp();
+    }
+
+    // Accessor for tenor (uint32)
+    public long getTenor() {
+        return decoder.tenor();
+    }
+
+    // Accessor for valueDate (uint64)
+    public long getValueDate() {
+        return decoder.valueDate();
+    }
+
+    // Accessor for clientTier (uint32)
+    public long getClientTier() {
+        return decoder.clientTier();
+    }
+
+    // Per symbol ladders; each entry's rung group must be read in full before moving to the next entry
+    public MarketSnapshotMessageDecoder.EntryDecoder getEntries() {
+        return decoder.entry();
+    }
+}
@@ -0,0 +1,90 @@
+package pub.lab.trading.common.model.pricing;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import play.lab.model.sbe.MarketSnapshotMessageEncoder;
+import play.lab.model.sbe.MessageHeaderEncoder;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes the ladders of many symbols into a single {@code MarketSnapshotMessage} so a whole universe can be
+ * published with one offer and one frame header instead of one per symbol.
+ */
+public class MarketSnapshotWriter {
+    private static final int ROOT_LENGTH = MessageHeaderEncoder.ENCODED_LENGTH + MarketSnapshotMessageEncoder.BLOCK_LENGTH
+            + MarketSnapshotMessageEncoder.EntryEncoder.sbeHeaderSize();
+    private static final int ENTRY_LENGTH = MarketSnapshotMessageEncoder.EntryEncoder.sbeBlockLength()
+            + MarketSnapshotMessageEncoder.EntryEncoder.RungEncoder.sbeHeaderSize();
+    private static final int RUNG_LENGTH = MarketSnapshotMessageEncoder.EntryEncoder.RungEncoder.sbeBlockLength();
+
+    private final UnsafeBuffer buffer;
+    private final MarketSnapshotMessageEncoder snapshotEncoder;
+    private final MessageHeaderEncoder headerEncoder;
+    private MarketSnapshotMessageEncoder.EntryEncoder entryEncoder;
+    private MarketSnapshotMessageEncoder.EntryEncoder.RungEncoder rungEncoder;
+    private int entryCounter;
+    private int entryCount;
+
+    public MarketSnapshotWriter(int capacity) {
+        this.buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(capacity));
+        this.snapshotEncoder = new MarketSnapshotMessageEncoder();
+        this.headerEncoder = new MessageHeaderEncoder();
+    }
+
+    /**
+     * @return bytes needed to encode {@code symbolCount} ladders of {@code rungsPerSymbol} rungs each
+     */
+    public static int encodedLength(int symbolCount, int rungsPerSymbol) {
+        return ROOT_LENGTH + symbolCount * (ENTRY_LENGTH + rungsPerSymbol * RUNG_LENGTH);
+    }
+
+    /**
+     * @return how many ladders of {@code rungsPerSymbol} rungs fit in {@code maxLength} bytes
+     */
+    public static int maxSymbols(int maxLength, int rungsPerSymbol) {
+        return Math.min(MarketSnapshotMessageEncoder.EntryEncoder.countMaxValue(),
+                (maxLength - ROOT_LENGTH) / (ENTRY_LENGTH + rungsPerSymbol * RUNG_LENGTH));
+    }
+
+    public MarketSnapshotWriter beginSnapshot(long valueDate, long timestamp, long tenor, long clientTier, int symbolCount) {
+        snapshotEncoder.wrapAndApplyHeader(buffer, 0, headerEncoder)
+                .priceCreationTimestamp(timestamp)
+                .tenor(tenor)
+                .valueDate(valueDate)
+                .clientTier(clientTier);
+
+        entryEncoder = snapshotEncoder.entryCount(symbolCount);
+        entryCount = symbolCount;
+        entryCounter = 0;
+        return this;
+    }
+
+    public MarketSnapshotWriter addSymbol(CharSequence symbol, int symbolId, int totalRungCount) {
+        if (entryCounter >= entryCount) {
+            throw new IllegalStateException("Symbol count (" + (entryCounter + 1) + ") exceeds declared count (" + entryCount + ")");
+        }
+        if (totalRungCount > QuoteMessageWriter.MAX_LEVELS) {
+            throw new IllegalArgumentException("Total rung count (" + totalRungCount + ") exceeds maximum (" + QuoteMessageWriter.MAX_LEVELS + ")");
+        }
+        entryEncoder.next().symbol(symbol).symbolId(symbolId);
+        rungEncoder = entryEncoder.rungCount(totalRungCount);
+        entryCounter++;
+        return this;
+    }
+
+    public MarketSnapshotWriter addRung(double bid, double ask, double volume) {
+        rungEncoder.next()
+                .bid(bid)
+                .ask(ask)
+                .volume(volume);
+        return this;
+    }
+
+    public int encodedLength() {
+        return MessageHeaderEncoder.ENCODED_LENGTH + snapshotEncoder.encodedLength();
+    }
+
+    public UnsafeBuffer buffer() {
+        return buffer;
+    }
+}
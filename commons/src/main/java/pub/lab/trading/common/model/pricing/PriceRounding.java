@@ -0,0 +1,80 @@
+package pub.lab.trading.common.model.pricing;
+
+/**
+ * Rounds prices to a number of decimal places with power of ten tables and integer arithmetic, no
+ * {@code BigDecimal} or {@code Math.pow}. A price is scaled to a count of its smallest increment, rounded as a
+ * {@code long}, and scaled back by dividing by the exact power of ten, which gives the double closest to the
+ * decimal price. Bids round down and asks round up so rounding never tightens a quote.
+ * <p>
+ * Prices must be non-negative. Decimals run from 0 to {@value #MAX_DECIMALS}, others are rejected with an
+ * {@link IllegalArgumentException}.
+ */
+public final class PriceRounding {
+    public static final int MAX_DECIMALS = 10;
+
+    // a scaled price within this many increments of a whole increment is taken to be on it, absorbing the
+    // representation error of prices such as 1.1 that have no exact double
+    private static final double TOLERANCE = 1e-6;
+    private static final long[] POW10 = new long[MAX_DECIMALS + 1];
+    private static final double[] POW10_DOUBLE = new double[MAX_DECIMALS + 1];
+
+    static {
+        long pow = 1;
+        for (int i = 0; i <= MAX_DECIMALS; i++) {
+            POW10[i] = pow;
+            POW10_DOUBLE[i] = pow;
+            pow *= 10;
+        }
+    }
+
+    private PriceRounding() {
+    }
+
+    /**
+     * @return {@code 10^decimals}
+     */
+    public static long scale(int decimals) {
+        checkDecimals(decimals);
+        return POW10[decimals];
+    }
+
+    /**
+     * @return the price as a count of {@code 10^-decimals} increments, rounded down
+     */
+    public static long floorUnits(double price, int decimals) {
+        checkDecimals(decimals);
+        return (long) (price * POW10_DOUBLE[decimals] + TOLERANCE);
+    }
+
+    /**
+     * @return the price as a count of {@code 10^-decimals} increments, rounded up
+     */
+    public static long ceilUnits(double price, int decimals) {
+        checkDecimals(decimals);
+        final double scaled = price * POW10_DOUBLE[decimals] - TOLERANCE;
+        final long units = (long) scaled;
+        return units < scaled ? units + 1 : units;
+    }
+
+    /**
+     * @return the price of a count of {@code 10^-decimals} increments
+     */
+    public static double toPrice(long units, int decimals) {
+        checkDecimals(decimals);
+        return units / POW10_DOUBLE[decimals];
+    }
+
+    public static double floor(double price, int decimals) {
+        return toPrice(floorUnits(price, decimals), decimals);
+    }
+
+    public static double ceil(double price, int decimals) {
+        return toPrice(ceilUnits(price, decimals), decimals);
+    }
+
+    private static void checkDecimals(int decimals) {
+        if (decimals < 0 || decimals > MAX_DECIMALS) {
+            throw new IllegalArgumentException("Decimals (" + decimals + ") must be between 0 and " + MAX_DECIMALS);
+        }
+    }
+}
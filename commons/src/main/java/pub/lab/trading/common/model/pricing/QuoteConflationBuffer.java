@@ -0,0 +1,234 @@
+package pub.lab.trading.common.model.pricing;
+
+import io.aeron.ExclusivePublication;
+
+import java.util.Arrays;
+
+/**
+ * Holds the latest unpublished quote per slot while a publication is back pressured. A newer quote for a slot
+ * overwrites the pending one, so a burst costs one pending quote per slot rather than a retry per update, and
+ * once the publication has room the pending quotes drain lowest priority value first, oldest first within a
+ * priority. Callers give each symbol a dense slot, typically its symbol id.
+ * <p>
+ * Not thread safe, owned by the publishing agent.
+ */
+public class QuoteConflationBuffer {
+    private static final int LEVELS = QuoteMessageWriter.MAX_LEVELS;
+
+    /**
+     * Writes out a pending quote for {@link #drain(Sender)}. Its ladder is the {@code rungCount} rungs from
+     * {@code rungOffset} in the arrays, which are only valid for the call.
+     */
+    @FunctionalInterface
+    public interface Sender {
+        /**
+         * @return true if the quote was sent, false if it must stay pending
+         */
+        boolean send(CharSequence symbol, int symbolId, long valueDate, long timestamp, long tenor, long clientTier,
+                     double[] bids, double[] asks, double[] volumes, int rungOffset, int rungCount);
+    }
+
+    private final Sender publicationSender = this::publish;
+    private final int priorityLevels;
+    private final int[][] queues;
+    private final int[] queueHeads;
+    private final int[] queueTails;
+
+    private boolean[] pending;
+    private CharSequence[] symbols;
+    private int[] symbolIds;
+    private long[] valueDates;
+    private long[] timestamps;
+    private long[] tenors;
+    private long[] clientTiers;
+    private int[] rungCounts;
+    private double[] bids;
+    private double[] asks;
+    private double[] volumes;
+    private int pendingCount;
+    private long conflatedCount;
+    // target of publicationSender for the drain in progress
+    private QuoteMessageWriter drainWriter;
+    private ExclusivePublication drainPublication;
+
+    public QuoteConflationBuffer(int initialSlots, int priorityLevels) {
+        this.priorityLevels = priorityLevels;
+        this.queues = new int[priorityLevels][initialSlots];
+        this.queueHeads = new int[priorityLevels];
+        this.queueTails = new int[priorityLevels];
+        this.pending = new boolean[initialSlots];
+        this.symbols = new CharSequence[initialSlots];
+        this.symbolIds = new int[initialSlots];
+        this.valueDates = new long[initialSlots];
+        this.timestamps = new long[initialSlots];
+        this.tenors = new long[initialSlots];
+        this.clientTiers = new long[initialSlots];
+        this.rungCounts = new int[initialSlots];
+        this.bids = new double[initialSlots * LEVELS];
+        this.asks = new double[initialSlots * LEVELS];
+        this.volumes = new double[initialSlots * LEVELS];
+    }
+
+    public boolean hasPending() {
+        return pendingCount > 0;
+    }
+
+    public int pendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * @return how many pending quotes have been overwritten by a newer one
+     */
+    public long conflatedCount() {
+        return conflatedCount;
+    }
+
+    /**
+     * Stores the quote as the slot's pending quote, replacing any older pending quote for the slot. The symbol is
+     * held by reference so it must not be mutated while pending.
+     */
+    public void put(int slot, int priority, CharSequence symbol, int symbolId, long valueDate, long timestamp,
+                    long tenor, long clientTier, double[] rungBids, double[] rungAsks, double[] rungVolumes, int rungCount) {
+        if (priority < 0 || priority >= priorityLevels) {
+            throw new IllegalArgumentException("Priority (" + priority + ") must be between 0 and " + (priorityLevels - 1));
+        }
+        if (rungCount > LEVELS) {
+            throw new IllegalArgumentException("Rung count (" + rungCount + ") exceeds maximum (" + LEVELS + ")");
+        }
+        ensureCapacity(slot + 1);
+
+        if (pending[slot]) {
+            conflatedCount++;
+        } else {
+            pending[slot] = true;
+            pendingCount++;
+            enqueue(priority, slot);
+        }
+        symbols[slot] = symbol;
+        symbolIds[slot] = symbolId;
+        valueDates[slot] = valueDate;
+        timestamps[slot] = timestamp;
+        tenors[slot] = tenor;
+        clientTiers[slot] = clientTier;
+        rungCounts[slot] = rungCount;
+        final int base = slot * LEVELS;
+        System.arraycopy(rungBids, 0, bids, base, rungCount);
+        System.arraycopy(rungAsks, 0, asks, base, rungCount);
+        System.arraycopy(rungVolumes, 0, volumes, base, rungCount);
+    }
+
+    /**
+     * Drops the slot's pending quote, if any, without publishing it. Rare, so the slot is found by scanning the
+     * queues.
+     */
+    public void cancel(int slot) {
+        if (slot >= pending.length || !pending[slot]) {
+            return;
+        }
+        for (int priority = 0; priority < priorityLevels; priority++) {
+            final int[] queue = queues[priority];
+            final int head = queueHeads[priority];
+            final int tail = queueTails[priority];
+            for (int i = head; i < tail; i++) {
+                if (queue[i] == slot) {
+                    System.arraycopy(queue, i + 1, queue, i, tail - i - 1);
+                    queueTails[priority] = tail - 1;
+                    break;
+                }
+            }
+        }
+        pending[slot] = false;
+        symbols[slot] = null;
+        pendingCount--;
+    }
+
+    /**
+     * Publishes pending quotes in priority order until they are all sent or the publication pushes back.
+     *
+     * @return the number of quotes published
+     */
+    public int drain(QuoteMessageWriter writer, ExclusivePublication publication) {
+        drainWriter = writer;
+        drainPublication = publication;
+        return drain(publicationSender);
+    }
+
+    /**
+     * Sends pending quotes in priority order until they are all sent or the sender pushes back.
+     *
+     * @return the number of quotes sent
+     */
+    public int drain(Sender sender) {
+        int published = 0;
+        for (int priority = 0; priority < priorityLevels && pendingCount > 0; priority++) {
+            final int[] queue = queues[priority];
+            int head = queueHeads[priority];
+            final int tail = queueTails[priority];
+            while (head < tail) {
+                final int slot = queue[head];
+                if (!sender.send(symbols[slot], symbolIds[slot], valueDates[slot], timestamps[slot], tenors[slot],
+                        clientTiers[slot], bids, asks, volumes, slot * LEVELS, rungCounts[slot])) {
+                    queueHeads[priority] = head;
+                    return published;
+                }
+                pending[slot] = false;
+                symbols[slot] = null;
+                pendingCount--;
+                published++;
+                head++;
+            }
+            queueHeads[priority] = 0;
+            queueTails[priority] = 0;
+        }
+        return published;
+    }
+
+    private boolean publish(CharSequence symbol, int symbolId, long valueDate, long timestamp, long tenor,
+                            long clientTier, double[] rungBids, double[] rungAsks, double[] rungVolumes,
+                            int rungOffset, int rungCount) {
+        final QuoteMessageWriter writer = drainWriter;
+        if (writer.tryClaimQuote(drainPublication, symbol, symbolId, valueDate, timestamp, tenor, clientTier,
+                rungCount) < 0) {
+            return false;
+        }
+        for (int rung = rungOffset; rung < rungOffset + rungCount; rung++) {
+            writer.addRung(rungBids[rung], rungAsks[rung], rungVolumes[rung]);
+        }
+        return writer.commit() > 0;
+    }
+
+    private void enqueue(int priority, int slot) {
+        int[] queue = queues[priority];
+        if (queueTails[priority] == queue.length) {
+            // slide the undrained part down before growing, a slot is queued at most once
+            final int head = queueHeads[priority];
+            final int remaining = queueTails[priority] - head;
+            if (head > 0) {
+                System.arraycopy(queue, head, queue, 0, remaining);
+            } else {
+                queue = queues[priority] = Arrays.copyOf(queue, Math.max(1, queue.length << 1));
+            }
+            queueHeads[priority] = 0;
+            queueTails[priority] = remaining;
+        }
+        queue[queueTails[priority]++] = slot;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > pending.length) {
+            final int newCapacity = Math.max(required, pending.length << 1);
+            pending = Arrays.copyOf(pending, newCapacity);
+            symbols = Arrays.copyOf(symbols, newCapacity);
+            symbolIds = Arrays.copyOf(symbolIds, newCapacity);
+            valueDates = Arrays.copyOf(valueDates, newCapacity);
+            timestamps = Arrays.copyOf(timestamps, newCapacity);
+            tenors = Arrays.copyOf(tenors, newCapacity);
+            clientTiers = Arrays.copyOf(clientTiers, newCapacity);
+            rungCounts = Arrays.copyOf(rungCounts, newCapacity);
+            bids = Arrays.copyOf(bids, newCapacity * LEVELS);
+            asks = Arrays.copyOf(asks, newCapacity * LEVELS);
+            volumes = Arrays.copyOf(volumes, newCapacity * LEVELS);
+        }
+    }
+}
@@ -1,20 +1,38 @@
 package pub.lab.trading.common.model.pricing;
 
+import io.aeron.ExclusivePublication;
+import io.aeron.logbuffer.BufferClaim;
+import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
+import play.lab.model.sbe.FixedPointQuoteMessageEncoder;
 import play.lab.model.sbe.MessageHeaderEncoder;
 import play.lab.model.sbe.QuoteMessageEncoder;
+import pub.lab.trading.common.config.caches.SymbolRegistry;
 
 import java.nio.ByteBuffer;
 
 public class QuoteMessageWriter {
-    private static final int MAX_LEVELS = 10;
+    public static final int MAX_LEVELS = 10;
     private static final int INITIAL_BUFFER_CAPACITY = 512; // Increased to handle multiple rungs
+    private static final int ROOT_LENGTH = MessageHeaderEncoder.ENCODED_LENGTH + QuoteMessageEncoder.BLOCK_LENGTH
+            + QuoteMessageEncoder.RungEncoder.sbeHeaderSize();
+    private static final int FIXED_POINT_ROOT_LENGTH = MessageHeaderEncoder.ENCODED_LENGTH
+            + FixedPointQuoteMessageEncoder.BLOCK_LENGTH + FixedPointQuoteMessageEncoder.RungEncoder.sbeHeaderSize();
 
     private final UnsafeBuffer buffer;
     private final QuoteMessageEncoder quoteMessageEncoder;
     private final MessageHeaderEncoder headerEncoder;
+    private final BufferClaim bufferClaim = new BufferClaim();
+    private final FixedPointQuoteMessageEncoder fixedPointEncoder = new FixedPointQuoteMessageEncoder();
     private QuoteMessageEncoder.RungEncoder rungEncoder;
+    private FixedPointQuoteMessageEncoder.RungEncoder fixedPointRungEncoder;
     private int rungCounter;
+    // whether the quote being written is a FixedPointQuoteMessage
+    private boolean fixedPoint;
+
+    // claim mode state, the quote is being encoded in a claimed term buffer region
+    private boolean claimed;
+    private long claimedPosition;
 
     public QuoteMessageWriter() {
         this.buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(INITIAL_BUFFER_CAPACITY));
@@ -23,28 +41,160 @@ public class QuoteMessageWriter {
         this.rungCounter = 0;
     }
 
-    public QuoteMessageWriter beginQuote(CharSequence symbol, long valueDate, long timestamp, long tenor, long clientTier, int totalRungCount) {
+    public QuoteMessageWriter beginQuote(CharSequence symbol, int symbolId, long valueDate, long timestamp, long tenor, long clientTier, int totalRungCount) {
         if (totalRungCount > MAX_LEVELS) {
             throw new IllegalArgumentException("Total rung count (" + totalRungCount + ") exceeds maximum (" + MAX_LEVELS + ")");
         }
 
         // Reset buffer and state
         buffer.putInt(0, 0); // Clear first 4 bytes to avoid stale data
-        quoteMessageEncoder.wrapAndApplyHeader(buffer, 0, headerEncoder);
+        return encodeQuote(buffer, 0, symbol, symbolId, valueDate, timestamp, tenor, clientTier, totalRungCount);
+    }
+
+    /**
+     * Starts a quote directly in the publication's term buffer, saving the copy that {@code offer} makes from
+     * {@link #buffer()}. Rungs are then added as usual and {@link #commit()} publishes the quote. A full ladder
+     * of {@link #MAX_LEVELS} rungs is a few hundred bytes, well within an Aeron frame.
+     *
+     * @return a positive value when rungs may be added, otherwise the {@code tryClaim} error code such as
+     * {@link io.aeron.Publication#BACK_PRESSURED}, in which case nothing must be committed
+     */
+    public long tryClaimQuote(ExclusivePublication publication, CharSequence symbol, int symbolId, long valueDate,
+                              long timestamp, long tenor, long clientTier, int totalRungCount) {
+        if (totalRungCount > MAX_LEVELS) {
+            throw new IllegalArgumentException("Total rung count (" + totalRungCount + ") exceeds maximum (" + MAX_LEVELS + ")");
+        }
+
+        final long result = publication.tryClaim(encodedLength(totalRungCount), bufferClaim);
+        if (result > 0) {
+            claimed = true;
+            claimedPosition = result;
+            encodeQuote(bufferClaim.buffer(), bufferClaim.offset(), symbol, symbolId, valueDate, timestamp, tenor, clientTier, totalRungCount);
+        }
+        return result;
+    }
+
+    /**
+     * Starts a {@code FixedPointQuoteMessage} in our own buffer, rungs are then added with {@link #addFixedPointRung}.
+     *
+     * @param decimals the price exponent negated, prices being mantissas of {@code 10^-decimals}
+     */
+    public QuoteMessageWriter beginFixedPointQuote(CharSequence symbol, int symbolId, long valueDate, long timestamp,
+                                                   long tenor, long clientTier, int decimals, int totalRungCount) {
+        if (totalRungCount > MAX_LEVELS) {
+            throw new IllegalArgumentException("Total rung count (" + totalRungCount + ") exceeds maximum (" + MAX_LEVELS + ")");
+        }
+        checkDecimals(decimals);
+
+        buffer.putInt(0, 0);
+        return encodeFixedPointQuote(buffer, 0, symbol, symbolId, valueDate, timestamp, tenor, clientTier, decimals, totalRungCount);
+    }
+
+    /**
+     * The fixed point counterpart of {@link #tryClaimQuote}, rungs are added with {@link #addFixedPointRung} and
+     * {@link #commit()} publishes the quote.
+     *
+     * @param decimals the price exponent negated, prices being mantissas of {@code 10^-decimals}
+     */
+    public long tryClaimFixedPointQuote(ExclusivePublication publication, CharSequence symbol, int symbolId,
+                                        long valueDate, long timestamp, long tenor, long clientTier, int decimals,
+                                        int totalRungCount) {
+        if (totalRungCount > MAX_LEVELS) {
+            throw new IllegalArgumentException("Total rung count (" + totalRungCount + ") exceeds maximum (" + MAX_LEVELS + ")");
+        }
+        // before the claim, a claimed frame left uncommitted would stall the publication
+        checkDecimals(decimals);
+
+        final long result = publication.tryClaim(fixedPointEncodedLength(totalRungCount), bufferClaim);
+        if (result > 0) {
+            claimed = true;
+            claimedPosition = result;
+            encodeFixedPointQuote(bufferClaim.buffer(), bufferClaim.offset(), symbol, symbolId, valueDate, timestamp,
+                    tenor, clientTier, decimals, totalRungCount);
+        }
+        return result;
+    }
+
+    /**
+     * Publishes the quote started by a successful {@link #tryClaimQuote} or {@link #tryClaimFixedPointQuote}.
+     *
+     * @return the new stream position
+     */
+    public long commit() {
+        claimed = false;
+        bufferClaim.commit();
+        return claimedPosition;
+    }
+
+    /**
+     * Releases a claimed quote without publishing it, the claimed frame is turned into padding.
+     */
+    public void abort() {
+        if (claimed) {
+            claimed = false;
+            bufferClaim.abort();
+        }
+    }
+
+    /**
+     * @return encoded size, including the message header, of a quote with {@code rungCount} rungs
+     */
+    public static int encodedLength(int rungCount) {
+        return ROOT_LENGTH + rungCount * QuoteMessageEncoder.RungEncoder.sbeBlockLength();
+    }
+
+    /**
+     * @return encoded size, including the message header, of a fixed point quote with {@code rungCount} rungs
+     */
+    public static int fixedPointEncodedLength(int rungCount) {
+        return FIXED_POINT_ROOT_LENGTH + rungCount * FixedPointQuoteMessageEncoder.RungEncoder.sbeBlockLength();
+    }
+
+    private static void checkDecimals(int decimals) {
+        if (decimals < 0 || decimals > PriceRounding.MAX_DECIMALS) {
+            throw new IllegalArgumentException("Decimals (" + decimals + ") must be between 0 and " + PriceRounding.MAX_DECIMALS);
+        }
+    }
+
+    private QuoteMessageWriter encodeQuote(MutableDirectBuffer target, int offset, CharSequence symbol, int symbolId,
+                                           long valueDate, long timestamp, long tenor, long clientTier, int totalRungCount) {
+        quoteMessageEncoder.wrapAndApplyHeader(target, offset, headerEncoder);
         quoteMessageEncoder
                 .symbol(symbol)
                 .valueDate(valueDate)
                 .priceCreationTimestamp(timestamp)
                 .tenor(tenor)
-                .clientTier(clientTier);
+                .clientTier(clientTier)
+                .symbolId(symbolId);
 
         rungEncoder = quoteMessageEncoder.rungCount(totalRungCount);
         rungCounter = 0;
+        fixedPoint = false;
+        return this;
+    }
+
+    private QuoteMessageWriter encodeFixedPointQuote(MutableDirectBuffer target, int offset, CharSequence symbol,
+                                                     int symbolId, long valueDate, long timestamp, long tenor,
+                                                     long clientTier, int decimals, int totalRungCount) {
+        fixedPointEncoder.wrapAndApplyHeader(target, offset, headerEncoder);
+        fixedPointEncoder
+                .symbol(symbol)
+                .valueDate(valueDate)
+                .priceCreationTimestamp(timestamp)
+                .tenor(tenor)
+                .clientTier(clientTier)
+                .symbolId(symbolId)
+                .priceExponent((byte) -decimals);
+
+        fixedPointRungEncoder = fixedPointEncoder.rungCount(totalRungCount);
+        rungCounter = 0;
+        fixedPoint = true;
         return this;
     }
 
     public QuoteMessageWriter addRung(double bid, double ask, double volume) {
         if (rungCounter >= MAX_LEVELS) {
+            abort();
             throw new IllegalStateException("Rung count (" + (rungCounter + 1) + ") exceeds maximum (" + MAX_LEVELS + ")");
         }
         rungEncoder.next()
@@ -55,6 +205,23 @@ public class QuoteMessageWriter {
         return this;
     }
 
+    /**
+     * Adds a rung to a fixed point quote, prices as mantissas of the quote's exponent, see
+     * {@link PriceRounding#floorUnits} and {@link PriceRounding#ceilUnits}.
+     */
+    public QuoteMessageWriter addFixedPointRung(long bidMantissa, long askMantissa, long volume) {
+        if (rungCounter >= MAX_LEVELS) {
+            abort();
+            throw new IllegalStateException("Rung count (" + (rungCounter + 1) + ") exceeds maximum (" + MAX_LEVELS + ")");
+        }
+        fixedPointRungEncoder.next()
+                .bidMantissa(bidMantissa)
+                .askMantissa(askMantissa)
+                .volume(volume);
+        rungCounter++;
+        return this;
+    }
+
     public QuoteMessageWriter setPrices(double[] bids, double[] asks, double[] volumes, int levels) {
         if (levels > MAX_LEVELS) {
             throw new IllegalArgumentException("Levels (" + levels + ") exceeds maximum (" + MAX_LEVELS + ")");
@@ -75,7 +242,8 @@ public class QuoteMessageWriter {
     }
 
     public int encodedLength() {
-        return quoteMessageEncoder.encodedLength();
+        return MessageHeaderEncoder.ENCODED_LENGTH
+                + (fixedPoint ? fixedPointEncoder.encodedLength() : quoteMessageEncoder.encodedLength());
     }
 
     public UnsafeBuffer buffer() {
@@ -84,7 +252,7 @@ public class QuoteMessageWriter {
 
     // Convenience method for QuotePublisher
     public QuoteMessageWriter write(String pair, double bid, double ask) {
-        return beginQuote(pair, 0L, System.currentTimeMillis(), 0L, 0L, 1)
+        return beginQuote(pair, SymbolRegistry.NULL_SYMBOL_ID, 0L, System.currentTimeMillis(), 0L, 0L, 1)
                 .addRung(bid, ask, 1_000_000.0); // Default volume
     }
 }
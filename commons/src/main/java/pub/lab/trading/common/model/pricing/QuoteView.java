@@ -22,6 +22,11 @@ public class QuoteView {
         return decoder.getSymbol(value);
     }
 
+    // Accessor for symbolId (uint32), SymbolRegistry.NULL_SYMBOL_ID when the sender had no id for the symbol
+    public int getSymbolId() {
+        return (int) decoder.symbolId();
+    }
+
     // Accessor for priceCreationTimestamp (uint64)
     public long priceCreationTimestamp() {
         return decoder.priceCreationTimestamp();
@@ -0,0 +1,75 @@
+package pub.lab.trading.common.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Pins agent threads to a CPU. The JDK has no affinity API, so on Linux the thread's native id is read from
+ * {@code /proc/thread-self} and handed to {@code taskset} once, when the thread starts. Elsewhere, or when
+ * {@code taskset} is missing, the thread runs unpinned and a warning is logged.
+ */
+public final class CpuAffinity {
+    public static final int ANY_CPU = -1;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CpuAffinity.class);
+    private static final Path THREAD_SELF = Paths.get("/proc/thread-self");
+
+    private CpuAffinity() {
+    }
+
+    /**
+     * Parses a comma separated cpu list such as {@code 2,3,4,5}, an empty or missing list gives no cpus.
+     */
+    public static int[] parseCpuList(String cpus) {
+        if (null == cpus || cpus.isBlank()) {
+            return new int[0];
+        }
+        String[] parts = cpus.split(",");
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Integer.parseInt(parts[i].trim());
+        }
+        return result;
+    }
+
+    /**
+     * @return a factory for a single thread with the given name, pinned to {@code cpu} unless it is {@link #ANY_CPU}
+     */
+    public static ThreadFactory threadFactory(String threadName, int cpu) {
+        return runnable -> new Thread(() -> {
+            if (ANY_CPU != cpu) {
+                pinCurrentThread(cpu);
+            }
+            runnable.run();
+        }, threadName);
+    }
+
+    public static boolean pinCurrentThread(int cpu) {
+        final String threadName = Thread.currentThread().getName();
+        try {
+            // resolves to <pid>/task/<tid>
+            Path thread = Files.readSymbolicLink(THREAD_SELF);
+            String tid = thread.getFileName().toString();
+            Process taskset = new ProcessBuilder("taskset", "-p", "-c", Integer.toString(cpu), tid)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            if (0 == taskset.waitFor()) {
+                LOGGER.info("Pinned thread {} (tid {}) to cpu {}", threadName, tid, cpu);
+                return true;
+            }
+            LOGGER.warn("taskset failed to pin thread {} to cpu {}, exit code {}", threadName, cpu, taskset.exitValue());
+        } catch (IOException | UnsupportedOperationException e) {
+            LOGGER.warn("Cannot pin thread {} to cpu {}: {}", threadName, cpu, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+}
@@ -1,6 +1,8 @@
 package pub.lab.trading.common.util;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 
 public class HolidayCalendar {
 
@@ -8,4 +10,13 @@ public class HolidayCalendar {
     public static long getValueDate() {
         return LocalDate.now().plusDays(2).toEpochDay();
     }
+
+    public static long getValueDate(long epochMs) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault()).plusDays(2).toEpochDay();
+    }
+
+    public static long nextDayRollEpochMs(long epochMs) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault()).plusDays(1)
+                .atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
 }
@@ -57,7 +57,7 @@ public class MutableString implements CharSequence, Appendable {
 
     @Override
     public char charAt(int index) {
-        return builder.charAt(builder.charAt(index));
+        return builder.charAt(index);
     }
 
     @Override
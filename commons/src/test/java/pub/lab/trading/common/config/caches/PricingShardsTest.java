@@ -0,0 +1,77 @@
+package pub.lab.trading.common.config.caches;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class PricingShardsTest {
+    private static final int SYMBOL_COUNT = 1_000;
+
+    @Test
+    public void everySymbolMapsToExactlyOneShard() {
+        for (int shardCount = 1; shardCount <= 8; shardCount++) {
+            int[] symbolsPerShard = new int[shardCount];
+            for (int symbolId = 0; symbolId < SYMBOL_COUNT; symbolId++) {
+                int shard = PricingShards.shardOf(symbolId, shardCount);
+                assertTrue(shard >= 0 && shard < shardCount);
+                assertEquals(shard, PricingShards.shardOf(symbolId, shardCount));
+                symbolsPerShard[shard]++;
+            }
+            for (int count : symbolsPerShard) {
+                // dense ids spread evenly rather than in runs
+                assertTrue(count > SYMBOL_COUNT / shardCount / 2);
+            }
+        }
+    }
+
+    @Test
+    public void aLargeIdStaysInRange() {
+        for (int shardCount = 1; shardCount <= 8; shardCount++) {
+            int shard = PricingShards.shardOf(Integer.MAX_VALUE, shardCount);
+            assertTrue(shard >= 0 && shard < shardCount);
+        }
+    }
+
+    @Test
+    public void symbolsWithoutAnIdBelongToShardZero() {
+        for (int shardCount = 1; shardCount <= 8; shardCount++) {
+            assertEquals(0, PricingShards.shardOf(SymbolRegistry.NULL_SYMBOL_ID, shardCount));
+        }
+    }
+
+    @Test
+    public void aSingleShardOwnsEverything() {
+        PricingShards shards = new PricingShards();
+        assertEquals(PricingShards.DEFAULT_SHARD_COUNT, shards.shardCount());
+        for (int symbolId = SymbolRegistry.NULL_SYMBOL_ID; symbolId < SYMBOL_COUNT; symbolId++) {
+            assertEquals(0, PricingShards.shardOf(symbolId, 1));
+            assertTrue(shards.owns(0, symbolId));
+            assertFalse(shards.owns(1, symbolId));
+        }
+    }
+
+    @Test
+    public void ownershipFollowsTheShardCount() {
+        PricingShards shards = new PricingShards();
+        shards.update(4);
+
+        assertEquals(4, shards.shardCount());
+        for (int symbolId = 0; symbolId < SYMBOL_COUNT; symbolId++) {
+            int owners = 0;
+            for (int shardId = 0; shardId < 4; shardId++) {
+                owners += shards.owns(shardId, symbolId) ? 1 : 0;
+            }
+            assertEquals(1, owners);
+        }
+    }
+
+    @Test
+    public void aShardCountBelowOneIsRejected() {
+        PricingShards shards = new PricingShards();
+        assertThrows(IllegalArgumentException.class, () -> shards.update(0));
+        assertEquals(PricingShards.DEFAULT_SHARD_COUNT, shards.shardCount());
+    }
+}
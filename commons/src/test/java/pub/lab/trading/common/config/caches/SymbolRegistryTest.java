@@ -0,0 +1,73 @@
+package pub.lab.trading.common.config.caches;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+
+public class SymbolRegistryTest {
+    private final SymbolRegistry registry = new SymbolRegistry();
+
+    @Test
+    public void registerAssignsDenseIdsOnce() {
+        assertEquals(0, registry.register("EURUSD"));
+        assertEquals(1, registry.register("USDJPY"));
+        assertEquals(0, registry.register("EURUSD"));
+
+        assertEquals(2, registry.size());
+        assertEquals("USDJPY", registry.symbol(1));
+        assertEquals(1, registry.symbolId("USDJPY"));
+        assertEquals(SymbolRegistry.NULL_SYMBOL_ID, registry.symbolId("GBPUSD"));
+        assertNull(registry.symbol(2));
+        assertNull(registry.symbol(SymbolRegistry.NULL_SYMBOL_ID));
+    }
+
+    @Test
+    public void updateBindsIdsOutOfOrder() {
+        registry.update(3, "GBPUSD");
+        registry.update(0, "EURUSD");
+        registry.update(3, "GBPUSD");
+
+        assertEquals(4, registry.size());
+        assertEquals("GBPUSD", registry.symbol(3));
+        assertEquals(0, registry.symbolId("EURUSD"));
+        assertNull(registry.symbol(1));
+        // the owner carries on after the highest id it has seen
+        assertEquals(4, registry.register("USDCHF"));
+    }
+
+    @Test
+    public void restoredIdsSurviveAnEditedSymbolList() {
+        registry.update(0, "EURUSD");
+        registry.update(1, "USDJPY");
+        registry.update(2, "GBPUSD");
+
+        // USDJPY dropped from the list and AUDUSD added ahead of GBPUSD
+        assertEquals(0, registry.register("EURUSD"));
+        assertEquals(3, registry.register("AUDUSD"));
+        assertEquals(2, registry.register("GBPUSD"));
+        assertEquals("USDJPY", registry.symbol(1));
+    }
+
+    @Test
+    public void conflictingUpdatesKeepTheFirstBinding() {
+        registry.update(0, "EURUSD");
+        registry.update(1, "USDJPY");
+
+        assertThrows(IllegalStateException.class, () -> registry.update(1, "GBPUSD"));
+        assertThrows(IllegalStateException.class, () -> registry.update(2, "EURUSD"));
+
+        assertEquals("USDJPY", registry.symbol(1));
+        assertEquals(1, registry.symbolId("USDJPY"));
+        assertEquals(SymbolRegistry.NULL_SYMBOL_ID, registry.symbolId("GBPUSD"));
+        assertEquals(0, registry.symbolId("EURUSD"));
+        assertNull(registry.symbol(2));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    public void negativeIdsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> registry.update(SymbolRegistry.NULL_SYMBOL_ID, "EURUSD"));
+    }
+}
@@ -0,0 +1,102 @@
+package pub.lab.trading.common.config.caches;
+
+import org.junit.Before;
+import org.junit.Test;
+import pub.lab.trading.common.model.ClientTierLevel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TierPricingTableTest {
+    private static final double MID = 1.08345;
+    private static final double[] VOLUMES = {0, 750_000, 1_000_000, 5_000_000, 7_500_000, 25_000_000, 100_000_000, 250_000_000};
+
+    private final ClientTierConfigCache cache = new ClientTierConfigCache();
+    private ClientTierConfig gold;
+    private ClientTierConfig silver;
+
+    @Before
+    public void setUp() {
+        gold = tier(ClientTierLevel.GOLD, 0.5, 0.00008, (short) 1, 0.25, 1.0);
+        silver = tier(ClientTierLevel.SILVER, 1.5, 0.00012, (short) 2, 0.75, -0.5);
+        cache.update(ClientTierLevel.GOLD, gold);
+        cache.update(ClientTierLevel.SILVER, silver);
+    }
+
+    @Test
+    public void compiledOffsetsMatchThePerRungFormula() {
+        TierPricingTable table = cache.pricingTable();
+        for (ClientTierConfig config : new ClientTierConfig[]{gold, silver}) {
+            int tierId = config.tierId();
+            for (double volume : VOLUMES) {
+                double offset = table.baseOffset(tierId) + table.volumeFactorSlope(tierId) * TierPricingTable.volumeFactor(volume);
+                assertEquals(baselineBid(config, volume), MID - offset, 1e-12);
+                assertEquals(baselineAsk(config, volume), MID + offset, 1e-12);
+            }
+        }
+    }
+
+    @Test
+    public void bandFactorsMatchLog10() {
+        for (double volume : VOLUMES) {
+            assertEquals(Math.log10(volume / 1_000_000.0 + 1.0), TierPricingTable.volumeFactor(volume), 0.0);
+        }
+    }
+
+    @Test
+    public void aTierUpdateRecompilesTheTable() {
+        TierPricingTable before = cache.pricingTable();
+        gold.update("GOLD", 0.75, 0.00005, 10, 20, 30, 0, 1e9, (short) 4, true, true, true, 1e9, (short) 1, 0.5, 0.0, 2.0);
+        cache.update(ClientTierLevel.GOLD, gold);
+
+        TierPricingTable after = cache.pricingTable();
+        int tierId = ClientTierLevel.GOLD.getId();
+        double offset = after.baseOffset(tierId) + after.volumeFactorSlope(tierId) * TierPricingTable.volumeFactor(7_500_000);
+        assertEquals(baselineAsk(gold, 7_500_000), MID + offset, 1e-12);
+        assertEquals(0.00008 / 2.0 + 0.5, before.baseOffset(tierId), 1e-15);
+        assertEquals(10, after.quoteThrottleMs(tierId));
+        assertEquals(20, after.latencyProtectionMs(tierId));
+        assertEquals(30, after.quoteExpiryMs(tierId));
+        assertEquals(4, after.pricePrecision(tierId));
+    }
+
+    @Test
+    public void tiersWithoutConfigAreDisabled() {
+        TierPricingTable table = cache.pricingTable();
+        assertTrue(table.isEnabled(ClientTierLevel.GOLD.getId()));
+        assertTrue(table.isEnabled(ClientTierLevel.SILVER.getId()));
+        assertFalse(table.isEnabled(ClientTierLevel.BRONZE.getId()));
+        assertFalse(table.isEnabled(ClientTierLevel.PLATINUM.getId()));
+        assertEquals(Integer.MAX_VALUE, table.priority(ClientTierLevel.PLATINUM.getId()));
+        assertEquals(1, table.priority(ClientTierLevel.GOLD.getId()));
+        assertEquals(2, table.priority(ClientTierLevel.SILVER.getId()));
+    }
+
+    // the per rung markup the table replaces
+    private static double baselineBid(ClientTierConfig config, double volume) {
+        return MID - baselineSpread(config, volume) / 2.0 - baselineAdjustment(config, volume);
+    }
+
+    private static double baselineAsk(ClientTierConfig config, double volume) {
+        return MID + baselineSpread(config, volume) / 2.0 + baselineAdjustment(config, volume);
+    }
+
+    private static double baselineSpread(ClientTierConfig config, double volume) {
+        double volFactor = Math.log10(volume / 1_000_000.0 + 1.0);
+        return config.spreadTighteningFactor() * (1 + 0.05 * volFactor);
+    }
+
+    private static double baselineAdjustment(ClientTierConfig config, double volume) {
+        double volFactor = Math.log10(volume / 1_000_000.0 + 1.0);
+        double markupAdjust = config.markupBps() * (1 + 0.1 * volFactor);
+        double skewAdjust = config.tierSkew() * volFactor;
+        return config.signal() * (markupAdjust + skewAdjust);
+    }
+
+    private static ClientTierConfig tier(ClientTierLevel level, double markupBps, double spreadTighteningFactor,
+                                         short priority, double tierSkew, double signal) {
+        return new ClientTierConfig().init(level.getId(), level.name(), markupBps, spreadTighteningFactor, 0, 0, 0,
+                0, 1e9, (short) 5, true, true, true, 1e9, priority, tierSkew, 0.0, signal);
+    }
+}
@@ -0,0 +1,135 @@
+package pub.lab.trading.common.logging;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryLogAgentTest {
+    private static final long START_NANOS = 1_700_000_000_000_000_000L;
+    private static final int EVENT_COUNT = 50;
+    // room for 11 entries, so the events roll over four times
+    private static final long SEGMENT_SIZE = 1024;
+    private static final String[] SYMBOLS = {"EURUSD.F", "XAUUSD", "USDJPY.SPOT"};
+    // symbols are truncated to the 8 characters that fit the record
+    private static final String[] LOGGED_SYMBOLS = {"EURUSD.F", "XAUUSD", "USDJPY.S"};
+    private static final BinaryLogEvent[] EVENTS = BinaryLogEvent.values();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private long nanos = START_NANOS;
+    private BinaryLogger logger;
+
+    @Before
+    public void setUp() {
+        logger = new BinaryLogger(64 * 1024, () -> nanos += 1_000);
+    }
+
+    @Test
+    public void eventsRoundTripThroughRolledOverSegments() {
+        File dir = new File(folder.getRoot(), "binlog");
+        BinaryLogAgent agent = new BinaryLogAgent(logger, dir, "pricer", SEGMENT_SIZE);
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            logger.logQuote(EVENTS[i % EVENTS.length], SYMBOLS[i % SYMBOLS.length], i, i % 4 + 1, i % 10,
+                    1_000L + i, 20260105L, 1.08 + i * 1e-5, 1.09 + i * 1e-5, (i + 1) * 1_000_000.0, i % 7 == 0 ? -2 : 4_096L * i);
+        }
+        assertEquals(EVENT_COUNT, agent.doWork());
+        agent.onClose();
+        assertEquals(0, logger.droppedCount());
+
+        File[] segments = BinaryLogDescriptor.listSegments(dir);
+        assertEquals(5, segments.length);
+        List<String> lines = new ArrayList<>();
+        long decodedCount = 0;
+        for (File segment : segments) {
+            assertEquals(SEGMENT_SIZE, segment.length());
+            StringWriter text = new StringWriter();
+            try (PrintWriter out = new PrintWriter(text)) {
+                decodedCount += BinaryLogDecoder.decode(segment, out);
+            }
+            for (String line : text.toString().split(System.lineSeparator())) {
+                if (!line.isEmpty()) {
+                    lines.add(line);
+                }
+            }
+        }
+        assertEquals(EVENT_COUNT, decodedCount);
+        assertEquals(EVENT_COUNT, lines.size());
+
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            String[] tokens = lines.get(i).split(" ");
+            assertEquals(Instant.ofEpochSecond(0, START_NANOS + (i + 1) * 1_000L).toString(), tokens[0]);
+            assertEquals(EVENTS[i % EVENTS.length].name(), tokens[1]);
+            Map<String, String> fields = fields(tokens);
+            assertEquals(LOGGED_SYMBOLS[i % SYMBOLS.length], fields.get("symbol"));
+            assertEquals(i, Integer.parseInt(fields.get("symbolId")));
+            assertEquals(i % 4 + 1, Integer.parseInt(fields.get("clientTier")));
+            assertEquals(i % 10, Integer.parseInt(fields.get("rung")));
+            assertEquals(1_000L + i, Long.parseLong(fields.get("priceTimestamp")));
+            assertEquals(20260105L, Long.parseLong(fields.get("valueDate")));
+            assertEquals(1.08 + i * 1e-5, Double.parseDouble(fields.get("bid")), 0.0);
+            assertEquals(1.09 + i * 1e-5, Double.parseDouble(fields.get("ask")), 0.0);
+            assertEquals((i + 1) * 1_000_000.0, Double.parseDouble(fields.get("volume")), 0.0);
+            assertEquals(i % 7 == 0 ? -2 : 4_096L * i, Long.parseLong(fields.get("result")));
+        }
+    }
+
+    @Test
+    public void aRestartNeverOverwritesAnEarlierSegment() {
+        File dir = folder.getRoot();
+        BinaryLogAgent first = new BinaryLogAgent(logger, dir, "pricer", SEGMENT_SIZE);
+        logger.logQuote(BinaryLogEvent.QUOTE_DROPPED, "EURUSD", 1, 1, 0, 1L, 2L, 1.1, 1.2, 1.0, 3L);
+        first.doWork();
+        first.onClose();
+
+        BinaryLogAgent second = new BinaryLogAgent(logger, dir, "pricer", SEGMENT_SIZE);
+        logger.logQuote(BinaryLogEvent.QUOTE_EXPIRED, "EURUSD", 1, 1, 0, 1L, 2L, 1.1, 1.2, 0.0, 3L);
+        second.doWork();
+        second.onClose();
+
+        File[] segments = BinaryLogDescriptor.listSegments(dir);
+        assertEquals(2, segments.length);
+        StringWriter text = new StringWriter();
+        try (PrintWriter out = new PrintWriter(text)) {
+            assertEquals(1, BinaryLogDecoder.decode(segments[0], out));
+            assertEquals(1, BinaryLogDecoder.decode(segments[1], out));
+        }
+        String[] lines = text.toString().split(System.lineSeparator());
+        assertTrue(lines[0].contains(" QUOTE_DROPPED "));
+        assertTrue(lines[1].contains(" QUOTE_EXPIRED "));
+    }
+
+    @Test
+    public void symbolsPackIntoEightBytes() {
+        assertEquals("EURUSD.F", BinaryLogDescriptor.unpackSymbol(BinaryLogDescriptor.packSymbol("EURUSD.F")));
+        assertEquals("EURUSD", BinaryLogDescriptor.unpackSymbol(BinaryLogDescriptor.packSymbol("EURUSD")));
+        assertEquals("USDJPY.S", BinaryLogDescriptor.unpackSymbol(BinaryLogDescriptor.packSymbol("USDJPY.SPOT")));
+        assertEquals("", BinaryLogDescriptor.unpackSymbol(BinaryLogDescriptor.packSymbol(null)));
+        // the high byte of an 8 character symbol is its last character, not a sign to be smeared
+        assertEquals("ABCDEFG~", BinaryLogDescriptor.unpackSymbol(BinaryLogDescriptor.packSymbol("ABCDEFG~")));
+        assertTrue(BinaryLogDescriptor.packSymbol("ABCDEFG\u00FF") < 0);
+        assertEquals("ABCDEFG\u00FF", BinaryLogDescriptor.unpackSymbol(BinaryLogDescriptor.packSymbol("ABCDEFG\u00FF")));
+    }
+
+    private static Map<String, String> fields(String[] tokens) {
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 2; i < tokens.length; i++) {
+            int separator = tokens[i].indexOf('=');
+            fields.put(tokens[i].substring(0, separator), tokens[i].substring(separator + 1));
+        }
+        return fields;
+    }
+}
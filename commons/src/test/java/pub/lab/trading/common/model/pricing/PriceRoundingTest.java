@@ -0,0 +1,71 @@
+package pub.lab.trading.common.model.pricing;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+public class PriceRoundingTest {
+    @Test
+    public void pricesOnATickAreUnchanged() {
+        assertEquals(1.1, PriceRounding.floor(1.1, 1), 0.0);
+        assertEquals(1.1, PriceRounding.ceil(1.1, 1), 0.0);
+        assertEquals(1.08345, PriceRounding.floor(1.08345, 5), 0.0);
+        assertEquals(1.08345, PriceRounding.ceil(1.08345, 5), 0.0);
+        assertEquals(154.123, PriceRounding.floor(154.123, 3), 0.0);
+        assertEquals(154.123, PriceRounding.ceil(154.123, 3), 0.0);
+        assertEquals(108345L, PriceRounding.floorUnits(1.08345, 5));
+        assertEquals(108345L, PriceRounding.ceilUnits(1.08345, 5));
+    }
+
+    @Test
+    public void pricesWithinToleranceOfATickRoundToIt() {
+        double below = Math.nextDown(Math.nextDown(1.08345));
+        double above = Math.nextUp(Math.nextUp(1.08345));
+        assertEquals(1.08345, PriceRounding.floor(below, 5), 0.0);
+        assertEquals(1.08345, PriceRounding.ceil(below, 5), 0.0);
+        assertEquals(1.08345, PriceRounding.floor(above, 5), 0.0);
+        assertEquals(1.08345, PriceRounding.ceil(above, 5), 0.0);
+        // the sum is 0.30000000000000004, a representation error rather than a price above 0.3
+        assertEquals(0.3, PriceRounding.ceil(0.1 + 0.2, 1), 0.0);
+    }
+
+    @Test
+    public void bidsRoundDownAndAsksRoundUpBetweenTicks() {
+        assertEquals(1.0834, PriceRounding.floor(1.08345, 4), 0.0);
+        assertEquals(1.0835, PriceRounding.ceil(1.08345, 4), 0.0);
+        assertEquals(1.0834, PriceRounding.floor(1.083401, 4), 0.0);
+        assertEquals(1.0835, PriceRounding.ceil(1.083401, 4), 0.0);
+        assertEquals(10834L, PriceRounding.floorUnits(1.083499, 4));
+        assertEquals(10835L, PriceRounding.ceilUnits(1.083401, 4));
+    }
+
+    @Test
+    public void zeroDecimalsRoundToWholeUnits() {
+        assertEquals(1L, PriceRounding.scale(0));
+        assertEquals(154.0, PriceRounding.floor(154.5, 0), 0.0);
+        assertEquals(155.0, PriceRounding.ceil(154.5, 0), 0.0);
+        assertEquals(154.0, PriceRounding.floor(154.0, 0), 0.0);
+        assertEquals(154.0, PriceRounding.ceil(154.0, 0), 0.0);
+        assertEquals(0.0, PriceRounding.floor(0.0, 0), 0.0);
+        assertEquals(0.0, PriceRounding.ceil(0.0, 0), 0.0);
+    }
+
+    @Test
+    public void maxDecimalsIsSupported() {
+        assertEquals(10_000_000_000L, PriceRounding.scale(PriceRounding.MAX_DECIMALS));
+        assertEquals(1.2345678901, PriceRounding.floor(1.23456789015, PriceRounding.MAX_DECIMALS), 0.0);
+        assertEquals(1.2345678902, PriceRounding.ceil(1.23456789015, PriceRounding.MAX_DECIMALS), 0.0);
+        assertEquals(1.5, PriceRounding.toPrice(15_000_000_000L, PriceRounding.MAX_DECIMALS), 0.0);
+    }
+
+    @Test
+    public void decimalsOutsideTheTablesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> PriceRounding.floor(1.1, -1));
+        assertThrows(IllegalArgumentException.class, () -> PriceRounding.ceil(1.1, -1));
+        assertThrows(IllegalArgumentException.class, () -> PriceRounding.scale(-1));
+        assertThrows(IllegalArgumentException.class, () -> PriceRounding.floor(1.1, PriceRounding.MAX_DECIMALS + 1));
+        assertThrows(IllegalArgumentException.class, () -> PriceRounding.ceilUnits(1.1, PriceRounding.MAX_DECIMALS + 1));
+        assertThrows(IllegalArgumentException.class, () -> PriceRounding.toPrice(11, PriceRounding.MAX_DECIMALS + 1));
+    }
+}
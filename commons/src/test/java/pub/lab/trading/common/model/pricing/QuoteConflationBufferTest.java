@@ -0,0 +1,166 @@
+package pub.lab.trading.common.model.pricing;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+
+public class QuoteConflationBufferTest {
+    private final RecordingSender sender = new RecordingSender();
+
+    @Test
+    public void aNewerQuoteOverwritesThePendingOneInItsQueuePosition() {
+        QuoteConflationBuffer buffer = new QuoteConflationBuffer(4, 1);
+        put(buffer, 1, 0, 1, 1.10);
+        put(buffer, 0, 0, 2, 1.20);
+        put(buffer, 1, 0, 3, 1.30);
+        assertEquals(2, buffer.pendingCount());
+        assertEquals(1, buffer.conflatedCount());
+
+        assertEquals(2, buffer.drain(sender));
+        assertArrayEquals(new int[]{1, 0}, sender.symbolIds());
+        assertEquals(3, sender.timestamps.get(0).longValue());
+        assertEquals(1.30, sender.bids.get(0), 0.0);
+        assertEquals(1.30 + 0.0002, sender.asks.get(0), 1e-12);
+        assertEquals(2, sender.timestamps.get(1).longValue());
+        assertFalse(buffer.hasPending());
+    }
+
+    @Test
+    public void lowerPriorityValuesDrainFirst() {
+        QuoteConflationBuffer buffer = new QuoteConflationBuffer(4, 2);
+        put(buffer, 0, 1, 1, 1.1);
+        put(buffer, 1, 0, 2, 1.1);
+        put(buffer, 2, 1, 3, 1.1);
+        put(buffer, 3, 0, 4, 1.1);
+
+        assertEquals(4, buffer.drain(sender));
+        assertArrayEquals(new int[]{1, 3, 0, 2}, sender.symbolIds());
+    }
+
+    @Test
+    public void aPartialDrainResumesFromTheQuoteThatWasPushedBack() {
+        QuoteConflationBuffer buffer = new QuoteConflationBuffer(4, 1);
+        put(buffer, 0, 0, 1, 1.1);
+        put(buffer, 1, 0, 2, 1.1);
+        put(buffer, 2, 0, 3, 1.1);
+
+        sender.capacity = 1;
+        assertEquals(1, buffer.drain(sender));
+        assertEquals(2, buffer.pendingCount());
+        assertEquals(0, buffer.drain(sender));
+
+        put(buffer, 2, 0, 4, 1.4);
+        sender.capacity = Integer.MAX_VALUE;
+        assertEquals(2, buffer.drain(sender));
+        // slot 1 was refused twice and is retried before slot 2
+        assertArrayEquals(new int[]{0, 1, 2}, sender.symbolIds());
+        assertEquals(4, sender.timestamps.get(sender.timestamps.size() - 1).longValue());
+        assertFalse(buffer.hasPending());
+    }
+
+    @Test
+    public void aFullQueueSlidesDownOverDrainedEntriesBeforeGrowing() {
+        QuoteConflationBuffer buffer = new QuoteConflationBuffer(2, 1);
+        put(buffer, 0, 0, 1, 1.1);
+        put(buffer, 1, 0, 2, 1.1);
+        sender.capacity = 1;
+        assertEquals(1, buffer.drain(sender));
+
+        // the queue is full with its head past slot 0, so slot 2 slides slot 1 down rather than growing it
+        put(buffer, 2, 0, 3, 1.1);
+        // full again from its start, so slot 3 grows it
+        put(buffer, 3, 0, 4, 1.1);
+        assertEquals(3, buffer.pendingCount());
+
+        sender.capacity = Integer.MAX_VALUE;
+        assertEquals(3, buffer.drain(sender));
+        assertArrayEquals(new int[]{0, 1, 2, 3}, sender.symbolIds());
+    }
+
+    @Test
+    public void theQueueGrowsPastItsInitialSlots() {
+        QuoteConflationBuffer buffer = new QuoteConflationBuffer(1, 1);
+        for (int slot = 0; slot < 10; slot++) {
+            put(buffer, slot, 0, slot, 1.0 + slot);
+        }
+        assertEquals(10, buffer.drain(sender));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9}, sender.symbolIds());
+        assertEquals(10.0, sender.bids.get(9), 0.0);
+    }
+
+    @Test
+    public void aCancelledQuoteIsNotSent() {
+        QuoteConflationBuffer buffer = new QuoteConflationBuffer(4, 1);
+        put(buffer, 0, 0, 1, 1.1);
+        put(buffer, 1, 0, 2, 1.1);
+        put(buffer, 2, 0, 3, 1.1);
+        buffer.cancel(1);
+        buffer.cancel(3);
+        assertEquals(2, buffer.pendingCount());
+
+        put(buffer, 1, 0, 4, 1.1);
+        assertEquals(3, buffer.drain(sender));
+        assertArrayEquals(new int[]{0, 2, 1}, sender.symbolIds());
+    }
+
+    @Test
+    public void drainingNothingSendsNothing() {
+        QuoteConflationBuffer buffer = new QuoteConflationBuffer(4, 1);
+        assertFalse(buffer.hasPending());
+        assertEquals(0, buffer.drain(sender));
+        assertEquals(0, sender.attempts);
+    }
+
+    @Test
+    public void invalidQuotesAreRejected() {
+        QuoteConflationBuffer buffer = new QuoteConflationBuffer(4, 2);
+        double[] rungs = new double[QuoteMessageWriter.MAX_LEVELS + 1];
+        assertThrows(IllegalArgumentException.class,
+                () -> buffer.put(0, 2, "EURUSD", 0, 0, 0, 0, 0, rungs, rungs, rungs, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> buffer.put(0, 0, "EURUSD", 0, 0, 0, 0, 0, rungs, rungs, rungs, rungs.length));
+        assertFalse(buffer.hasPending());
+    }
+
+    private static void put(QuoteConflationBuffer buffer, int slot, int priority, long timestamp, double bid) {
+        buffer.put(slot, priority, "SYM" + slot, slot, 20250101, timestamp, 0, 1,
+                new double[]{bid, bid - 0.0001}, new double[]{bid + 0.0002, bid + 0.0003}, new double[]{1e6, 5e6}, 2);
+    }
+
+    private static final class RecordingSender implements QuoteConflationBuffer.Sender {
+        private final List<Integer> symbolIds = new ArrayList<>();
+        private final List<Long> timestamps = new ArrayList<>();
+        private final List<Double> bids = new ArrayList<>();
+        private final List<Double> asks = new ArrayList<>();
+        private int capacity = Integer.MAX_VALUE;
+        private int attempts;
+
+        @Override
+        public boolean send(CharSequence symbol, int symbolId, long valueDate, long timestamp, long tenor,
+                            long clientTier, double[] rungBids, double[] rungAsks, double[] rungVolumes,
+                            int rungOffset, int rungCount) {
+            attempts++;
+            if (capacity <= 0) {
+                return false;
+            }
+            capacity--;
+            assertEquals("SYM" + symbolId, symbol.toString());
+            assertEquals(2, rungCount);
+            symbolIds.add(symbolId);
+            timestamps.add(timestamp);
+            bids.add(rungBids[rungOffset]);
+            asks.add(rungAsks[rungOffset]);
+            return true;
+        }
+
+        int[] symbolIds() {
+            return symbolIds.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+}
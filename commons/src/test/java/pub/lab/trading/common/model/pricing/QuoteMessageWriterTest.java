@@ -0,0 +1,105 @@
+package pub.lab.trading.common.model.pricing;
+
+import org.junit.Test;
+import play.lab.model.sbe.FixedPointQuoteMessageDecoder;
+import play.lab.model.sbe.MessageHeaderDecoder;
+import play.lab.model.sbe.QuoteMessageDecoder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+
+public class QuoteMessageWriterTest {
+    private final QuoteMessageWriter writer = new QuoteMessageWriter();
+
+    @Test
+    public void encodedLengthIsTheSizeOfAFullLadder() {
+        writer.beginQuote("EURUSD", 7, 20260105L, 1_700_000_000_000L, 0L, 2L, QuoteMessageWriter.MAX_LEVELS);
+        for (int rung = 0; rung < QuoteMessageWriter.MAX_LEVELS; rung++) {
+            writer.addRung(1.0834 - rung * 0.0001, 1.0836 + rung * 0.0001, (rung + 1) * 1_000_000.0);
+        }
+
+        assertEquals(QuoteMessageWriter.encodedLength(QuoteMessageWriter.MAX_LEVELS), writer.encodedLength());
+        QuoteView view = new QuoteView().wrap(writer.buffer(), MessageHeaderDecoder.ENCODED_LENGTH);
+        QuoteMessageDecoder.RungDecoder rung = view.getRung();
+        assertEquals(QuoteMessageWriter.MAX_LEVELS, rung.count());
+        for (int i = 0; i < QuoteMessageWriter.MAX_LEVELS; i++) {
+            rung.next();
+        }
+        assertEquals(1.0825, rung.bid(), 1e-12);
+        assertEquals(1.0845, rung.ask(), 1e-12);
+        assertEquals(10_000_000.0, rung.volume(), 0.0);
+
+        // what a reader consumes, independently of the writer's own encoder
+        QuoteMessageDecoder decoder = new QuoteMessageDecoder().wrapAndApplyHeader(writer.buffer(), 0, new MessageHeaderDecoder());
+        assertEquals(QuoteMessageWriter.encodedLength(QuoteMessageWriter.MAX_LEVELS),
+                MessageHeaderDecoder.ENCODED_LENGTH + decoder.sbeDecodedLength());
+    }
+
+    @Test
+    public void fixedPointEncodedLengthIsTheSizeOfAFullLadder() {
+        writer.beginFixedPointQuote("EURUSD", 7, 0L, 0L, 0L, 0L, 5, QuoteMessageWriter.MAX_LEVELS);
+        for (int rung = 0; rung < QuoteMessageWriter.MAX_LEVELS; rung++) {
+            writer.addFixedPointRung(108340L - rung, 108360L + rung, 1_000_000L);
+        }
+
+        assertEquals(QuoteMessageWriter.fixedPointEncodedLength(QuoteMessageWriter.MAX_LEVELS), writer.encodedLength());
+        FixedPointQuoteMessageDecoder decoder = new FixedPointQuoteMessageDecoder()
+                .wrapAndApplyHeader(writer.buffer(), 0, new MessageHeaderDecoder());
+        assertEquals(QuoteMessageWriter.fixedPointEncodedLength(QuoteMessageWriter.MAX_LEVELS),
+                MessageHeaderDecoder.ENCODED_LENGTH + decoder.sbeDecodedLength());
+    }
+
+    @Test
+    public void fixedPointQuoteReadsBackThroughTheView() {
+        writer.beginFixedPointQuote("EURUSD", 7, 20260105L, 1_700_000_000_000L, 0L, 2L, 5, 3)
+                .addFixedPointRung(108341L, 108349L, 1_000_000L)
+                .addFixedPointRung(108339L, 108352L, 5_000_000L)
+                .addFixedPointRung(108335L, 108356L, 10_000_000L);
+
+        MessageHeaderDecoder header = new MessageHeaderDecoder().wrap(writer.buffer(), 0);
+        assertEquals(FixedPointQuoteMessageDecoder.TEMPLATE_ID, header.templateId());
+        assertEquals(QuoteMessageWriter.fixedPointEncodedLength(3), writer.encodedLength());
+
+        FixedPointQuoteView view = new FixedPointQuoteView().wrap(writer.buffer(), MessageHeaderDecoder.ENCODED_LENGTH);
+        StringBuilder symbol = new StringBuilder();
+        view.getSymbol(symbol);
+        assertEquals("EURUSD", symbol.toString());
+        assertEquals(7, view.getSymbolId());
+        assertEquals(20260105L, view.getValueDate());
+        assertEquals(1_700_000_000_000L, view.priceCreationTimestamp());
+        assertEquals(2L, view.getClientTier());
+        assertEquals(5, view.decimals());
+
+        FixedPointQuoteMessageDecoder.RungDecoder rung = view.getRung();
+        assertEquals(3, rung.count());
+        assertRung(rung.next(), 108341L, 108349L, 1_000_000L);
+        assertRung(rung.next(), 108339L, 108352L, 5_000_000L);
+        assertRung(rung.next(), 108335L, 108356L, 10_000_000L);
+        assertFalse(rung.hasNext());
+        assertEquals(1.08341, PriceRounding.toPrice(108341L, view.decimals()), 0.0);
+    }
+
+    @Test
+    public void wholeUnitPricesHaveZeroDecimals() {
+        writer.beginFixedPointQuote("USDJPY", 3, 0L, 0L, 0L, 0L, 0, 1).addFixedPointRung(154L, 155L, 1_000_000L);
+
+        FixedPointQuoteView view = new FixedPointQuoteView().wrap(writer.buffer(), MessageHeaderDecoder.ENCODED_LENGTH);
+        assertEquals(0, view.decimals());
+        assertRung(view.getRung().next(), 154L, 155L, 1_000_000L);
+    }
+
+    @Test
+    public void decimalsOutsideTheSupportedRangeAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> writer.beginFixedPointQuote("EURUSD", 7, 0L, 0L, 0L, 0L, -1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> writer.beginFixedPointQuote("EURUSD", 7, 0L, 0L, 0L, 0L, PriceRounding.MAX_DECIMALS + 1, 1));
+    }
+
+    private static void assertRung(FixedPointQuoteMessageDecoder.RungDecoder rung, long bid, long ask, long volume) {
+        assertEquals(bid, rung.bidMantissa());
+        assertEquals(ask, rung.askMantissa());
+        assertEquals(volume, rung.volume());
+    }
+}
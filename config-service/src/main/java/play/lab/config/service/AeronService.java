@@ -19,15 +19,28 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.lab.marketdata.model.MarketDataTick;
 import play.lab.model.sbe.ClientTierConfigMessageDecoder;
+import play.lab.model.sbe.GeneratorParamsMessageEncoder;
+import play.lab.model.sbe.MarketSnapshotMessageDecoder;
 import play.lab.model.sbe.MessageHeaderDecoder;
+import play.lab.model.sbe.MessageHeaderEncoder;
+import play.lab.model.sbe.PricingShardConfigMessageEncoder;
 import play.lab.model.sbe.QuoteMessageDecoder;
+import play.lab.model.sbe.SymbolRegistryMessageDecoder;
+import play.lab.model.sbe.SymbolRegistryMessageEncoder;
 import pub.lab.trading.common.config.AeronConfigs;
 import pub.lab.trading.common.config.StreamId;
+import pub.lab.trading.common.config.caches.PricingShards;
+import pub.lab.trading.common.config.caches.SymbolRegistry;
 import pub.lab.trading.common.model.config.ClientTierFlyweight;
+import pub.lab.trading.common.model.pricing.MarketSnapshotView;
 import pub.lab.trading.common.model.pricing.QuoteView;
 import pub.lab.trading.common.util.MutableString;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -43,13 +56,30 @@ public enum AeronService {
     INSTANCE;
     private static final int MAX_RETRIES = 2;
     private static final String REPLAY_CHANNEL = "aeron:ipc?alias=tiers-replay";// 5 seconds
+    private static final String REGISTRY_REPLAY_CHANNEL = "aeron:ipc?alias=registry-replay";
+    private static final long REGISTRY_REPLAY_TIMEOUT_MS = 5_000;
+    // file listing the symbols to register, one per line, only the first comma separated column is read
+    private static final String SYMBOLS_PROPERTY = "config.symbols";
+    // optional file of market-data generator params, SYMBOL,volatility,spreadBp per line
+    private static final String GENERATOR_PARAMS_PROPERTY = "config.generator.params";
+    // number of symbol shards the spot pricing engine is split into
+    private static final String PRICING_SHARDS_PROPERTY = "config.pricing.shards";
+    private static final String[] DEFAULT_SYMBOLS = {
+            "EURUSD", "USDJPY", "GBPUSD", "USDCHF", "AUDUSD", "NZDUSD", "USDCAD",
+            "EURJPY", "EURGBP", "EURCHF", "GBPJPY", "AUDJPY", "NZDJPY", "CADJPY", "AUDNZD", "EURCAD", "GBPCHF"
+    };
     private final Logger LOGGER = LoggerFactory.getLogger(AeronService.class);
     private final List<ClientTierFlyweight> cache = new ArrayList<>();
     private final ClientTierFlyweight flyweight = new ClientTierFlyweight();
     private final OneToOneRingBuffer ringBuffer = new OneToOneRingBuffer(new UnsafeBuffer(ByteBuffer.allocateDirect(8192 + TRAILER_LENGTH)));
     private final QuoteView quoteView = new QuoteView();
+    private final MarketSnapshotView snapshotView = new MarketSnapshotView();
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
     private final ConcurrentMap<String, MarketDataTick> latestTicks = new ConcurrentHashMap<>();
     private final MutableString symbolMutableString = new MutableString();
+    private final SymbolRegistry symbolRegistry = new SymbolRegistry();
+    private final GeneratorParamsMessageEncoder generatorParamsEncoder = new GeneratorParamsMessageEncoder();
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
     private Aeron aeron;
     private AeronArchive archive;
     private long publicationId;
@@ -148,6 +178,33 @@ public enum AeronService {
         LOGGER.info("Sent tier: tierId={}, tierName={}", tierId, tierName);
     }
 
+    /**
+     * Sends new generator params for a registered symbol, the market-data generators quoting it apply them on
+     * their next duty cycle.
+     */
+    public void sendGeneratorParams(String symbol, double volatility, double spreadBp) {
+        UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(
+                MessageHeaderEncoder.ENCODED_LENGTH + GeneratorParamsMessageEncoder.BLOCK_LENGTH));
+        int length = encodeGeneratorParams(buffer, symbol, volatility, spreadBp);
+        if (length > 0) {
+            ringBuffer.write(GeneratorParamsMessageEncoder.TEMPLATE_ID, buffer, 0, length);
+            LOGGER.info("Sent generator params: symbol={}, volatility={}, spreadBp={}", symbol, volatility, spreadBp);
+        }
+    }
+
+    private synchronized int encodeGeneratorParams(UnsafeBuffer buffer, String symbol, double volatility, double spreadBp) {
+        int symbolId = symbolRegistry.symbolId(symbol);
+        if (SymbolRegistry.NULL_SYMBOL_ID == symbolId) {
+            LOGGER.warn("Ignoring generator params for unregistered symbol {}", symbol);
+            return 0;
+        }
+        generatorParamsEncoder.wrapAndApplyHeader(buffer, 0, headerEncoder)
+                .symbolId(symbolId)
+                .volatility(volatility)
+                .spreadBp(spreadBp);
+        return MessageHeaderEncoder.ENCODED_LENGTH + generatorParamsEncoder.encodedLength();
+    }
+
     private List<ClientTierFlyweight> replayTiers() {
         synchronized (cache) {
             cache.clear();
@@ -191,7 +248,7 @@ public enum AeronService {
                 image -> LOGGER.warn("Image unavailable: sessionId={}, channel={}, streamId={}",
                         image.sessionId(), image.sourceIdentity(), image.subscription().streamId())
         );
-        FragmentHandler quoteFragmentHandler = (buf, offset, len, hdr) -> consumeQuotes(buf, offset);
+        FragmentHandler quoteFragmentHandler = (buf, offset, len, hdr) -> onQuoteFragment(buf, offset);
         final IdleStrategy idleStrategy = new NoOpIdleStrategy();
         while (running) {
             subscription.poll(fragmentAssembler, 10);
@@ -214,32 +271,219 @@ public enum AeronService {
         return List.of();
     }
 
+    private void onQuoteFragment(DirectBuffer buf, int offset) {
+        headerDecoder.wrap(buf, offset);
+        int templateId = headerDecoder.templateId();
+        if (QuoteMessageDecoder.TEMPLATE_ID == templateId) {
+            consumeQuotes(buf, offset);
+        } else if (MarketSnapshotMessageDecoder.TEMPLATE_ID == templateId) {
+            consumeSnapshot(buf, offset);
+        }
+    }
+
     private void consumeQuotes(DirectBuffer buf, int offset) {
         quoteView.wrap(buf, offset + MessageHeaderDecoder.ENCODED_LENGTH);
-        quoteView.getSymbol(symbolMutableString.init());
+        String symbol = symbolRegistry.symbol(quoteView.getSymbolId());
+        if (null == symbol) {
+            quoteView.getSymbol(symbolMutableString.init());
+            symbol = symbolMutableString.toString();
+        }
         long timestamp = quoteView.priceCreationTimestamp();
-        long tenor = quoteView.getTenor();
         long valueDate = quoteView.getValueDate();
-        long clientTier = quoteView.getClientTier();
-
-        while (quoteView.getRung().hasNext()) {
-            QuoteMessageDecoder.RungDecoder nextRung = quoteView.getRung().next();
-            double mid = (nextRung.bid() + nextRung.ask()) / 2.0;
-            String symbol = symbolMutableString.toString();
-            MarketDataTick marketDataTick;
-            if (latestTicks.containsKey(symbol)) {
-                marketDataTick = latestTicks.get(symbol);
-                marketDataTick.setAsk(nextRung.ask());
-                marketDataTick.setBid(nextRung.bid());
-                marketDataTick.setMid(mid);
-                marketDataTick.setValueDateEpoch(valueDate);
-                marketDataTick.setTimestamp(timestamp);
-            } else {
-                marketDataTick = new MarketDataTick(symbol, mid, nextRung.bid(), nextRung.ask(), valueDate, timestamp);
-                latestTicks.put(symbol, marketDataTick);
+
+        QuoteMessageDecoder.RungDecoder rungDecoder = quoteView.getRung();
+        if (rungDecoder.hasNext()) {
+            rungDecoder.next();
+            updateTick(symbol, rungDecoder.bid(), rungDecoder.ask(), valueDate, timestamp);
+        }
+    }
+
+    private void consumeSnapshot(DirectBuffer buf, int offset) {
+        snapshotView.wrap(buf, offset + MessageHeaderDecoder.ENCODED_LENGTH);
+        long timestamp = snapshotView.priceCreationTimestamp();
+        long valueDate = snapshotView.getValueDate();
+
+        MarketSnapshotMessageDecoder.EntryDecoder entryDecoder = snapshotView.getEntries();
+        while (entryDecoder.hasNext()) {
+            entryDecoder.next();
+            String symbol = symbolRegistry.symbol((int) entryDecoder.symbolId());
+            if (null == symbol) {
+                entryDecoder.getSymbol(symbolMutableString.init());
+                symbol = symbolMutableString.toString();
+            }
+            MarketSnapshotMessageDecoder.EntryDecoder.RungDecoder rungDecoder = entryDecoder.rung();
+            boolean topOfBook = true;
+            while (rungDecoder.hasNext()) {
+                rungDecoder.next();
+                if (topOfBook) {
+                    updateTick(symbol, rungDecoder.bid(), rungDecoder.ask(), valueDate, timestamp);
+                    topOfBook = false;
+                }
+            }
+        }
+    }
+
+    private void updateTick(String symbol, double bid, double ask, long valueDate, long timestamp) {
+        double mid = (bid + ask) / 2.0;
+        MarketDataTick marketDataTick = latestTicks.get(symbol);
+        if (null != marketDataTick) {
+            marketDataTick.setAsk(ask);
+            marketDataTick.setBid(bid);
+            marketDataTick.setMid(mid);
+            marketDataTick.setValueDateEpoch(valueDate);
+            marketDataTick.setTimestamp(timestamp);
+        } else {
+            latestTicks.put(symbol, new MarketDataTick(symbol, mid, bid, ask, valueDate, timestamp));
+        }
+    }
+
+    /**
+     * Registers the ids recorded on CONFIG_STREAM by earlier runs, so a restart with an edited symbols file keeps
+     * the ids consumers already hold: listed symbols keep their id, new ones get the next free id and dropped ones
+     * stay registered.
+     */
+    private void restoreSymbolRegistry() {
+        if (-1 == existingRecordingId) {
+            return;
+        }
+        long stopPosition = archive.getStopPosition(existingRecordingId);
+        if (AeronArchive.NULL_POSITION == stopPosition) {
+            stopPosition = archive.getRecordingPosition(existingRecordingId);
+        }
+        if (stopPosition <= 0) {
+            return;
+        }
+
+        SymbolRegistryMessageDecoder decoder = new SymbolRegistryMessageDecoder();
+        FragmentHandler handler = (buf, offset, length, header) -> {
+            headerDecoder.wrap(buf, offset);
+            if (SymbolRegistryMessageDecoder.TEMPLATE_ID == headerDecoder.templateId()) {
+                try {
+                    symbolRegistry.update(decoder.wrapAndApplyHeader(buf, offset, headerDecoder));
+                } catch (IllegalStateException e) {
+                    LOGGER.warn("Ignoring recorded symbol registry entry: {}", e.getMessage());
+                }
+            }
+        };
+        try (Subscription replay = archive.replay(existingRecordingId, 0L, stopPosition, REGISTRY_REPLAY_CHANNEL,
+                StreamId.CONFIG_STREAM.getCode())) {
+            long deadlineMs = System.currentTimeMillis() + REGISTRY_REPLAY_TIMEOUT_MS;
+            while (0 == replay.imageCount() || replay.imageAtIndex(0).position() < stopPosition) {
+                if (0 == replay.poll(handler, 10)) {
+                    if (System.currentTimeMillis() > deadlineMs) {
+                        LOGGER.warn("Timed out restoring the symbol registry from recordingId={}", existingRecordingId);
+                        break;
+                    }
+                    Thread.yield();
+                }
+            }
+        }
+        LOGGER.info("Restored {} symbol ids from recordingId={}", symbolRegistry.size(), existingRecordingId);
+    }
+
+    private void publishSymbolRegistry() {
+        restoreSymbolRegistry();
+        String symbolsFile = System.getProperty(SYMBOLS_PROPERTY);
+        if (null == symbolsFile) {
+            for (String symbol : DEFAULT_SYMBOLS) {
+                symbolRegistry.register(symbol);
+            }
+        } else {
+            try {
+                Files.readAllLines(Paths.get(symbolsFile)).stream()
+                        .map(String::trim)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .forEach(line -> symbolRegistry.register(line.split(",")[0].trim()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read symbols " + symbolsFile, e);
+            }
+        }
+
+        UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(
+                MessageHeaderEncoder.ENCODED_LENGTH + SymbolRegistryMessageEncoder.BLOCK_LENGTH));
+        SymbolRegistryMessageEncoder encoder = new SymbolRegistryMessageEncoder();
+        for (int symbolId = 0; symbolId < symbolRegistry.size(); symbolId++) {
+            encoder.wrapAndApplyHeader(buffer, 0, headerEncoder)
+                    .symbolId(symbolId)
+                    .symbol(symbolRegistry.symbol(symbolId));
+            long result = offerConfig(buffer, MessageHeaderEncoder.ENCODED_LENGTH + encoder.encodedLength());
+            if (result < 0) {
+                LOGGER.error("Failed to publish symbol {} id={} code={}", symbolRegistry.symbol(symbolId), symbolId, result);
+            }
+        }
+        LOGGER.info("Published symbol registry: {} symbols", symbolRegistry.size());
+    }
+
+    private void publishGeneratorParams() {
+        String paramsFile = System.getProperty(GENERATOR_PARAMS_PROPERTY);
+        if (null == paramsFile) {
+            return;
+        }
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(Paths.get(paramsFile));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read generator params " + paramsFile, e);
+        }
+
+        UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(
+                MessageHeaderEncoder.ENCODED_LENGTH + GeneratorParamsMessageEncoder.BLOCK_LENGTH));
+        int published = 0;
+        for (String line : lines) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("Invalid generator params line in " + paramsFile + ": " + line);
             }
+            String symbol = fields[0].trim();
+            int length = encodeGeneratorParams(buffer, symbol,
+                    Double.parseDouble(fields[1].trim()), Double.parseDouble(fields[2].trim()));
+            if (length > 0) {
+                long result = offerConfig(buffer, length);
+                if (result < 0) {
+                    LOGGER.error("Failed to publish generator params for {} code={}", symbol, result);
+                } else {
+                    published++;
+                }
+            }
+        }
+        LOGGER.info("Published generator params: {} symbols", published);
+    }
+
+    private void publishPricingShards() {
+        int shardCount = Integer.getInteger(PRICING_SHARDS_PROPERTY, PricingShards.DEFAULT_SHARD_COUNT);
+        if (shardCount < 1 || shardCount > PricingShardConfigMessageEncoder.shardCountMaxValue()) {
+            throw new IllegalArgumentException("Invalid " + PRICING_SHARDS_PROPERTY + " " + shardCount);
+        }
+
+        UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(
+                MessageHeaderEncoder.ENCODED_LENGTH + PricingShardConfigMessageEncoder.BLOCK_LENGTH));
+        PricingShardConfigMessageEncoder encoder = new PricingShardConfigMessageEncoder();
+        encoder.wrapAndApplyHeader(buffer, 0, headerEncoder)
+                .shardCount(shardCount);
+        long result = offerConfig(buffer, MessageHeaderEncoder.ENCODED_LENGTH + encoder.encodedLength());
+        if (result < 0) {
+            LOGGER.error("Failed to publish pricing shard count {} code={}", shardCount, result);
+        } else {
+            LOGGER.info("Published pricing shard count: {}", shardCount);
         }
+    }
 
+    // retries back pressure for a bounded time, config is published before the forwarding loop starts
+    private long offerConfig(UnsafeBuffer buffer, int length) {
+        final IdleStrategy idleStrategy = new NoOpIdleStrategy();
+        int attempts = 0;
+        long result;
+        while ((result = publication.offer(buffer, 0, length)) < 0 && ++attempts < 1_000_000) {
+            if (Publication.NOT_CONNECTED == result || Publication.CLOSED == result) {
+                break;
+            }
+            idleStrategy.idle();
+        }
+        return result;
     }
 
     public List<ClientTierFlyweight> getCachedTiers() {
@@ -305,6 +549,9 @@ public enum AeronService {
             LOGGER.info("No existing recording found for {}:{}", AeronConfigs.CONFIG_CHANNEL, StreamId.CONFIG_STREAM.getCode());
         }
 
+        publishSymbolRegistry();
+        publishGeneratorParams();
+        publishPricingShards();
         replayTiers();
     }
 
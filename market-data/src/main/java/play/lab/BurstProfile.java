@@ -0,0 +1,74 @@
+package play.lab;
+
+/**
+ * Shapes the generator tick rate over time as a multiple of the configured base ticks-per-second.
+ * Event profiles are compressed into a repeating cycle so a load test sees the whole event every few minutes.
+ */
+public enum BurstProfile {
+    /**
+     * Flat base rate.
+     */
+    CONSTANT(0) {
+        @Override
+        double multiplier(double secondsIntoCycle) {
+            return 1.0;
+        }
+    },
+    /**
+     * Non-farm payrolls: liquidity thins out ahead of the release, the rate spikes 50x at the print and decays
+     * back to normal with a ten second half-life.
+     */
+    NFP_SPIKE(300) {
+        private static final double RELEASE_AT = 60.0;
+        private static final double PEAK = 50.0;
+        private static final double DECAY_PER_SECOND = 0.0693; // ln(2) / 10s
+
+        @Override
+        double multiplier(double secondsIntoCycle) {
+            if (secondsIntoCycle < RELEASE_AT - 10.0) {
+                return 1.0;
+            }
+            if (secondsIntoCycle < RELEASE_AT) {
+                return 0.3;
+            }
+            return 1.0 + (PEAK - 1.0) * Math.exp(-DECAY_PER_SECOND * (secondsIntoCycle - RELEASE_AT));
+        }
+    },
+    /**
+     * Tokyo 9:55 fix: activity ramps up linearly into the fixing window, peaks at 8x during the fix itself and
+     * falls straight back afterwards.
+     */
+    TOKYO_FIX(600) {
+        private static final double RAMP_START = 300.0;
+        private static final double FIX_START = 540.0;
+        private static final double FIX_END = 560.0;
+        private static final double RAMP_PEAK = 4.0;
+        private static final double FIX_PEAK = 8.0;
+
+        @Override
+        double multiplier(double secondsIntoCycle) {
+            if (secondsIntoCycle < RAMP_START || secondsIntoCycle >= FIX_END) {
+                return 1.0;
+            }
+            if (secondsIntoCycle < FIX_START) {
+                return 1.0 + (RAMP_PEAK - 1.0) * (secondsIntoCycle - RAMP_START) / (FIX_START - RAMP_START);
+            }
+            return FIX_PEAK;
+        }
+    };
+
+    private final long cycleNanos;
+
+    BurstProfile(long cycleSeconds) {
+        this.cycleNanos = cycleSeconds * 1_000_000_000L;
+    }
+
+    abstract double multiplier(double secondsIntoCycle);
+
+    public double multiplierAt(long elapsedNanos) {
+        if (cycleNanos == 0) {
+            return multiplier(0);
+        }
+        return multiplier((elapsedNanos % cycleNanos) * 1e-9);
+    }
+}
@@ -1,23 +1,131 @@
 package play.lab;
 
+import io.aeron.Aeron;
 import org.agrona.concurrent.AgentRunner;
 import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.BusySpinIdleStrategy;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.SleepingMillisIdleStrategy;
+import org.agrona.concurrent.YieldingIdleStrategy;
+import play.lab.marketdata.capture.CaptureSegments;
+import play.lab.marketdata.capture.QuoteCaptureRecorder;
+import play.lab.marketdata.capture.QuoteCaptureReplayer;
+import play.lab.marketdata.feed.LpFeedIngester;
+import play.lab.marketdata.generator.DepthLadder;
 import play.lab.marketdata.generator.FxPriceGenerator;
+import play.lab.marketdata.generator.QuotePublisher;
+import play.lab.marketdata.generator.SeedManifest;
+import play.lab.marketdata.generator.SymbolUniverse;
+import pub.lab.trading.common.config.AeronConfigs;
+import pub.lab.trading.common.config.caches.ConfigAgent;
 import pub.lab.trading.common.lifecycle.MultiStreamPoller;
 import pub.lab.trading.common.lifecycle.Worker;
+import pub.lab.trading.common.logging.BinaryLogAgent;
+import pub.lab.trading.common.logging.BinaryLogger;
+import pub.lab.trading.common.util.CpuAffinity;
+
+import java.util.List;
 
 public class MarketDataAppLauncher {
+    // busy spinning is needed to keep inter-tick jitter in the microseconds at very high tick rates
+    private static final String IDLE_STRATEGY_PROPERTY = "marketdata.idle";
+    // generate (default), record the RAW_QUOTE stream to disk, replay a recording onto it, or publish LP feed files
+    private static final String MODE_PROPERTY = "marketdata.mode";
+    // number of generator threads the symbol universe is partitioned across
+    private static final String SHARDS_PROPERTY = "marketdata.shards";
+    // comma separated cpu per shard thread, e.g. 2,3,4,5; shards without one are left to the scheduler
+    private static final String SHARD_CPUS_PROPERTY = "marketdata.shard.cpus";
 
     public static void main(String[] args) {
-        AgentRunner agentRunner = new AgentRunner(new BackoffIdleStrategy(),
+        switch (System.getProperty(MODE_PROPERTY, "generate")) {
+            case "record" -> start("QuoteCaptureRecorder",
+                    new QuoteCaptureRecorder(connect(), CaptureSegments.directory(), CaptureSegments.segmentSize()));
+            case "replay" -> start("QuoteCaptureReplayer",
+                    new QuoteCaptureReplayer(connect(), CaptureSegments.directory(), QuoteCaptureReplayer.speedFromSystemProperties()));
+            case "feed" -> startFeed();
+            default -> startGenerators(Integer.getInteger(SHARDS_PROPERTY, 1));
+        }
+    }
+
+    private static void start(String roleName, Worker... workers) {
+        AgentRunner agentRunner = new AgentRunner(idleStrategy(),
                 Throwable::printStackTrace,
                 null,
                 new MultiStreamPoller(
-                        "pricing-engine-poller",
-                        new Worker[]{
-                                new FxPriceGenerator()
-                        }
+                        roleName,
+                        workers
                 ));
         AgentRunner.startOnThread(agentRunner);
     }
+
+    /**
+     * Publishes recorded LP files instead of generated prices, polling the config stream on the same thread so
+     * quotes are stamped with registry ids.
+     */
+    private static void startFeed() {
+        Aeron aeron = connect();
+        ConfigAgent configAgent = new ConfigAgent(aeron);
+        start("LpFeedIngester", configAgent, LpFeedIngester.fromSystemProperties(aeron, configAgent.getSymbolRegistry()));
+    }
+
+    /**
+     * Partitions the symbol universe across {@code shardCount} generator threads sharing one Aeron client. Each
+     * shard publishes on its own exclusive publication and ticks at its share of the configured rate, so every
+     * symbol ticks as often as it would on a single generator. The first shard also polls the config stream for
+     * the symbol registry the shards stamp their quotes with.
+     */
+    private static void startGenerators(int shardCount) {
+        Aeron aeron = connect();
+        int[] cpus = CpuAffinity.parseCpuList(System.getProperty(SHARD_CPUS_PROPERTY));
+        TickThrottle throttle = TickThrottle.fromSystemProperties(1000);
+        SeedManifest seedManifest = SeedManifest.fromSystemProperties();
+        DepthLadder ladder = DepthLadder.fromSystemProperties();
+        List<SymbolUniverse.Entry> universe = SymbolUniverse.fromSystemProperties();
+        ConfigAgent configAgent = new ConfigAgent(aeron);
+        BinaryLogger binaryLogger = BinaryLogger.fromSystemProperties();
+        if (binaryLogger.isEnabled()) {
+            // one audit log for all shards, drained off the generator threads
+            AgentRunner.startOnThread(new AgentRunner(new SleepingMillisIdleStrategy(1), Throwable::printStackTrace, null,
+                    BinaryLogAgent.fromSystemProperties(binaryLogger, "market-data")));
+        }
+        boolean configAgentAssigned = false;
+
+        for (int shard = 0; shard < shardCount; shard++) {
+            List<SymbolUniverse.Entry> symbols = SymbolUniverse.shard(universe, shard, shardCount);
+            if (symbols.isEmpty()) {
+                continue;
+            }
+
+            int shardTps = (int) Math.max(1, Math.round((double) throttle.getTicksPerSecond() * symbols.size() / universe.size()));
+            String roleName = shardCount == 1 ? "market-data-generator" : "market-data-shard-" + shard;
+            FxPriceGenerator generator = new FxPriceGenerator(
+                    new TickThrottle(shardTps, throttle.getBurstProfile()),
+                    seedManifest,
+                    new QuotePublisher(aeron, ladder, binaryLogger),
+                    symbols,
+                    configAgent.getSymbolRegistry(),
+                    configAgent.getGeneratorParamsCache(),
+                    roleName);
+            Worker[] workers = configAgentAssigned ? new Worker[]{generator} : new Worker[]{configAgent, generator};
+            configAgentAssigned = true;
+            AgentRunner agentRunner = new AgentRunner(idleStrategy(),
+                    Throwable::printStackTrace,
+                    null,
+                    new MultiStreamPoller(roleName, workers));
+            AgentRunner.startOnThread(agentRunner,
+                    CpuAffinity.threadFactory(roleName, shard < cpus.length ? cpus[shard] : CpuAffinity.ANY_CPU));
+        }
+    }
+
+    private static Aeron connect() {
+        return Aeron.connect(new Aeron.Context().aeronDirectoryName(AeronConfigs.AERON_LIVE_DIR));
+    }
+
+    private static IdleStrategy idleStrategy() {
+        return switch (System.getProperty(IDLE_STRATEGY_PROPERTY, "backoff")) {
+            case "busy" -> new BusySpinIdleStrategy();
+            case "yield" -> new YieldingIdleStrategy();
+            default -> new BackoffIdleStrategy();
+        };
+    }
 }
@@ -0,0 +1,49 @@
+package play.lab;
+
+/**
+ * Paces the generator against {@link System#nanoTime()} without ever blocking the agent thread. Each call
+ * accrues fractional tick credit for the elapsed time at the current target rate and hands out the whole
+ * ticks that are due, so the long run rate is exact from 1 tick/s up to millions per second and any residual
+ * carries over to the next duty cycle. Idling between ticks is left to the agent's idle strategy.
+ */
+public class TickScheduler {
+    // never try to catch up more than this much time after a stall, e.g. a GC pause or a descheduled thread
+    private static final double MAX_CATCH_UP_SECONDS = 0.010;
+
+    private final TickThrottle throttle;
+    private final long startNanos;
+    private long lastNanos;
+    private double credit;
+    private double currentRate;
+
+    public TickScheduler(final TickThrottle throttle) {
+        this.throttle = throttle;
+        this.startNanos = System.nanoTime();
+        this.lastNanos = startNanos;
+    }
+
+    /**
+     * @param maxTicks upper bound on the ticks handed out in one duty cycle
+     * @return number of ticks due now, possibly zero
+     */
+    public int ticksDue(final int maxTicks) {
+        final long now = System.nanoTime();
+        final double rate = throttle.getTicksPerSecond() * throttle.getBurstProfile().multiplierAt(now - startNanos);
+        currentRate = rate;
+
+        credit += rate * (now - lastNanos) * 1e-9;
+        lastNanos = now;
+        credit = Math.min(credit, Math.max(1.0, rate * MAX_CATCH_UP_SECONDS));
+
+        final int due = (int) Math.min(credit, maxTicks);
+        credit -= due;
+        return due;
+    }
+
+    /**
+     * @return ticks per second, including the burst multiplier, as of the last {@link #ticksDue(int)} call
+     */
+    public double currentRate() {
+        return currentRate;
+    }
+}
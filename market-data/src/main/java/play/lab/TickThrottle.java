@@ -1,10 +1,25 @@
 package play.lab;
 
 public class TickThrottle {
+    public static final String TPS_PROPERTY = "marketdata.tps";
+    public static final String PROFILE_PROPERTY = "marketdata.profile";
+
     private volatile int ticksPerSecond;
+    private volatile BurstProfile burstProfile;
 
     public TickThrottle(int defaultTps) {
+        this(defaultTps, BurstProfile.CONSTANT);
+    }
+
+    public TickThrottle(int defaultTps, BurstProfile burstProfile) {
         this.ticksPerSecond = defaultTps;
+        this.burstProfile = burstProfile;
+    }
+
+    public static TickThrottle fromSystemProperties(int defaultTps) {
+        return new TickThrottle(
+                Integer.getInteger(TPS_PROPERTY, defaultTps),
+                BurstProfile.valueOf(System.getProperty(PROFILE_PROPERTY, BurstProfile.CONSTANT.name())));
     }
 
     public int getTicksPerSecond() {
@@ -15,6 +30,14 @@ public class TickThrottle {
         this.ticksPerSecond = tps;
     }
 
+    public BurstProfile getBurstProfile() {
+        return burstProfile;
+    }
+
+    public void setBurstProfile(BurstProfile burstProfile) {
+        this.burstProfile = burstProfile;
+    }
+
     public double getDtSeconds() {
         return 1.0 / Math.max(1, ticksPerSecond);
     }
@@ -0,0 +1,63 @@
+package play.lab.marketdata.capture;
+
+import org.agrona.BitUtil;
+
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * Layout of a RAW_QUOTE capture. A capture is a directory of fixed size segment files, each a sequence of
+ * records laid out as
+ * <pre>
+ *   0: int  payload length
+ *   4: int  padding, keeps the timestamp 8-byte aligned
+ *   8: long receive timestamp, epoch nanos
+ *  16: payload, the SBE fragment as received, padded to 8 bytes
+ * </pre>
+ * Segments are created zero filled, so a zero length marks the end of the records in a segment.
+ */
+public final class CaptureSegments {
+    public static final String DIR_PROPERTY = "marketdata.capture.dir";
+    public static final String SEGMENT_SIZE_PROPERTY = "marketdata.capture.segmentSize";
+    public static final String DEFAULT_DIR = "capture";
+    public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+    static final int LENGTH_OFFSET = 0;
+    static final int TIMESTAMP_OFFSET = 8;
+    static final int RECORD_HEADER_LENGTH = 16;
+    static final int RECORD_ALIGNMENT = 8;
+
+    private static final String SEGMENT_PREFIX = "raw-quote-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private CaptureSegments() {
+    }
+
+    public static File directory() {
+        return new File(System.getProperty(DIR_PROPERTY, DEFAULT_DIR));
+    }
+
+    public static long segmentSize() {
+        return Long.getLong(SEGMENT_SIZE_PROPERTY, DEFAULT_SEGMENT_SIZE);
+    }
+
+    static int recordLength(int payloadLength) {
+        return BitUtil.align(RECORD_HEADER_LENGTH + payloadLength, RECORD_ALIGNMENT);
+    }
+
+    static File segmentFile(File dir, int index) {
+        return new File(dir, String.format("%s%06d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * @return the segments of a capture in recording order
+     */
+    static File[] listSegments(File dir) {
+        File[] files = dir.listFiles((d, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (null == files) {
+            return new File[0];
+        }
+        Arrays.sort(files);
+        return files;
+    }
+}
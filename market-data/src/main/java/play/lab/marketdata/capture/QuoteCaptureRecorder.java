@@ -0,0 +1,104 @@
+package play.lab.marketdata.capture;
+
+import io.aeron.Aeron;
+import io.aeron.Subscription;
+import io.aeron.logbuffer.FragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.agrona.DirectBuffer;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.EpochNanoClock;
+import org.agrona.concurrent.SystemEpochNanoClock;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pub.lab.trading.common.config.AeronConfigs;
+import pub.lab.trading.common.config.StreamId;
+import pub.lab.trading.common.lifecycle.Worker;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+
+/**
+ * Journals every RAW_QUOTE fragment, stamped with its receive time, into memory-mapped segment files laid out
+ * as described in {@link CaptureSegments}. A new capture never overwrites existing segments in the directory,
+ * it continues after the last one.
+ */
+public class QuoteCaptureRecorder implements Worker {
+    private static final Logger LOGGER = LoggerFactory.getLogger(QuoteCaptureRecorder.class);
+    private static final int FRAGMENT_LIMIT = 256;
+
+    private final Subscription quoteSub;
+    private final FragmentHandler fragmentHandler = this::onFragment;
+    private final EpochNanoClock clock = new SystemEpochNanoClock();
+    private final UnsafeBuffer segmentBuffer = new UnsafeBuffer(0, 0);
+    private final File dir;
+    private final long segmentSize;
+
+    private MappedByteBuffer mappedSegment;
+    private int segmentIndex;
+    private int position;
+    private long recordCount;
+
+    public QuoteCaptureRecorder(final Aeron aeron, final File dir, final long segmentSize) {
+        if (segmentSize <= CaptureSegments.RECORD_HEADER_LENGTH || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid capture segment size " + segmentSize);
+        }
+        IoUtil.ensureDirectoryExists(dir, "capture");
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.segmentIndex = CaptureSegments.listSegments(dir).length;
+        this.quoteSub = aeron.addSubscription(AeronConfigs.LIVE_CHANNEL, StreamId.RAW_QUOTE.getCode());
+        LOGGER.info("Recording {} stream {} into {} from segment {}", quoteSub.channel(), quoteSub.streamId(), dir, segmentIndex);
+    }
+
+    @Override
+    public int doWork() {
+        return quoteSub.poll(fragmentHandler, FRAGMENT_LIMIT);
+    }
+
+    private void onFragment(DirectBuffer buffer, int offset, int length, Header header) {
+        final long receiveTimestamp = clock.nanoTime();
+        final int recordLength = CaptureSegments.recordLength(length);
+        if (recordLength > segmentSize) {
+            LOGGER.error("Dropping {} byte fragment larger than capture segment size {}", length, segmentSize);
+            return;
+        }
+        if (null == mappedSegment || position + recordLength > segmentBuffer.capacity()) {
+            rollSegment();
+        }
+
+        segmentBuffer.putLong(position + CaptureSegments.TIMESTAMP_OFFSET, receiveTimestamp);
+        segmentBuffer.putBytes(position + CaptureSegments.RECORD_HEADER_LENGTH, buffer, offset, length);
+        segmentBuffer.putInt(position + CaptureSegments.LENGTH_OFFSET, length);
+        position += recordLength;
+        recordCount++;
+    }
+
+    private void rollSegment() {
+        unmapSegment();
+        File file = CaptureSegments.segmentFile(dir, segmentIndex++);
+        mappedSegment = IoUtil.mapNewFile(file, segmentSize);
+        segmentBuffer.wrap(mappedSegment);
+        position = 0;
+        LOGGER.info("Capturing into {} records={}", file, recordCount);
+    }
+
+    private void unmapSegment() {
+        if (null != mappedSegment) {
+            IoUtil.unmap(mappedSegment);
+            mappedSegment = null;
+        }
+    }
+
+    @Override
+    public void onClose() {
+        unmapSegment();
+        quoteSub.close();
+        LOGGER.info("Capture closed records={} segments={}", recordCount, segmentIndex);
+    }
+
+    @Override
+    public String roleName() {
+        return "QuoteCaptureRecorder";
+    }
+}
@@ -0,0 +1,134 @@
+package play.lab.marketdata.capture;
+
+import io.aeron.Aeron;
+import io.aeron.ExclusivePublication;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pub.lab.trading.common.config.AeronConfigs;
+import pub.lab.trading.common.config.StreamId;
+import pub.lab.trading.common.lifecycle.Worker;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Republishes a capture written by {@link QuoteCaptureRecorder} onto the RAW_QUOTE stream, keeping the recorded
+ * gaps between fragments scaled by the replay speed. A speed of 0 replays as fast as the subscribers consume.
+ * <p>
+ * Speed is set with {@code -Dmarketdata.replay.speed=<factor>|max}, default 1x.
+ */
+public class QuoteCaptureReplayer implements Worker {
+    public static final String SPEED_PROPERTY = "marketdata.replay.speed";
+    public static final double MAX_SPEED = 0.0;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QuoteCaptureReplayer.class);
+    private static final int BATCH_LIMIT = 256;
+
+    private final ExclusivePublication quotePub;
+    private final UnsafeBuffer segmentBuffer = new UnsafeBuffer(0, 0);
+    private final File[] segments;
+    private final double speed;
+
+    private MappedByteBuffer mappedSegment;
+    private int segmentIndex;
+    private int position;
+    private long firstTimestamp;
+    private long startNanos;
+    private long recordCount;
+    private boolean complete;
+
+    public QuoteCaptureReplayer(final Aeron aeron, final File dir, final double speed) {
+        if (speed < 0.0) {
+            throw new IllegalArgumentException("Invalid replay speed " + speed);
+        }
+        this.segments = CaptureSegments.listSegments(dir);
+        this.speed = speed;
+        this.quotePub = aeron.addExclusivePublication(AeronConfigs.LIVE_CHANNEL, StreamId.RAW_QUOTE.getCode());
+        LOGGER.info("Replaying {} segments from {} onto {} stream {} at {}", segments.length, dir,
+                quotePub.channel(), quotePub.streamId(), speed == MAX_SPEED ? "max speed" : speed + "x");
+    }
+
+    public static double speedFromSystemProperties() {
+        String speed = System.getProperty(SPEED_PROPERTY, "1");
+        return "max".equalsIgnoreCase(speed) ? MAX_SPEED : Double.parseDouble(speed);
+    }
+
+    @Override
+    public int doWork() {
+        if (complete || !quotePub.isConnected()) {
+            return 0;
+        }
+
+        int workCount = 0;
+        while (workCount < BATCH_LIMIT) {
+            if (!hasRecord() && !nextSegment()) {
+                complete = true;
+                LOGGER.info("Replay complete records={}", recordCount);
+                break;
+            }
+
+            final long timestamp = segmentBuffer.getLong(position + CaptureSegments.TIMESTAMP_OFFSET);
+            if (0 == recordCount && 0 == workCount) {
+                firstTimestamp = timestamp;
+                startNanos = System.nanoTime();
+            }
+            if (speed != MAX_SPEED && System.nanoTime() - startNanos < (long) ((timestamp - firstTimestamp) / speed)) {
+                break;
+            }
+
+            final int length = segmentBuffer.getInt(position + CaptureSegments.LENGTH_OFFSET);
+            final long result = quotePub.offer(segmentBuffer, position + CaptureSegments.RECORD_HEADER_LENGTH, length);
+            if (result < 0) {
+                // back pressured or not connected, retry the same record on the next duty cycle
+                break;
+            }
+
+            position += CaptureSegments.recordLength(length);
+            recordCount++;
+            workCount++;
+        }
+        return workCount;
+    }
+
+    private boolean hasRecord() {
+        return null != mappedSegment
+                && position + CaptureSegments.RECORD_HEADER_LENGTH <= segmentBuffer.capacity()
+                && 0 != segmentBuffer.getInt(position + CaptureSegments.LENGTH_OFFSET);
+    }
+
+    private boolean nextSegment() {
+        while (segmentIndex < segments.length) {
+            unmapSegment();
+            File file = segments[segmentIndex++];
+            mappedSegment = IoUtil.mapExistingFile(file, FileChannel.MapMode.READ_ONLY, "capture segment");
+            segmentBuffer.wrap(mappedSegment);
+            position = 0;
+            if (hasRecord()) {
+                return true;
+            }
+        }
+        unmapSegment();
+        return false;
+    }
+
+    private void unmapSegment() {
+        if (null != mappedSegment) {
+            IoUtil.unmap(mappedSegment);
+            mappedSegment = null;
+        }
+    }
+
+    @Override
+    public void onClose() {
+        unmapSegment();
+        quotePub.close();
+    }
+
+    @Override
+    public String roleName() {
+        return "QuoteCaptureReplayer";
+    }
+}
@@ -0,0 +1,118 @@
+package play.lab.marketdata.feed;
+
+import org.agrona.DirectBuffer;
+
+/**
+ * Parses ASCII numbers straight out of a mapped buffer. Decimals are accumulated as a long mantissa of at most
+ * 15 significant digits, which is below 2^53 and so converts to a double exactly, and scaled by an exactly
+ * representable power of ten once, so the result is the correctly rounded value of those digits. Digits past the
+ * fifteenth are dropped, more than an LP price carries.
+ */
+final class AsciiDecimal {
+    private static final int MAX_DIGITS = 15;
+    private static final double[] POW10 = new double[23];
+
+    static {
+        POW10[0] = 1.0;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10.0;
+        }
+    }
+
+    private AsciiDecimal() {
+    }
+
+    /**
+     * @return the value of {@code [start, end)}, or NaN if it is not a decimal such as {@code -1.0825} or {@code 1.5e-3}
+     */
+    static double parseDouble(final DirectBuffer buffer, final int start, final int end) {
+        int i = start;
+        if (i == end) {
+            return Double.NaN;
+        }
+
+        boolean negative = false;
+        byte b = buffer.getByte(i);
+        if ('-' == b || '+' == b) {
+            negative = '-' == b;
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean sawDigit = false;
+        boolean sawPoint = false;
+        for (; i < end; i++) {
+            b = buffer.getByte(i);
+            if (b >= '0' && b <= '9') {
+                sawDigit = true;
+                if (digits < MAX_DIGITS) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (0 != mantissa) {
+                        digits++;
+                    }
+                    if (sawPoint) {
+                        scale++;
+                    }
+                } else if (!sawPoint) {
+                    // integer digits beyond the precision still count towards the magnitude
+                    scale--;
+                }
+            } else if ('.' == b && !sawPoint) {
+                sawPoint = true;
+            } else if (('e' == b || 'E' == b) && sawDigit) {
+                final long exponent = parseLong(buffer, i + 1, end);
+                if (Long.MIN_VALUE == exponent) {
+                    return Double.NaN;
+                }
+                scale -= (int) exponent;
+                break;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (!sawDigit) {
+            return Double.NaN;
+        }
+
+        final double value;
+        if (0 == scale) {
+            value = mantissa;
+        } else if (scale > 0) {
+            value = scale < POW10.length ? mantissa / POW10[scale] : mantissa / Math.pow(10.0, scale);
+        } else {
+            value = -scale < POW10.length ? mantissa * POW10[-scale] : mantissa * Math.pow(10.0, -scale);
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return the value of {@code [start, end)}, or {@link Long#MIN_VALUE} if it is not an optionally signed integer
+     */
+    static long parseLong(final DirectBuffer buffer, final int start, final int end) {
+        int i = start;
+        if (i == end) {
+            return Long.MIN_VALUE;
+        }
+
+        boolean negative = false;
+        byte b = buffer.getByte(i);
+        if ('-' == b || '+' == b) {
+            negative = '-' == b;
+            if (++i == end) {
+                return Long.MIN_VALUE;
+            }
+        }
+
+        long value = 0;
+        for (; i < end; i++) {
+            b = buffer.getByte(i);
+            if (b < '0' || b > '9') {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return negative ? -value : value;
+    }
+}
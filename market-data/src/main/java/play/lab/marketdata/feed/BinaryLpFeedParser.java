@@ -0,0 +1,65 @@
+package play.lab.marketdata.feed;
+
+import org.agrona.DirectBuffer;
+import pub.lab.trading.common.model.pricing.QuoteMessageWriter;
+
+import java.nio.ByteOrder;
+
+/**
+ * Compact little endian layout, a sequence of records each laid out as
+ * <pre>
+ *   0: long   timestamp, epoch nanos
+ *   8: byte[8] symbol, ASCII, zero padded
+ *  16: int    rung count, 1 to {@link QuoteMessageWriter#MAX_LEVELS}
+ *  20: int    padding, keeps the rungs 8-byte aligned
+ *  24: rung count * (double bid, double ask, double volume), best first
+ * </pre>
+ * The symbol field is read as a single long, which is exactly the packed key {@link LpQuote} uses.
+ */
+final class BinaryLpFeedParser implements LpFeedParser {
+    static final int TIMESTAMP_OFFSET = 0;
+    static final int SYMBOL_OFFSET = 8;
+    static final int RUNG_COUNT_OFFSET = 16;
+    static final int HEADER_LENGTH = 24;
+    static final int RUNG_LENGTH = 3 * Double.BYTES;
+
+    static int recordLength(int rungCount) {
+        return HEADER_LENGTH + rungCount * RUNG_LENGTH;
+    }
+
+    @Override
+    public int parse(final DirectBuffer buffer, final int offset, final int limit, final boolean endOfInput, final LpQuote quote) {
+        if (limit - offset < HEADER_LENGTH) {
+            return 0;
+        }
+        final int rungCount = buffer.getInt(offset + RUNG_COUNT_OFFSET, ByteOrder.LITTLE_ENDIAN);
+        if (rungCount < 1 || rungCount > QuoteMessageWriter.MAX_LEVELS) {
+            // nothing marks where the next record starts
+            return CORRUPT;
+        }
+        final int length = recordLength(rungCount);
+        if (limit - offset < length) {
+            return 0;
+        }
+
+        quote.reset();
+        quote.timestampNanos = buffer.getLong(offset + TIMESTAMP_OFFSET, ByteOrder.LITTLE_ENDIAN);
+        final long symbolKey = buffer.getLong(offset + SYMBOL_OFFSET, ByteOrder.LITTLE_ENDIAN);
+        if (0 == symbolKey) {
+            quote.malformed = true;
+            return length;
+        }
+        quote.symbolKey = symbolKey;
+        quote.symbolLength = LpQuote.MAX_SYMBOL_LENGTH - (Long.numberOfLeadingZeros(symbolKey) >>> 3);
+
+        int index = offset + HEADER_LENGTH;
+        for (int rung = 0; rung < rungCount; rung++) {
+            quote.bids[rung] = buffer.getDouble(index, ByteOrder.LITTLE_ENDIAN);
+            quote.asks[rung] = buffer.getDouble(index + Double.BYTES, ByteOrder.LITTLE_ENDIAN);
+            quote.volumes[rung] = buffer.getDouble(index + 2 * Double.BYTES, ByteOrder.LITTLE_ENDIAN);
+            index += RUNG_LENGTH;
+        }
+        quote.rungCount = rungCount;
+        return length;
+    }
+}
@@ -0,0 +1,103 @@
+package play.lab.marketdata.feed;
+
+import org.agrona.DirectBuffer;
+import pub.lab.trading.common.model.pricing.QuoteMessageWriter;
+
+/**
+ * One quote per line as
+ * <pre>
+ *   timestamp,symbol,bid,ask,volume[,bid,ask,volume]...
+ * </pre>
+ * with the timestamp in epoch nanos and up to {@link QuoteMessageWriter#MAX_LEVELS} rungs, best first. A slash
+ * in the symbol is dropped so {@code EUR/USD} and {@code EURUSD} are the same pair. Blank lines, lines starting
+ * with {@code #} and a header line are skipped, and CRLF line endings are accepted.
+ */
+final class CsvLpFeedParser implements LpFeedParser {
+    private static final int RUNG_FIELDS = 3;
+
+    @Override
+    public int parse(final DirectBuffer buffer, final int offset, final int limit, final boolean endOfInput, final LpQuote quote) {
+        int lineEnd = offset;
+        while (lineEnd < limit && '\n' != buffer.getByte(lineEnd)) {
+            lineEnd++;
+        }
+        final int consumed;
+        if (lineEnd < limit) {
+            consumed = lineEnd + 1 - offset;
+        } else if (endOfInput && lineEnd > offset) {
+            // last line without a trailing newline
+            consumed = lineEnd - offset;
+        } else {
+            return 0;
+        }
+        if (lineEnd > offset && '\r' == buffer.getByte(lineEnd - 1)) {
+            lineEnd--;
+        }
+
+        quote.reset();
+        if (lineEnd == offset) {
+            return consumed;
+        }
+        final byte first = buffer.getByte(offset);
+        if (first < '0' || first > '9') {
+            // comment or header
+            return consumed;
+        }
+
+        int fieldStart = offset;
+        int fieldEnd = nextComma(buffer, fieldStart, lineEnd);
+        final long timestamp = AsciiDecimal.parseLong(buffer, fieldStart, fieldEnd);
+        if (Long.MIN_VALUE == timestamp || fieldEnd == lineEnd) {
+            quote.malformed = true;
+            return consumed;
+        }
+        quote.timestampNanos = timestamp;
+
+        fieldStart = fieldEnd + 1;
+        fieldEnd = nextComma(buffer, fieldStart, lineEnd);
+        for (int i = fieldStart; i < fieldEnd; i++) {
+            final byte c = buffer.getByte(i);
+            if ('/' != c && !quote.appendSymbolChar(c)) {
+                quote.malformed = true;
+                return consumed;
+            }
+        }
+
+        int field = 0;
+        while (fieldEnd < lineEnd) {
+            fieldStart = fieldEnd + 1;
+            fieldEnd = nextComma(buffer, fieldStart, lineEnd);
+            final int rung = field / RUNG_FIELDS;
+            if (rung == QuoteMessageWriter.MAX_LEVELS) {
+                quote.malformed = true;
+                return consumed;
+            }
+            final double value = AsciiDecimal.parseDouble(buffer, fieldStart, fieldEnd);
+            switch (field % RUNG_FIELDS) {
+                case 0 -> quote.bids[rung] = value;
+                case 1 -> quote.asks[rung] = value;
+                default -> quote.volumes[rung] = value;
+            }
+            if (Double.isNaN(value)) {
+                quote.malformed = true;
+                return consumed;
+            }
+            field++;
+        }
+
+        if (0 == quote.symbolLength || 0 == field || 0 != field % RUNG_FIELDS) {
+            quote.malformed = true;
+            return consumed;
+        }
+        quote.rungCount = field / RUNG_FIELDS;
+        return consumed;
+    }
+
+    private static int nextComma(final DirectBuffer buffer, final int start, final int end) {
+        int i = start;
+        while (i < end && ',' != buffer.getByte(i)) {
+            i++;
+        }
+        return i;
+    }
+}
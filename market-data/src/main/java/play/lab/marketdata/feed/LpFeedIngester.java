@@ -0,0 +1,293 @@
+package play.lab.marketdata.feed;
+
+import io.aeron.Aeron;
+import io.aeron.ExclusivePublication;
+import org.agrona.IoUtil;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pub.lab.trading.common.config.AeronConfigs;
+import pub.lab.trading.common.config.StreamId;
+import pub.lab.trading.common.config.caches.SymbolRegistry;
+import pub.lab.trading.common.lifecycle.Worker;
+import pub.lab.trading.common.model.ClientTierLevel;
+import pub.lab.trading.common.model.Tenor;
+import pub.lab.trading.common.model.pricing.QuoteMessageWriter;
+import pub.lab.trading.common.util.HolidayCalendar;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Publishes recorded LP prices onto the RAW_QUOTE stream as {@code QuoteMessage}s, keeping the recorded gaps
+ * between quotes scaled by the replay speed. Files ending in {@code .csv} are read with {@link CsvLpFeedParser},
+ * anything else with {@link BinaryLpFeedParser}; a directory is read file by file in name order.
+ * <p>
+ * Files are mapped a window at a time and decoded in place, so multi-GB captures are read without copying and
+ * without a {@code String} per line; a symbol's name is only built the first time it is seen.
+ * <p>
+ * Configured with {@code -Dmarketdata.feed.path=<file|dir>}, {@code -Dmarketdata.feed.speed=<factor>|max}
+ * (default 1x) and {@code -Dmarketdata.feed.window=<bytes>}.
+ */
+public class LpFeedIngester implements Worker {
+    public static final String PATH_PROPERTY = "marketdata.feed.path";
+    public static final String SPEED_PROPERTY = "marketdata.feed.speed";
+    public static final String WINDOW_SIZE_PROPERTY = "marketdata.feed.window";
+    public static final long DEFAULT_WINDOW_SIZE = 256L * 1024 * 1024;
+    public static final double MAX_SPEED = 0.0;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LpFeedIngester.class);
+    private static final int BATCH_LIMIT = 256;
+    private static final long MISSING_SYMBOL = -1;
+    private static final String CSV_SUFFIX = ".csv";
+
+    private final ExclusivePublication quotePub;
+    private final QuoteMessageWriter writer = new QuoteMessageWriter();
+    private final SymbolRegistry symbolRegistry;
+    private final File[] files;
+    private final long windowSize;
+    private final double speed;
+    private final LpFeedParser csvParser = new CsvLpFeedParser();
+    private final LpFeedParser binaryParser = new BinaryLpFeedParser();
+    private final LpQuote quote = new LpQuote();
+    private final UnsafeBuffer window = new UnsafeBuffer(0, 0);
+
+    // packed symbol -> index into the symbol arrays
+    private final Long2LongHashMap symbolIndices = new Long2LongHashMap(MISSING_SYMBOL);
+    private String[] symbols = new String[64];
+    private int[] registryIds = new int[64];
+    private int symbolCount;
+    private int boundRegistrySize = -1;
+
+    private LpFeedParser parser;
+    private MappedByteBuffer mappedWindow;
+    private int fileIndex;
+    private long fileLength;
+    private long windowStart;
+    private int position;
+    private boolean pending;
+
+    private long firstTimestamp;
+    private long startNanos;
+    private long quoteCount;
+    private long malformedCount;
+    private boolean complete;
+    private long valueDate;
+    private long valueDateRollTimeMs = Long.MIN_VALUE;
+
+    public LpFeedIngester(final Aeron aeron, final File path, final SymbolRegistry symbolRegistry,
+                          final double speed, final long windowSize) {
+        if (speed < 0.0) {
+            throw new IllegalArgumentException("Invalid replay speed " + speed);
+        }
+        if (windowSize <= 0 || windowSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid window size " + windowSize);
+        }
+        this.files = listFiles(path);
+        this.symbolRegistry = symbolRegistry;
+        this.speed = speed;
+        this.windowSize = windowSize;
+        this.quotePub = aeron.addExclusivePublication(AeronConfigs.LIVE_CHANNEL, StreamId.RAW_QUOTE.getCode());
+        LOGGER.info("Ingesting {} LP feed files from {} onto {} stream {} at {}", files.length, path,
+                quotePub.channel(), quotePub.streamId(), speed == MAX_SPEED ? "max speed" : speed + "x");
+    }
+
+    public static LpFeedIngester fromSystemProperties(final Aeron aeron, final SymbolRegistry symbolRegistry) {
+        String path = System.getProperty(PATH_PROPERTY);
+        if (null == path) {
+            throw new IllegalStateException("No LP feed given, set -D" + PATH_PROPERTY);
+        }
+        String speed = System.getProperty(SPEED_PROPERTY, "1");
+        return new LpFeedIngester(aeron, new File(path), symbolRegistry,
+                "max".equalsIgnoreCase(speed) ? MAX_SPEED : Double.parseDouble(speed),
+                Long.getLong(WINDOW_SIZE_PROPERTY, DEFAULT_WINDOW_SIZE));
+    }
+
+    @Override
+    public int doWork() {
+        if (complete || !quotePub.isConnected()) {
+            return 0;
+        }
+        bindRegistryIds();
+
+        int workCount = 0;
+        while (workCount < BATCH_LIMIT) {
+            if (!pending && !(pending = nextQuote())) {
+                complete = true;
+                LOGGER.info("LP feed complete quotes={} malformed={}", quoteCount, malformedCount);
+                break;
+            }
+
+            final long timestamp = quote.timestampNanos;
+            if (0 == quoteCount && 0 == workCount) {
+                firstTimestamp = timestamp;
+                startNanos = System.nanoTime();
+            }
+            if (speed != MAX_SPEED && System.nanoTime() - startNanos < (long) ((timestamp - firstTimestamp) / speed)) {
+                break;
+            }
+
+            final int symbolIndex = symbolIndex(quote.symbolKey);
+            final long timestampMs = timestamp / 1_000_000L;
+            refreshValueDate(timestampMs);
+            final int rungCount = quote.rungCount;
+            if (writer.tryClaimQuote(quotePub, symbols[symbolIndex], registryIds[symbolIndex], valueDate, timestampMs,
+                    Tenor.SPOT.getCode(), ClientTierLevel.GOLD.getId(), rungCount) < 0) {
+                // back pressured, retry the same quote on the next duty cycle
+                break;
+            }
+            for (int rung = 0; rung < rungCount; rung++) {
+                writer.addRung(quote.bids[rung], quote.asks[rung], quote.volumes[rung]);
+            }
+            writer.commit();
+
+            pending = false;
+            quoteCount++;
+            workCount++;
+        }
+        return workCount;
+    }
+
+    /**
+     * Decodes the next quote into {@link #quote}, mapping the next window or file as needed.
+     *
+     * @return false once every file has been read
+     */
+    private boolean nextQuote() {
+        while (true) {
+            if (null == mappedWindow && !nextFile()) {
+                return false;
+            }
+
+            final int limit = window.capacity();
+            final boolean endOfInput = windowStart + limit == fileLength;
+            final int consumed = parser.parse(window, position, limit, endOfInput, quote);
+            if (LpFeedParser.CORRUPT == consumed) {
+                LOGGER.error("Corrupt LP feed record in {} at offset {}, skipping the rest of the file",
+                        files[fileIndex - 1], windowStart + position);
+                unmapWindow();
+                continue;
+            }
+            if (0 == consumed) {
+                if (endOfInput) {
+                    if (position < limit) {
+                        LOGGER.warn("Truncated LP feed record at the end of {}", files[fileIndex - 1]);
+                    }
+                    unmapWindow();
+                } else if (0 == position) {
+                    throw new IllegalStateException("LP feed record in " + files[fileIndex - 1] + " at offset "
+                            + windowStart + " is larger than the " + windowSize + " byte window");
+                } else {
+                    // the record straddles the window, map the next window from its start
+                    mapWindow(windowStart + position);
+                }
+                continue;
+            }
+
+            position += consumed;
+            if (quote.malformed) {
+                malformedCount++;
+                LOGGER.warn("Skipping malformed LP feed record in {} before offset {}",
+                        files[fileIndex - 1], windowStart + position);
+            } else if (quote.rungCount > 0) {
+                return true;
+            }
+        }
+    }
+
+    private boolean nextFile() {
+        while (fileIndex < files.length) {
+            File file = files[fileIndex++];
+            fileLength = file.length();
+            if (0 == fileLength) {
+                continue;
+            }
+            parser = file.getName().endsWith(CSV_SUFFIX) ? csvParser : binaryParser;
+            LOGGER.info("Reading LP feed {} ({} bytes)", file, fileLength);
+            mapWindow(0);
+            return true;
+        }
+        return false;
+    }
+
+    private void mapWindow(final long fileOffset) {
+        unmapWindow();
+        final long length = Math.min(windowSize, fileLength - fileOffset);
+        mappedWindow = IoUtil.mapExistingFile(files[fileIndex - 1], FileChannel.MapMode.READ_ONLY, "LP feed",
+                fileOffset, length);
+        window.wrap(mappedWindow);
+        windowStart = fileOffset;
+        position = 0;
+    }
+
+    private void unmapWindow() {
+        if (null != mappedWindow) {
+            IoUtil.unmap(mappedWindow);
+            mappedWindow = null;
+        }
+    }
+
+    private int symbolIndex(final long symbolKey) {
+        final long index = symbolIndices.get(symbolKey);
+        if (MISSING_SYMBOL != index) {
+            return (int) index;
+        }
+
+        if (symbolCount == symbols.length) {
+            symbols = Arrays.copyOf(symbols, symbolCount << 1);
+            registryIds = Arrays.copyOf(registryIds, symbolCount << 1);
+        }
+        final String symbol = LpQuote.symbol(symbolKey);
+        symbols[symbolCount] = symbol;
+        registryIds[symbolCount] = null == symbolRegistry ? SymbolRegistry.NULL_SYMBOL_ID : symbolRegistry.symbolId(symbol);
+        symbolIndices.put(symbolKey, symbolCount);
+        LOGGER.info("LP feed symbol {} registry id {}", symbol, registryIds[symbolCount]);
+        return symbolCount++;
+    }
+
+    // picks up registry ids as config-service publishes them, the registry only ever grows
+    private void bindRegistryIds() {
+        if (null == symbolRegistry || symbolRegistry.size() == boundRegistrySize) {
+            return;
+        }
+        boundRegistrySize = symbolRegistry.size();
+        for (int i = 0; i < symbolCount; i++) {
+            if (SymbolRegistry.NULL_SYMBOL_ID == registryIds[i]) {
+                registryIds[i] = symbolRegistry.symbolId(symbols[i]);
+            }
+        }
+    }
+
+    private void refreshValueDate(long nowMs) {
+        if (nowMs >= valueDateRollTimeMs) {
+            valueDate = HolidayCalendar.getValueDate(nowMs);
+            valueDateRollTimeMs = HolidayCalendar.nextDayRollEpochMs(nowMs);
+        }
+    }
+
+    static File[] listFiles(final File path) {
+        if (!path.isDirectory()) {
+            return new File[]{path};
+        }
+        File[] files = path.listFiles(File::isFile);
+        if (null == files) {
+            return new File[0];
+        }
+        Arrays.sort(files);
+        return files;
+    }
+
+    @Override
+    public void onClose() {
+        unmapWindow();
+        quotePub.close();
+    }
+
+    @Override
+    public String roleName() {
+        return "LpFeedIngester";
+    }
+}
@@ -0,0 +1,22 @@
+package play.lab.marketdata.feed;
+
+import org.agrona.DirectBuffer;
+
+/**
+ * Decodes one record of an LP feed file from a mapped window of the file.
+ */
+interface LpFeedParser {
+    /**
+     * Returned when the file can not be framed any further, the rest of it is skipped.
+     */
+    int CORRUPT = -1;
+
+    /**
+     * Decodes the record starting at {@code offset} into {@code quote}. A record that is framed but skipped, a
+     * comment or header line, leaves the quote with no rungs, one that can not be decoded marks it malformed.
+     *
+     * @param endOfInput true when {@code limit} is the end of the file rather than of the mapped window
+     * @return the bytes consumed, 0 when the record is not complete before {@code limit}, or {@link #CORRUPT}
+     */
+    int parse(DirectBuffer buffer, int offset, int limit, boolean endOfInput, LpQuote quote);
+}
@@ -0,0 +1,54 @@
+package play.lab.marketdata.feed;
+
+import pub.lab.trading.common.model.pricing.QuoteMessageWriter;
+
+/**
+ * One LP quote decoded from a feed file, reused for every record. The symbol is kept as up to eight ASCII bytes
+ * packed little endian into a long so records can be looked up without building a {@code String}.
+ */
+final class LpQuote {
+    static final int MAX_SYMBOL_LENGTH = 8;
+
+    final double[] bids = new double[QuoteMessageWriter.MAX_LEVELS];
+    final double[] asks = new double[QuoteMessageWriter.MAX_LEVELS];
+    final double[] volumes = new double[QuoteMessageWriter.MAX_LEVELS];
+    long timestampNanos;
+    long symbolKey;
+    int symbolLength;
+    int rungCount;
+    // set when the record could be framed but not decoded, it is skipped
+    boolean malformed;
+
+    void reset() {
+        timestampNanos = 0;
+        symbolKey = 0;
+        symbolLength = 0;
+        rungCount = 0;
+        malformed = false;
+    }
+
+    /**
+     * @return false once the symbol is longer than {@link #MAX_SYMBOL_LENGTH}
+     */
+    boolean appendSymbolChar(byte c) {
+        if (symbolLength == MAX_SYMBOL_LENGTH) {
+            return false;
+        }
+        symbolKey |= (long) (c & 0xFF) << (symbolLength << 3);
+        symbolLength++;
+        return true;
+    }
+
+    static String symbol(long symbolKey) {
+        final char[] chars = new char[MAX_SYMBOL_LENGTH];
+        int length = 0;
+        for (; length < MAX_SYMBOL_LENGTH; length++) {
+            final char c = (char) ((symbolKey >>> (length << 3)) & 0xFF);
+            if (0 == c) {
+                break;
+            }
+            chars[length] = c;
+        }
+        return new String(chars, 0, length);
+    }
+}
@@ -0,0 +1,183 @@
+package play.lab.marketdata.generator;
+
+import org.agrona.collections.Object2IntHashMap;
+import play.lab.marketdata.generator.random.NormalSource;
+
+/**
+ * Correlated G10 currency model. Each currency carries a log value against an abstract numeraire which takes
+ * a GBM step per tick from an independent normal shock correlated through the Cholesky factor of the currency
+ * correlation matrix. A pair is priced as {@code exp(value(base) - value(quote))}, so crosses always equal the
+ * product of their legs, e.g. EURJPY == EURUSD * USDJPY.
+ * <p>
+ * A step costs one shock and one row of the triangular factor per currency whatever the number of pairs, and
+ * pricing a pair is a single {@code exp}, so the per-tick cost stays flat as crosses are added.
+ */
+public final class CurrencyFactorModel {
+    public static final int MISSING_CURRENCY = -1;
+
+    static final String[] G10 = {"USD", "EUR", "JPY", "GBP", "CHF", "AUD", "NZD", "CAD", "SEK", "NOK"};
+
+    // loadings of each G10 currency on common risk-on, european, commodity and safe haven factors, the rest of
+    // the variance is idiosyncratic; building the correlation this way keeps it positive definite
+    static final double[][] G10_FACTOR_LOADINGS = {
+            {0.00, 0.00, 0.00, 0.30},  // USD
+            {0.30, 0.80, 0.00, 0.20},  // EUR
+            {-0.30, 0.20, 0.00, 0.75}, // JPY
+            {0.40, 0.60, 0.00, 0.00},  // GBP
+            {0.00, 0.60, 0.00, 0.60},  // CHF
+            {0.60, 0.20, 0.60, 0.00},  // AUD
+            {0.55, 0.20, 0.60, 0.00},  // NZD
+            {0.40, 0.10, 0.50, 0.00},  // CAD
+            {0.40, 0.75, 0.10, 0.00},  // SEK
+            {0.40, 0.60, 0.40, 0.00},  // NOK
+    };
+
+    private final Object2IntHashMap<String> currencyIds = new Object2IntHashMap<>(MISSING_CURRENCY);
+    private final int currencyCount;
+    private final double[] cholesky;
+    private final double[] volatilities;
+    private final double[] logValues;
+    private final boolean[] anchored;
+    private final double[] shocks;
+    private final double[] drifts;
+    private final double[] diffusions;
+    private final NormalSource normals;
+    private double stepDt = Double.NaN;
+
+    public CurrencyFactorModel(final NormalSource normals) {
+        this(G10, correlation(G10_FACTOR_LOADINGS), normals);
+    }
+
+    CurrencyFactorModel(final String[] currencies, final double[] correlation, final NormalSource normals) {
+        this.currencyCount = currencies.length;
+        this.cholesky = cholesky(correlation, currencyCount);
+        this.volatilities = new double[currencyCount];
+        this.logValues = new double[currencyCount];
+        this.anchored = new boolean[currencyCount];
+        this.shocks = new double[currencyCount];
+        this.drifts = new double[currencyCount];
+        this.diffusions = new double[currencyCount];
+        this.normals = normals;
+        for (int i = 0; i < currencyCount; i++) {
+            currencyIds.put(currencies[i], i);
+        }
+    }
+
+    static boolean isG10(String currency) {
+        for (String g10 : G10) {
+            if (g10.equals(currency)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int currencyId(String currency) {
+        return currencyIds.getValue(currency);
+    }
+
+    public void volatility(int currencyId, double volatility) {
+        volatilities[currencyId] = volatility;
+        stepDt = Double.NaN;
+    }
+
+    /**
+     * Fixes the level of a currency from a pair's price when the other leg is already known, or pins the base
+     * when neither is. Pairs whose legs are both known are derived and their quoted price is ignored.
+     *
+     * @return true if the price was used to anchor a currency
+     */
+    public boolean anchor(int baseId, int quoteId, double price) {
+        if (anchored[baseId] && anchored[quoteId]) {
+            return false;
+        }
+        if (anchored[baseId]) {
+            logValues[quoteId] = logValues[baseId] - Math.log(price);
+            anchored[quoteId] = true;
+        } else {
+            anchored[baseId] = true;
+            anchored[quoteId] = true;
+            logValues[baseId] = logValues[quoteId] + Math.log(price);
+        }
+        return true;
+    }
+
+    /**
+     * Advances every currency by {@code dt} seconds of annualized volatility.
+     */
+    public void step(double dt) {
+        if (dt != stepDt) {
+            prepareStep(dt);
+        }
+
+        final int n = currencyCount;
+        final double[] z = shocks;
+        final double[] l = cholesky;
+        for (int i = 0; i < n; i++) {
+            z[i] = normals.nextNormal();
+        }
+
+        for (int i = 0; i < n; i++) {
+            final int row = i * n;
+            double correlated = 0.0;
+            for (int k = 0; k <= i; k++) {
+                correlated += l[row + k] * z[k];
+            }
+            logValues[i] += drifts[i] + diffusions[i] * correlated;
+        }
+    }
+
+    // the step size only changes with the tick rate, so the drift and diffusion terms are kept until it does
+    private void prepareStep(double dt) {
+        final double sqrtDt = Math.sqrt(dt);
+        for (int i = 0; i < currencyCount; i++) {
+            final double volatility = volatilities[i];
+            drifts[i] = -0.5 * volatility * volatility * dt;
+            diffusions[i] = volatility * sqrtDt;
+        }
+        stepDt = dt;
+    }
+
+    public double price(int baseId, int quoteId) {
+        return Math.exp(logValues[baseId] - logValues[quoteId]);
+    }
+
+    static double[] correlation(double[][] loadings) {
+        final int n = loadings.length;
+        final double[] correlation = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                double c = 0.0;
+                for (int f = 0; f < loadings[i].length; f++) {
+                    c += loadings[i][f] * loadings[j][f];
+                }
+                correlation[i * n + j] = i == j ? 1.0 : c;
+            }
+        }
+        return correlation;
+    }
+
+    /**
+     * @return the lower triangular factor of a row-major correlation matrix
+     */
+    static double[] cholesky(double[] correlation, int n) {
+        final double[] l = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                double sum = correlation[i * n + j];
+                for (int k = 0; k < j; k++) {
+                    sum -= l[i * n + k] * l[j * n + k];
+                }
+                if (i == j) {
+                    if (sum <= 0.0) {
+                        throw new IllegalArgumentException("Correlation matrix is not positive definite at row " + i);
+                    }
+                    l[i * n + i] = Math.sqrt(sum);
+                } else {
+                    l[i * n + j] = sum / l[j * n + j];
+                }
+            }
+        }
+        return l;
+    }
+}
@@ -0,0 +1,56 @@
+package play.lab.marketdata.generator;
+
+import pub.lab.trading.common.model.pricing.QuoteMessageWriter;
+
+/**
+ * Volume bands and spread widening of the simulated LP ladder. Level sizes follow the usual LP bands and the
+ * spread of each level grows with the square root of its size relative to the top of book, the usual market
+ * impact shape, so 25M is quoted about five times wider than 1M.
+ * <p>
+ * The depth is set with {@code -Dmarketdata.levels=<1..10>}, default {@value #DEFAULT_LEVELS}.
+ */
+public final class DepthLadder {
+    public static final String LEVELS_PROPERTY = "marketdata.levels";
+    public static final int DEFAULT_LEVELS = 5;
+
+    private static final double[] VOLUME_BANDS = {
+            1_000_000, 2_000_000, 3_000_000, 5_000_000, 10_000_000,
+            15_000_000, 20_000_000, 25_000_000, 50_000_000, 100_000_000
+    };
+
+    private final int levels;
+    private final double[] volumes;
+    private final double[] spreadMultipliers;
+
+    public DepthLadder(final int levels) {
+        if (levels < 1 || levels > QuoteMessageWriter.MAX_LEVELS) {
+            throw new IllegalArgumentException("Ladder levels (" + levels + ") must be between 1 and " + QuoteMessageWriter.MAX_LEVELS);
+        }
+        this.levels = levels;
+        this.volumes = new double[levels];
+        this.spreadMultipliers = new double[levels];
+        for (int level = 0; level < levels; level++) {
+            volumes[level] = VOLUME_BANDS[level];
+            spreadMultipliers[level] = Math.sqrt(VOLUME_BANDS[level] / VOLUME_BANDS[0]);
+        }
+    }
+
+    public static DepthLadder fromSystemProperties() {
+        return new DepthLadder(Integer.getInteger(LEVELS_PROPERTY, DEFAULT_LEVELS));
+    }
+
+    public int levels() {
+        return levels;
+    }
+
+    public double volume(int level) {
+        return volumes[level];
+    }
+
+    /**
+     * @return how many times wider than the top of book the level is quoted
+     */
+    public double spreadMultiplier(int level) {
+        return spreadMultipliers[level];
+    }
+}
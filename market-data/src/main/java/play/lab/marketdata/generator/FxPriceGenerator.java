@@ -2,30 +2,121 @@
 package play.lab.marketdata.generator;
 
 
+import org.agrona.collections.Object2IntHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import play.lab.TickScheduler;
 import play.lab.TickThrottle;
-import play.lab.marketdata.model.MarketDataTick;
+import play.lab.marketdata.generator.random.NormalSource;
 import play.lab.marketdata.model.RawPriceConfig;
+import pub.lab.trading.common.config.caches.GeneratorParamsCache;
+import pub.lab.trading.common.config.caches.SymbolRegistry;
 import pub.lab.trading.common.lifecycle.Worker;
 import pub.lab.trading.common.util.HolidayCalendar;
 
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ThreadLocalRandom;
-
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Structure-of-arrays GBM generator. Every symbol is given a dense int id on registration and its price,
+ * volatility and spread live in primitive arrays at that index, so a duty cycle walks the arrays and
+ * encodes straight into the SBE quote without creating any per-tick objects. Each quote carries a
+ * {@link DepthLadder} of levels around the mid, the top level at the symbol's spread.
+ * <p>
+ * Ticks are paced by a {@link TickScheduler} at the throttle's ticks-per-second and handed out round-robin
+ * across the symbols, so the RAW_QUOTE rate is the configured rate regardless of the universe size. With
+ * {@code -Dmarketdata.snapshot=true} each tick instead advances the whole universe and publishes it as
+ * {@code MarketSnapshotMessage}s, trading per-symbol timing for far fewer offers and frame headers.
+ * <p>
+ * When a {@link SeedManifest} is supplied each symbol draws from its own seeded stream and quotes are stamped
+ * on a logical clock at the nominal rate, so the same manifest reproduces the same RAW_QUOTE sequence run after run.
+ * <p>
+ * Pairs of G10 currencies are priced from a {@link CurrencyFactorModel}, which steps once per tick, so majors move
+ * together and crosses stay equal to the product of their legs. Other pairs walk independently.
+ * <p>
+ * Quotes are stamped with the symbol's id from the {@link SymbolRegistry} published by config-service, and with
+ * the null id until the registry has reached this process.
+ * <p>
+ * Volatility and spread changes arrive as {@link GeneratorParamsCache} snapshots. The generator thread checks the
+ * snapshot reference once per duty cycle and copies a new one into its own arrays, so the tick loop only ever
+ * reads primitives it owns. A pair's volatility drives only pairs that walk independently: G10 pairs take theirs
+ * from the factor model's per-currency volatilities, as one currency's volatility can not follow several pairs.
+ */
 public class FxPriceGenerator implements Worker {
     private static final Logger LOGGER = LoggerFactory.getLogger(FxPriceGenerator.class);
 
     private static final double DEFAULT_SPREAD_BP = 0.5;
     private static final double DEFAULT_VOLATILITY = 0.5;
-    private final Map<String, PairModel> pairs = new HashMap<>();
-    private final Map<String, RawPriceConfig> configOverridesByCcy = new ConcurrentHashMap<>();
+    private static final int INITIAL_CAPACITY = 32;
+    private static final int MISSING_SYMBOL_ID = -1;
+    private static final int MAX_TICKS_PER_DUTY_CYCLE = 4096;
+    private static final String SNAPSHOT_PROPERTY = "marketdata.snapshot";
+    private static final String FACTOR_SEED_KEY = "FACTORS";
+
+    private final Object2IntHashMap<String> symbolIds = new Object2IntHashMap<>(MISSING_SYMBOL_ID);
+    // per currency defaults the volatility and spread of a new symbol are inferred from, only read on registration
+    private final Map<String, RawPriceConfig> configOverridesByCcy = new HashMap<>();
     private final RawPriceConfig defaultConfig = new RawPriceConfig("XXX", DEFAULT_VOLATILITY, DEFAULT_SPREAD_BP);
-    private final QuotePublisher aeronPub = new QuotePublisher();
-    private final TickThrottle throttle = new TickThrottle(1000);
+    private final QuotePublisher aeronPub;
+    private final String roleName;
+    private final SymbolRegistry symbolRegistry;
+    private final GeneratorParamsCache generatorParams;
+    private GeneratorParamsCache.Snapshot appliedParams;
+    private final TickThrottle throttle;
+    private final TickScheduler scheduler;
+    private final SeedManifest seedManifest;
+    private final boolean snapshotMode = Boolean.getBoolean(SNAPSHOT_PROPERTY);
+    private final CurrencyFactorModel factorModel;
+
+    // per symbol state, indexed by symbol id
+    private String[] symbols = new String[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private double[] volatilities = new double[INITIAL_CAPACITY];
+    private double[] spreads = new double[INITIAL_CAPACITY];
+    private NormalSource[] normals = new NormalSource[INITIAL_CAPACITY];
+    // GBM terms for the current step size, log return = drift + diffusion * z
+    private double[] drifts = new double[INITIAL_CAPACITY];
+    private double[] diffusions = new double[INITIAL_CAPACITY];
+    private double stepDt = Double.NaN;
+    private int[] baseCurrencyIds = new int[INITIAL_CAPACITY];
+    private int[] quoteCurrencyIds = new int[INITIAL_CAPACITY];
+    private int[] registryIds = new int[INITIAL_CAPACITY];
+    private int boundRegistrySize;
+    private int symbolCount;
+    private int nextSymbolId;
+    private long tickSequence;
+
+    private long valueDate;
+    private long valueDateRollTimeMs = Long.MIN_VALUE;
 
     public FxPriceGenerator() {
+        this(TickThrottle.fromSystemProperties(1000), SeedManifest.fromSystemProperties());
+    }
+
+    public FxPriceGenerator(final TickThrottle throttle, final SeedManifest seedManifest) {
+        this(throttle, seedManifest, new QuotePublisher(DepthLadder.fromSystemProperties()), SymbolUniverse.fromSystemProperties(), null, new GeneratorParamsCache(), "FxPriceGenerator");
+    }
+
+    public FxPriceGenerator(final TickThrottle throttle,
+                            final SeedManifest seedManifest,
+                            final QuotePublisher aeronPub,
+                            final List<SymbolUniverse.Entry> universe,
+                            final SymbolRegistry symbolRegistry,
+                            final GeneratorParamsCache generatorParams,
+                            final String roleName) {
+        this.throttle = throttle;
+        this.aeronPub = aeronPub;
+        this.roleName = roleName;
+        this.symbolRegistry = symbolRegistry;
+        this.generatorParams = generatorParams;
+        this.scheduler = new TickScheduler(throttle);
+        this.seedManifest = seedManifest;
+        this.factorModel = new CurrencyFactorModel(
+                null == seedManifest ? NormalSource.fromSystemProperties() : NormalSource.fromSystemProperties(seedManifest.seedFor(FACTOR_SEED_KEY)));
+
         // Volatility overrides (annualized)
         configOverridesByCcy.put("USD", new RawPriceConfig("USD", 0.020, 0.5)); // US Dollar
         configOverridesByCcy.put("EUR", new RawPriceConfig("EUR", 0.018, 0.5)); // Euro
@@ -35,40 +126,139 @@ public class FxPriceGenerator implements Worker {
         configOverridesByCcy.put("AUD", new RawPriceConfig("AUD", 0.028, 0.6)); // Australian Dollar
         configOverridesByCcy.put("NZD", new RawPriceConfig("NZD", 0.030, 0.7)); // New Zealand Dollar
         configOverridesByCcy.put("CAD", new RawPriceConfig("CAD", 0.022, 0.5)); // Canadian Dollar
+        configOverridesByCcy.put("SEK", new RawPriceConfig("SEK", 0.026, 0.8)); // Swedish Krona
+        configOverridesByCcy.put("NOK", new RawPriceConfig("NOK", 0.028, 0.8)); // Norwegian Krone
+        configOverridesByCcy.forEach((ccy, config) -> currencyVolatility(ccy, config.getVolatility()));
 
-        // Default major pairs and crosses
-        add("EURUSD", 1.1000);
-        add("USDJPY", 145.00);
-        add("GBPUSD", 1.2500);
-        add("USDCHF", 0.8800);
-        add("AUDUSD", 0.6600);
-        add("NZDUSD", 0.6000);
-        add("USDCAD", 1.3600);
-
-        // Crosses (most traded)
-        add("EURJPY", 158.00);
-        add("EURGBP", 0.8800);
-        add("EURCHF", 0.9700);
-        add("GBPJPY", 184.50);
-        add("AUDJPY", 98.50);
-        add("NZDJPY", 90.20);
-        add("CADJPY", 107.30);
-        add("AUDNZD", 1.0700);
-        add("EURCAD", 1.4700);
-        add("GBPCHF", 1.1100);
+        for (SymbolUniverse.Entry entry : universe) {
+            if (entry.inferred()) {
+                add(entry.symbol(), entry.price());
+            } else {
+                register(entry.symbol(), entry.price(), entry.volatility(), entry.spreadBp());
+            }
+        }
+        LOGGER.info("{} quoting {} symbols", roleName, symbolCount);
 
+        if (null != seedManifest) {
+            seedManifest.write();
+        }
     }
 
     private void add(String pair, double initialPrice) {
-        double volatility = inferVolatility(pair);
-        double spread = inferSpread(pair);
-        pairs.put(pair, new PairModel(pair, initialPrice, volatility, spread));
+        register(pair, initialPrice, inferVolatility(pair), inferSpread(pair));
     }
 
+    /**
+     * Adds a symbol to the universe, must be called on the generator's thread.
+     */
     public void addSymbol(String symbol, double initialPrice, double volatility, double spread) {
         configOverridesByCcy.put(symbol.substring(0, 3), new RawPriceConfig(symbol.substring(0, 3), volatility, spread));
-        configOverridesByCcy.put(symbol.substring(3), new RawPriceConfig(symbol.substring(0, 3), volatility, spread));
-        pairs.put(symbol, new PairModel(symbol, initialPrice, volatility, spread));
+        configOverridesByCcy.put(symbol.substring(3), new RawPriceConfig(symbol.substring(3), volatility, spread));
+        currencyVolatility(symbol.substring(0, 3), volatility);
+        currencyVolatility(symbol.substring(3), volatility);
+        register(symbol, initialPrice, volatility, spread);
+        if (null != seedManifest) {
+            seedManifest.write();
+        }
+    }
+
+    private int register(String symbol, double initialPrice, double volatility, double spread) {
+        int symbolId = symbolIds.getValue(symbol);
+        if (MISSING_SYMBOL_ID == symbolId) {
+            symbolId = symbolCount;
+            ensureCapacity(symbolId + 1);
+            symbols[symbolId] = symbol;
+            normals[symbolId] = null == seedManifest ? NormalSource.fromSystemProperties() : NormalSource.fromSystemProperties(seedManifest.seedFor(symbol));
+            baseCurrencyIds[symbolId] = symbol.length() == 6 ? factorModel.currencyId(symbol.substring(0, 3)) : CurrencyFactorModel.MISSING_CURRENCY;
+            quoteCurrencyIds[symbolId] = symbol.length() == 6 ? factorModel.currencyId(symbol.substring(3)) : CurrencyFactorModel.MISSING_CURRENCY;
+            registryIds[symbolId] = SymbolRegistry.NULL_SYMBOL_ID;
+            symbolIds.put(symbol, symbolId);
+            symbolCount++;
+            boundRegistrySize = -1;
+        }
+
+        final int baseId = baseCurrencyIds[symbolId];
+        final int quoteId = quoteCurrencyIds[symbolId];
+        if (CurrencyFactorModel.MISSING_CURRENCY != baseId && CurrencyFactorModel.MISSING_CURRENCY != quoteId) {
+            if (!factorModel.anchor(baseId, quoteId, initialPrice)) {
+                LOGGER.info("{} derived from its legs at {} instead of {}", symbol, factorModel.price(baseId, quoteId), initialPrice);
+            }
+            initialPrice = factorModel.price(baseId, quoteId);
+        } else {
+            baseCurrencyIds[symbolId] = CurrencyFactorModel.MISSING_CURRENCY;
+            quoteCurrencyIds[symbolId] = CurrencyFactorModel.MISSING_CURRENCY;
+        }
+        prices[symbolId] = initialPrice;
+        volatilities[symbolId] = volatility;
+        spreads[symbolId] = spread;
+        stepDt = Double.NaN;
+        return symbolId;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > symbols.length) {
+            int newCapacity = Math.max(required, symbols.length << 1);
+            symbols = Arrays.copyOf(symbols, newCapacity);
+            prices = Arrays.copyOf(prices, newCapacity);
+            volatilities = Arrays.copyOf(volatilities, newCapacity);
+            spreads = Arrays.copyOf(spreads, newCapacity);
+            normals = Arrays.copyOf(normals, newCapacity);
+            drifts = Arrays.copyOf(drifts, newCapacity);
+            diffusions = Arrays.copyOf(diffusions, newCapacity);
+            baseCurrencyIds = Arrays.copyOf(baseCurrencyIds, newCapacity);
+            quoteCurrencyIds = Arrays.copyOf(quoteCurrencyIds, newCapacity);
+            registryIds = Arrays.copyOf(registryIds, newCapacity);
+        }
+    }
+
+    // picks up registry ids as config-service publishes them, the registry only ever grows
+    private void bindRegistryIds() {
+        if (null == symbolRegistry || symbolRegistry.size() == boundRegistrySize) {
+            return;
+        }
+        boundRegistrySize = symbolRegistry.size();
+        for (int symbolId = 0; symbolId < symbolCount; symbolId++) {
+            if (SymbolRegistry.NULL_SYMBOL_ID == registryIds[symbolId]) {
+                registryIds[symbolId] = symbolRegistry.symbolId(symbols[symbolId]);
+                // params may have arrived for the symbol before its id did
+                appliedParams = null;
+            }
+        }
+    }
+
+    // a single volatile read when nothing has changed, otherwise copies the params that changed of every bound symbol
+    private void applyParams() {
+        if (null == generatorParams) {
+            return;
+        }
+        final GeneratorParamsCache.Snapshot params = generatorParams.snapshot();
+        if (params == appliedParams) {
+            return;
+        }
+        appliedParams = params;
+        for (int symbolId = 0; symbolId < symbolCount; symbolId++) {
+            final int registryId = registryIds[symbolId];
+            if (!params.contains(registryId)) {
+                continue;
+            }
+            spreads[symbolId] = params.spreadBp(registryId);
+            final double volatility = params.volatility(registryId);
+            if (volatility != volatilities[symbolId]) {
+                volatilities[symbolId] = volatility;
+                // once prepared, only this symbol's GBM terms need recomputing
+                if (!Double.isNaN(stepDt)) {
+                    drifts[symbolId] = -0.5 * volatility * volatility * stepDt;
+                    diffusions[symbolId] = volatility * Math.sqrt(stepDt);
+                }
+            }
+        }
+    }
+
+    private void currencyVolatility(String currency, double volatility) {
+        int currencyId = factorModel.currencyId(currency);
+        if (CurrencyFactorModel.MISSING_CURRENCY != currencyId) {
+            factorModel.volatility(currencyId, volatility);
+        }
     }
 
     private double inferVolatility(String pair) {
@@ -87,132 +277,156 @@ public class FxPriceGenerator implements Worker {
         );
     }
 
-    public double getVol(String symbol) {
-        String base = symbol.substring(0, 3);
-        String quote = symbol.substring(3);
-        return (configOverridesByCcy.getOrDefault(base, defaultConfig).getVolatility()
-                + configOverridesByCcy.getOrDefault(quote, defaultConfig).getVolatility()) * 0.5;
+    /**
+     * Publishes new parameters for a registered symbol, safe from any thread. The generator picks them up on
+     * its next duty cycle, as it does for params from config-service.
+     */
+    public void updateModel(String symbol, double vol, double spread) {
+        final int registryId = null == symbolRegistry ? SymbolRegistry.NULL_SYMBOL_ID : symbolRegistry.symbolId(symbol);
+        if (SymbolRegistry.NULL_SYMBOL_ID == registryId || null == generatorParams) {
+            throw new IllegalStateException("Cannot update " + symbol + ", it has no symbol registry id");
+        }
+        generatorParams.update(registryId, vol, spread);
     }
 
-    public double getSpread(String symbol) {
-        String base = symbol.substring(0, 3);
-        String quote = symbol.substring(3);
-        return Math.max(
-                configOverridesByCcy.getOrDefault(base, defaultConfig).getSpread(),
-                configOverridesByCcy.getOrDefault(quote, defaultConfig).getSpread()
-        );
+    public int symbolCount() {
+        return symbolCount;
     }
 
-    public void updateModel(String symbol, double vol, double spread) {
-        String base = symbol.substring(0, 3);
-        configOverridesByCcy.compute(base, (k, oldValue) -> {
-            if (oldValue == null) {
-                return new RawPriceConfig(base, vol, spread);
-            } else {
-                oldValue.setSpread(spread);
-                oldValue.setVolatility(vol);
-                return oldValue;
-            }
-        });
-        String term = symbol.substring(3);
-        configOverridesByCcy.compute(term, (k, oldValue) -> {
-            if (oldValue == null) {
-                return new RawPriceConfig(term, vol, spread);
-            } else {
-                oldValue.setSpread(spread);
-                oldValue.setVolatility(vol);
-                return oldValue;
-            }
-        });
-
-        if (pairs.containsKey(symbol)) {
-            pairs.get(symbol).setVolatility(vol);
-            pairs.get(symbol).setSpread(spread);
-        }
+    public String symbol(int symbolId) {
+        return symbols[symbolId];
     }
 
-    public Set<String> symbols() {
-        return pairs.keySet();
+    public double price(int symbolId) {
+        return prices[symbolId];
     }
 
-    public List<MarketDataTick> generateAll(long now, double dtSeconds) {
-        List<MarketDataTick> ticks = new ArrayList<>();
-        for (Map.Entry<String, PairModel> entry : pairs.entrySet()) {
-            PairModel model = entry.getValue();
-            MarketDataTick tick = model.nextTick(now, dtSeconds);
-            ticks.add(tick);
-            aeronPub.publish(tick);
-        }
-        return ticks;
+    public double volatility(int symbolId) {
+        return volatilities[symbolId];
     }
 
-    public List<RawPriceConfig> generateAllConfig() {
-        return new ArrayList<>(configOverridesByCcy.values());
+    public double spreadBp(int symbolId) {
+        return spreads[symbolId];
     }
 
-    public MarketDataTick generate(String symbol, long now, double dtSeconds) {
-        PairModel model = pairs.get(symbol);
-        if (model == null) {
-            throw new IllegalArgumentException("Unknown symbol: " + symbol);
+    /**
+     * Advances every symbol by one step and publishes the whole universe as snapshot messages, split across
+     * as few fragments as the publication's max payload allows.
+     */
+    public int generateAll(long now, double dtSeconds) {
+        refreshValueDate(now);
+        prepareStep(dtSeconds);
+        factorModel.step(dtSeconds);
+        int symbolId = 0;
+        while (symbolId < symbolCount) {
+            final int end = Math.min(symbolCount, symbolId + aeronPub.maxSnapshotSymbols());
+            aeronPub.beginSnapshot(symbolId / aeronPub.maxSnapshotSymbols(), valueDate, now, end - symbolId);
+            for (; symbolId < end; symbolId++) {
+                final double price = advance(symbolId);
+                final double halfSpread = price * spreads[symbolId] / 20000;
+                aeronPub.addToSnapshot(symbols[symbolId], registryIds[symbolId], price, halfSpread);
+            }
+            aeronPub.publishSnapshot();
         }
-        return model.nextTick(now, dtSeconds);
+        return symbolCount;
     }
 
-    @Override
-    public int doWork() {
-        generateAll(System.nanoTime(), throttle.getDtSeconds());
-        return 1;
+    private void nextTick(int symbolId, long now) {
+        final double price = advance(symbolId);
+        final double halfSpread = price * spreads[symbolId] / 20000;
+        final int priority = CurrencyFactorModel.MISSING_CURRENCY == baseCurrencyIds[symbolId] ? 1 : 0;
+        aeronPub.publish(symbolId, priority, symbols[symbolId], registryIds[symbolId], valueDate, now, price, halfSpread);
     }
 
-    @Override
-    public String roleName() {
-        return "";
-    }
+    private double advance(int symbolId) {
+        final int baseId = baseCurrencyIds[symbolId];
+        if (CurrencyFactorModel.MISSING_CURRENCY != baseId) {
+            final double price = factorModel.price(baseId, quoteCurrencyIds[symbolId]);
+            prices[symbolId] = price;
+            return price;
+        }
 
-    private static class PairModel {
-        final String symbol;
-        double price, volatility, spread;
+        final double z = normals[symbolId].nextNormal();
+        final double price = prices[symbolId] * Math.exp(drifts[symbolId] + diffusions[symbolId] * z);
+        prices[symbolId] = price;
+        return price;
+    }
 
-        PairModel(String symbol, double price, double vol, double spr) {
-            this.symbol = symbol;
-            this.price = price;
-            this.volatility = vol;
-            this.spread = spr;
+    // recomputes the GBM terms only when the step size or a volatility has changed
+    private void prepareStep(double dt) {
+        if (dt == stepDt) {
+            return;
         }
-
-        public String getSymbol() {
-            return symbol;
+        final double sqrtDt = Math.sqrt(dt);
+        for (int symbolId = 0; symbolId < symbolCount; symbolId++) {
+            final double volatility = volatilities[symbolId];
+            drifts[symbolId] = -0.5 * volatility * volatility * dt;
+            diffusions[symbolId] = volatility * sqrtDt;
         }
+        stepDt = dt;
+    }
 
-        public double getPrice() {
-            return price;
+    // the value date only changes at the day roll, so avoid the LocalDate arithmetic on every tick
+    private void refreshValueDate(long nowMs) {
+        if (nowMs >= valueDateRollTimeMs) {
+            valueDate = HolidayCalendar.getValueDate(nowMs);
+            valueDateRollTimeMs = HolidayCalendar.nextDayRollEpochMs(nowMs);
         }
+    }
 
-        public void setPrice(double price) {
-            this.price = price;
-        }
+    public List<RawPriceConfig> generateAllConfig() {
+        return new ArrayList<>(configOverridesByCcy.values());
+    }
 
-        public double getVolatility() {
-            return volatility;
+    @Override
+    public int doWork() {
+        final int drained = aeronPub.drain();
+        final int ticks = scheduler.ticksDue(MAX_TICKS_PER_DUTY_CYCLE);
+        if (0 == ticks || 0 == symbolCount) {
+            return drained;
         }
 
-        public void setVolatility(double volatility) {
-            this.volatility = volatility;
+        bindRegistryIds();
+        applyParams();
+        final long wallClockMs = System.currentTimeMillis();
+        if (snapshotMode) {
+            // every tick is a whole universe snapshot, so each symbol steps once per tick
+            final double dtSeconds = null == seedManifest ? 1.0 / Math.max(1.0, scheduler.currentRate()) : throttle.getDtSeconds();
+            for (int i = 0; i < ticks; i++) {
+                generateAll(timeMs(wallClockMs), dtSeconds);
+            }
+            return drained + ticks;
         }
 
-        public double getSpread() {
-            return spread;
+        // symbols tick round-robin, so each one's GBM step spans a full pass over the universe
+        final double dtSeconds = null == seedManifest ?
+                symbolCount / Math.max(1.0, scheduler.currentRate()) :
+                symbolCount * throttle.getDtSeconds();
+        prepareStep(dtSeconds);
+        // while the currencies move on every tick
+        final double factorDtSeconds = dtSeconds / symbolCount;
+        for (int i = 0; i < ticks; i++) {
+            long now = timeMs(wallClockMs);
+            refreshValueDate(now);
+            factorModel.step(factorDtSeconds);
+            nextTick(nextSymbolId, now);
+            if (++nextSymbolId == symbolCount) {
+                nextSymbolId = 0;
+            }
         }
+        return drained + ticks;
+    }
 
-        public void setSpread(double spread) {
-            this.spread = spread;
+    // seeded runs are stamped on a logical clock so that replays are identical byte for byte
+    private long timeMs(long wallClockMs) {
+        if (null == seedManifest) {
+            return wallClockMs;
         }
+        return seedManifest.startTimeMs() + tickSequence++ * 1000L / Math.max(1, throttle.getTicksPerSecond());
+    }
 
-        MarketDataTick nextTick(long now, double dt) {
-            double z = ThreadLocalRandom.current().nextGaussian();
-            price *= Math.exp(-0.5 * volatility * volatility * dt + volatility * Math.sqrt(dt) * z);
-            double spread = price * this.spread / 10000;
-            return new MarketDataTick(symbol, price, (price - spread) * 0.5, (price + spread) * 0.5, HolidayCalendar.getValueDate(), now);
-        }
+    @Override
+    public String roleName() {
+        return roleName;
     }
 }
@@ -1,34 +1,67 @@
 package play.lab.marketdata.generator;
 
 import io.aeron.Aeron;
+import io.aeron.ExclusivePublication;
 import io.aeron.Publication;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import play.lab.marketdata.model.MarketDataTick;
 import pub.lab.trading.common.config.AeronConfigs;
 import pub.lab.trading.common.config.StreamId;
 import pub.lab.trading.common.lifecycle.ArrayObjectPool;
+import pub.lab.trading.common.logging.BinaryLogEvent;
+import pub.lab.trading.common.logging.BinaryLogger;
 import pub.lab.trading.common.model.ClientTierLevel;
 import pub.lab.trading.common.model.Tenor;
+import pub.lab.trading.common.model.pricing.MarketSnapshotWriter;
+import pub.lab.trading.common.model.pricing.QuoteConflationBuffer;
 import pub.lab.trading.common.model.pricing.QuoteMessageWriter;
 import pub.lab.trading.common.util.MutableString;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
 public class QuotePublisher {
     private static final Logger LOGGER = LoggerFactory.getLogger(QuotePublisher.class);
+    // G10 pairs drain before the rest of the universe
+    private static final int PRIORITY_LEVELS = 2;
 
     private final QuoteMessageWriter quoteMessageWriter;
+    private final DepthLadder ladder;
+    private final BinaryLogger binaryLogger;
+    private final QuoteConflationBuffer conflationBuffer = new QuoteConflationBuffer(64, PRIORITY_LEVELS);
+    private final double[] rungBids = new double[QuoteMessageWriter.MAX_LEVELS];
+    private final double[] rungAsks = new double[QuoteMessageWriter.MAX_LEVELS];
+    private final double[] rungVolumes = new double[QuoteMessageWriter.MAX_LEVELS];
+    private final MarketSnapshotWriter snapshotWriter;
+    private final int maxSnapshotSymbols;
+    // encoded snapshots held while the publication is back pressured, by part of the universe, a newer snapshot of
+    // a part replacing the held one
+    private UnsafeBuffer[] pendingSnapshots = new UnsafeBuffer[0];
+    private int[] pendingSnapshotLengths = new int[0];
+    private int pendingSnapshotCount;
+    private int snapshotPart;
     private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(2048));
-    private final Publication quotePub;
+    private final ExclusivePublication quotePub;
     private final ArrayObjectPool<MutableString> currencyPairObjectPool = new ArrayObjectPool<>("currencyPairObjectPool", MutableString::new);
 
-    QuotePublisher() {
-        Aeron aeron = Aeron.connect(new Aeron.Context().aeronDirectoryName(AeronConfigs.AERON_LIVE_DIR));
-        this.quotePub = aeron.addPublication(AeronConfigs.LIVE_CHANNEL, StreamId.RAW_QUOTE.getCode());
+    QuotePublisher(final DepthLadder ladder) {
+        this(Aeron.connect(new Aeron.Context().aeronDirectoryName(AeronConfigs.AERON_LIVE_DIR)), ladder, BinaryLogger.disabled());
+    }
+
+    /**
+     * Every publisher adds its own exclusive publication, so generators sharing an Aeron client each publish
+     * on their own session without contending on the term buffer.
+     */
+    public QuotePublisher(final Aeron aeron, final DepthLadder ladder, final BinaryLogger binaryLogger) {
+        this.ladder = ladder;
+        this.binaryLogger = binaryLogger;
+        this.quotePub = aeron.addExclusivePublication(AeronConfigs.LIVE_CHANNEL, StreamId.RAW_QUOTE.getCode());
         this.quoteMessageWriter = new QuoteMessageWriter();
+        // keep each snapshot within a single frame so subscribers never need to reassemble fragments
+        this.snapshotWriter = new MarketSnapshotWriter(quotePub.maxPayloadLength());
+        this.maxSnapshotSymbols = MarketSnapshotWriter.maxSymbols(quotePub.maxPayloadLength(), ladder.levels());
         LOGGER.info("Connected Aeron Dir : {} {} {}", aeron.context().aeronDirectory(), quotePub.channel(), quotePub.streamId());
 
         // Wait for the subscriber to connect
@@ -42,41 +75,153 @@ public class QuotePublisher {
         }
     }
 
-    void publish(final MarketDataTick marketDataTick) {
+    /**
+     * Publishes the symbol's ladder around {@code mid}, each level's half spread being {@code halfSpread}
+     * widened by the ladder's multiplier for that level. While the publication is back pressured the ladder is
+     * conflated into {@code slot}, replacing any older pending ladder for the symbol, and sent by {@link #drain()}.
+     */
+    void publish(final int slot, final int priority, final CharSequence symbol, final int symbolId, final long valueDate,
+                 final long timestamp, final double mid, final double halfSpread) {
+        final int levels = ladder.levels();
+        for (int level = 0; level < levels; level++) {
+            final double levelHalfSpread = halfSpread * ladder.spreadMultiplier(level);
+            rungBids[level] = mid - levelHalfSpread;
+            rungAsks[level] = mid + levelHalfSpread;
+            rungVolumes[level] = ladder.volume(level);
+        }
+
         try {
-            quoteMessageWriter.beginQuote(
-                            marketDataTick.getPair(),
-                            marketDataTick.getValueDateEpoch(),
-                            marketDataTick.getValueDateEpoch(),
-                            Tenor.SPOT.getCode(),
-                            ClientTierLevel.GOLD.getId(),
-                            1).
-                    addRung(
-                            marketDataTick.getBid(),
-                            marketDataTick.getAsk(),
-                            1_000_000
-                    );
-            UnsafeBuffer buffer = quoteMessageWriter.buffer();
-            int encodedLength = quoteMessageWriter.encodedLength();
-
-            long result = quotePub.offer(buffer, 0, encodedLength);
+            // pending quotes go first, a fresh quote must not overtake the backlog while the publication is full
+            if (conflationBuffer.hasPending()) {
+                drain();
+            }
+            long result = conflationBuffer.hasPending() ? Publication.BACK_PRESSURED : quoteMessageWriter.tryClaimQuote(
+                    quotePub,
+                    symbol,
+                    symbolId,
+                    valueDate,
+                    timestamp,
+                    Tenor.SPOT.getCode(),
+                    ClientTierLevel.GOLD.getId(),
+                    levels);
+            if (result > 0) {
+                for (int level = 0; level < levels; level++) {
+                    quoteMessageWriter.addRung(rungBids[level], rungAsks[level], rungVolumes[level]);
+                }
+                result = quoteMessageWriter.commit();
+            }
             if (result < 0) {
-                LOGGER.error("❌ Failed to publish quote for {} — code {}, channel: {}, streamId: {}, status: {}",
-                        marketDataTick.getPair(), result, quotePub.channel(), quotePub.streamId(), quotePub.channelStatus());
-            } else {
-                LOGGER.info("✅ Published quote for {}", marketDataTick.getPair());
-                try {
-                    TimeUnit.MILLISECONDS.sleep(2000);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
+                if (!conflationBuffer.hasPending()) {
+                    LOGGER.warn("Conflating quotes for {} — code {}, channel: {}, streamId: {}, status: {}",
+                            symbol, result, quotePub.channel(), quotePub.streamId(), quotePub.channelStatus());
                 }
+                conflationBuffer.put(slot, priority, symbol, symbolId, valueDate, timestamp, Tenor.SPOT.getCode(),
+                        ClientTierLevel.GOLD.getId(), rungBids, rungAsks, rungVolumes, levels);
             }
+            binaryLogger.logQuote(result < 0 ? BinaryLogEvent.QUOTE_CONFLATED : BinaryLogEvent.RAW_QUOTE_PUBLISHED,
+                    symbol, symbolId, ClientTierLevel.GOLD.getId(), levels, timestamp, valueDate,
+                    rungBids[0], rungAsks[0], rungVolumes[0], result);
         } catch (Exception e) {
-            LOGGER.error("Error publishing quote for {}: {}", marketDataTick.getPair(), e.getMessage(), e);
+            LOGGER.error("Error publishing quote for {}: {}", symbol, e.getMessage(), e);
             throw e;
         }
     }
 
+    /**
+     * Sends quotes conflated and snapshots held while the publication was back pressured.
+     *
+     * @return the number of quotes and snapshots sent
+     */
+    int drain() {
+        int drained = pendingSnapshotCount > 0 ? drainSnapshots() : 0;
+        if (!conflationBuffer.hasPending()) {
+            return drained;
+        }
+        drained += conflationBuffer.drain(quoteMessageWriter, quotePub);
+        if (!conflationBuffer.hasPending()) {
+            LOGGER.info("Conflation drained, {} quotes superseded while back pressured", conflationBuffer.conflatedCount());
+        }
+        return drained;
+    }
+
+    int maxSnapshotSymbols() {
+        return maxSnapshotSymbols;
+    }
+
+    /**
+     * Starts encoding the snapshot of one part of the universe. A universe is split into the same parts on every
+     * pass, so a part's snapshot supersedes the previous one of that part.
+     */
+    void beginSnapshot(final int part, final long valueDate, final long timestamp, final int symbolCount) {
+        snapshotPart = part;
+        snapshotWriter.beginSnapshot(valueDate, timestamp, Tenor.SPOT.getCode(), ClientTierLevel.GOLD.getId(), symbolCount);
+    }
+
+    void addToSnapshot(final CharSequence symbol, final int symbolId, final double mid, final double halfSpread) {
+        snapshotWriter.addSymbol(symbol, symbolId, ladder.levels());
+        for (int level = 0; level < ladder.levels(); level++) {
+            final double levelHalfSpread = halfSpread * ladder.spreadMultiplier(level);
+            snapshotWriter.addRung(mid - levelHalfSpread, mid + levelHalfSpread, ladder.volume(level));
+        }
+    }
+
+    /**
+     * Publishes the encoded snapshot. While the publication is back pressured it is held in place of any older
+     * snapshot of its part and sent by {@link #drain()}.
+     */
+    void publishSnapshot() {
+        // held snapshots go first, a fresh one must not overtake the backlog while the publication is full
+        if (pendingSnapshotCount > 0) {
+            drainSnapshots();
+        }
+        final int part = snapshotPart;
+        final long result = pendingSnapshotCount > 0 ? Publication.BACK_PRESSURED :
+                quotePub.offer(snapshotWriter.buffer(), 0, snapshotWriter.encodedLength());
+        if (result < 0) {
+            if (0 == pendingSnapshotCount) {
+                LOGGER.warn("Holding snapshots — code {}, channel: {}, streamId: {}, status: {}",
+                        result, quotePub.channel(), quotePub.streamId(), quotePub.channelStatus());
+            }
+            holdSnapshot(part);
+        }
+    }
+
+    private void holdSnapshot(final int part) {
+        if (part >= pendingSnapshots.length) {
+            pendingSnapshots = Arrays.copyOf(pendingSnapshots, part + 1);
+            pendingSnapshotLengths = Arrays.copyOf(pendingSnapshotLengths, part + 1);
+        }
+        UnsafeBuffer pending = pendingSnapshots[part];
+        if (null == pending) {
+            pending = pendingSnapshots[part] = new UnsafeBuffer(ByteBuffer.allocateDirect(quotePub.maxPayloadLength()));
+        }
+        if (0 == pendingSnapshotLengths[part]) {
+            pendingSnapshotCount++;
+        }
+        final int length = snapshotWriter.encodedLength();
+        pending.putBytes(0, snapshotWriter.buffer(), 0, length);
+        pendingSnapshotLengths[part] = length;
+    }
+
+    // sends held snapshots part by part, stopping at the first the publication pushes back
+    private int drainSnapshots() {
+        int sent = 0;
+        for (int part = 0; part < pendingSnapshots.length && pendingSnapshotCount > 0; part++) {
+            final int length = pendingSnapshotLengths[part];
+            if (0 == length) {
+                continue;
+            }
+            if (quotePub.offer(pendingSnapshots[part], 0, length) < 0) {
+                return sent;
+            }
+            pendingSnapshotLengths[part] = 0;
+            pendingSnapshotCount--;
+            sent++;
+        }
+        LOGGER.info("Held snapshots drained");
+        return sent;
+    }
+
     boolean isReady() {
         return quotePub.isConnected();
     }
@@ -0,0 +1,128 @@
+package play.lab.marketdata.generator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Seeds for a reproducible generator run. Each symbol gets its own seed derived from the master seed and the
+ * symbol name, so adding a symbol never shifts the price path of the others. The manifest is written to disk
+ * when recording and read back when replaying, which makes the replay independent of how seeds are derived.
+ * <p>
+ * Enabled with {@code -Dmarketdata.seed=<long>} and/or {@code -Dmarketdata.seed.manifest=<path>}; an existing
+ * manifest file is replayed, a missing one is recorded.
+ */
+public final class SeedManifest {
+    public static final String SEED_PROPERTY = "marketdata.seed";
+    public static final String MANIFEST_PROPERTY = "marketdata.seed.manifest";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SeedManifest.class);
+    private static final String MASTER_SEED_KEY = "masterSeed";
+    private static final String START_TIME_KEY = "startTimeMs";
+    private static final String SYMBOL_SEED_PREFIX = "seed.";
+
+    private final long masterSeed;
+    private final long startTimeMs;
+    private final Map<String, Long> symbolSeeds = new TreeMap<>();
+    private final Path path;
+
+    SeedManifest(final long masterSeed, final long startTimeMs, final Path path) {
+        this.masterSeed = masterSeed;
+        this.startTimeMs = startTimeMs;
+        this.path = path;
+    }
+
+    /**
+     * @return the manifest configured through system properties, or null when the generator should run unseeded
+     */
+    public static SeedManifest fromSystemProperties() {
+        String seed = System.getProperty(SEED_PROPERTY);
+        String manifest = System.getProperty(MANIFEST_PROPERTY);
+        if (null == seed && null == manifest) {
+            return null;
+        }
+
+        Path path = null == manifest ? null : Paths.get(manifest);
+        if (null != path && Files.exists(path)) {
+            return load(path);
+        }
+
+        long masterSeed = null == seed ? System.nanoTime() : Long.parseLong(seed);
+        LOGGER.info("Recording seeded run masterSeed={} manifest={}", masterSeed, path);
+        return new SeedManifest(masterSeed, System.currentTimeMillis(), path);
+    }
+
+    public static SeedManifest load(final Path path) {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read seed manifest " + path, e);
+        }
+
+        SeedManifest manifest = new SeedManifest(
+                Long.parseLong(properties.getProperty(MASTER_SEED_KEY)),
+                Long.parseLong(properties.getProperty(START_TIME_KEY)),
+                path);
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(SYMBOL_SEED_PREFIX)) {
+                manifest.symbolSeeds.put(key.substring(SYMBOL_SEED_PREFIX.length()), Long.parseLong(properties.getProperty(key)));
+            }
+        }
+        LOGGER.info("Replaying seeded run masterSeed={} symbols={} manifest={}", manifest.masterSeed, manifest.symbolSeeds.size(), path);
+        return manifest;
+    }
+
+    public long masterSeed() {
+        return masterSeed;
+    }
+
+    public long startTimeMs() {
+        return startTimeMs;
+    }
+
+    /**
+     * Returns the recorded seed for the symbol, deriving and recording a new one the first time it is seen.
+     */
+    public long seedFor(final String symbol) {
+        Long seed = symbolSeeds.get(symbol);
+        if (null == seed) {
+            seed = mix64(masterSeed + 0x9E3779B97F4A7C15L * symbol.hashCode());
+            symbolSeeds.put(symbol, seed);
+        }
+        return seed;
+    }
+
+    public void write() {
+        if (null == path) {
+            return;
+        }
+
+        Properties properties = new Properties();
+        properties.setProperty(MASTER_SEED_KEY, Long.toString(masterSeed));
+        properties.setProperty(START_TIME_KEY, Long.toString(startTimeMs));
+        symbolSeeds.forEach((symbol, seed) -> properties.setProperty(SYMBOL_SEED_PREFIX + symbol, Long.toString(seed)));
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            properties.store(writer, "market-data seed manifest");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write seed manifest " + path, e);
+        }
+    }
+
+    // SplitMix64 finalizer, spreads nearby inputs across the whole seed space
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,112 @@
+package play.lab.marketdata.generator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The symbols the generator quotes. By default the G10 majors and most traded crosses; a larger universe
+ * (EM, NDF, metals, ...) is loaded with {@code -Dmarketdata.universe=<file>}, one symbol per line as
+ * {@code SYMBOL,price[,volatility,spreadBp]}. Blank lines and lines starting with {@code #} are skipped, and
+ * a missing volatility or spread is inferred from the symbol's currencies.
+ */
+public final class SymbolUniverse {
+    public static final String UNIVERSE_PROPERTY = "marketdata.universe";
+
+    public record Entry(String symbol, double price, double volatility, double spreadBp) {
+        Entry(String symbol, double price) {
+            this(symbol, price, Double.NaN, Double.NaN);
+        }
+
+        boolean inferred() {
+            return Double.isNaN(volatility) || Double.isNaN(spreadBp);
+        }
+    }
+
+    private SymbolUniverse() {
+    }
+
+    public static List<Entry> fromSystemProperties() {
+        String universe = System.getProperty(UNIVERSE_PROPERTY);
+        return null == universe ? defaults() : load(Paths.get(universe));
+    }
+
+    public static List<Entry> defaults() {
+        // USD majors first, they anchor the currency levels the crosses are derived from
+        return List.of(
+                new Entry("EURUSD", 1.1000),
+                new Entry("USDJPY", 145.00),
+                new Entry("GBPUSD", 1.2500),
+                new Entry("USDCHF", 0.8800),
+                new Entry("AUDUSD", 0.6600),
+                new Entry("NZDUSD", 0.6000),
+                new Entry("USDCAD", 1.3600),
+
+                // Crosses (most traded), priced from their legs
+                new Entry("EURJPY", 158.00),
+                new Entry("EURGBP", 0.8800),
+                new Entry("EURCHF", 0.9700),
+                new Entry("GBPJPY", 184.50),
+                new Entry("AUDJPY", 98.50),
+                new Entry("NZDJPY", 90.20),
+                new Entry("CADJPY", 107.30),
+                new Entry("AUDNZD", 1.0700),
+                new Entry("EURCAD", 1.4700),
+                new Entry("GBPCHF", 1.1100)
+        );
+    }
+
+    public static List<Entry> load(Path path) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read symbol universe " + path, e);
+        }
+
+        List<Entry> entries = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length != 2 && fields.length != 4) {
+                throw new IllegalArgumentException("Invalid symbol universe line in " + path + ": " + line);
+            }
+            entries.add(fields.length == 2 ?
+                    new Entry(fields[0].trim(), Double.parseDouble(fields[1].trim())) :
+                    new Entry(fields[0].trim(), Double.parseDouble(fields[1].trim()),
+                            Double.parseDouble(fields[2].trim()), Double.parseDouble(fields[3].trim())));
+        }
+        return entries;
+    }
+
+    /**
+     * Splits the universe across {@code shardCount} generators. Pairs priced by the {@link CurrencyFactorModel}
+     * all go to shard 0 so they share one model and crosses stay consistent with their legs, everything else is
+     * spread by a stable hash of the symbol. Universe order is preserved within a shard.
+     */
+    public static List<Entry> shard(List<Entry> universe, int shardId, int shardCount) {
+        List<Entry> shard = new ArrayList<>();
+        for (Entry entry : universe) {
+            if (shardOf(entry.symbol(), shardCount) == shardId) {
+                shard.add(entry);
+            }
+        }
+        return shard;
+    }
+
+    static int shardOf(String symbol, int shardCount) {
+        if (symbol.length() == 6
+                && CurrencyFactorModel.isG10(symbol.substring(0, 3))
+                && CurrencyFactorModel.isG10(symbol.substring(3))) {
+            return 0;
+        }
+        return (symbol.hashCode() & Integer.MAX_VALUE) % shardCount;
+    }
+}
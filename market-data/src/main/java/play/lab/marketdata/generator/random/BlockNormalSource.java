@@ -0,0 +1,35 @@
+package play.lab.marketdata.generator.random;
+
+/**
+ * Pre-generates normals a block at a time, so the sampler runs in a tight loop with its tables hot in cache and
+ * the generator's tick loop only pays for an array read.
+ */
+public final class BlockNormalSource implements NormalSource {
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+    private final NormalSource delegate;
+    private final double[] block;
+    private int index;
+
+    public BlockNormalSource(final NormalSource delegate, final int blockSize) {
+        this.delegate = delegate;
+        this.block = new double[blockSize];
+        this.index = blockSize;
+    }
+
+    @Override
+    public double nextNormal() {
+        if (index == block.length) {
+            refill();
+        }
+        return block[index++];
+    }
+
+    private void refill() {
+        final double[] block = this.block;
+        for (int i = 0; i < block.length; i++) {
+            block[i] = delegate.nextNormal();
+        }
+        index = 0;
+    }
+}
@@ -0,0 +1,39 @@
+package play.lab.marketdata.generator.random;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Source of standard normal variates for the GBM step. Implementations are single threaded and, given the same
+ * seed, produce the same sequence, so seeded generator runs stay reproducible whichever source is configured.
+ * <p>
+ * Selected with {@code -Dmarketdata.normal=ziggurat|block|jdk}, default {@code ziggurat}.
+ */
+public interface NormalSource {
+    String NORMAL_PROPERTY = "marketdata.normal";
+
+    double nextNormal();
+
+    /**
+     * @return the configured source drawing from a {@link SplittableRandom} with the given seed
+     */
+    static NormalSource fromSystemProperties(long seed) {
+        return create(System.getProperty(NORMAL_PROPERTY, "ziggurat"), new SplittableRandom(seed));
+    }
+
+    /**
+     * @return the configured source drawing from a randomly seeded {@link SplittableRandom}
+     */
+    static NormalSource fromSystemProperties() {
+        return create(System.getProperty(NORMAL_PROPERTY, "ziggurat"), new SplittableRandom());
+    }
+
+    static NormalSource create(String type, RandomGenerator random) {
+        return switch (type) {
+            case "jdk" -> random::nextGaussian;
+            case "block" -> new BlockNormalSource(new ZigguratNormalSource(random), BlockNormalSource.DEFAULT_BLOCK_SIZE);
+            case "ziggurat" -> new ZigguratNormalSource(random);
+            default -> throw new IllegalArgumentException("Unknown normal source " + type + ", expected ziggurat, block or jdk");
+        };
+    }
+}
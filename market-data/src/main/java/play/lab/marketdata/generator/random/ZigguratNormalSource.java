@@ -0,0 +1,84 @@
+package play.lab.marketdata.generator.random;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Marsaglia and Tsang's 128 layer ziggurat. About 98% of draws cost one random int, a table lookup and a
+ * multiply; only the rare draws falling outside a layer's rectangle need {@code exp} or {@code log}.
+ */
+public final class ZigguratNormalSource implements NormalSource {
+    private static final int LAYERS = 128;
+    private static final double R = 3.442619855899;
+    private static final double INV_R = 1.0 / R;
+    private static final double AREA = 9.91256303526217e-3;
+    private static final double M1 = 2147483648.0;
+
+    private static final long[] KN = new long[LAYERS];
+    private static final double[] WN = new double[LAYERS];
+    private static final double[] FN = new double[LAYERS];
+
+    static {
+        double dn = R;
+        double tn = dn;
+        final double q = AREA / Math.exp(-0.5 * dn * dn);
+        KN[0] = (long) ((dn / q) * M1);
+        KN[1] = 0;
+        WN[0] = q / M1;
+        WN[LAYERS - 1] = dn / M1;
+        FN[0] = 1.0;
+        FN[LAYERS - 1] = Math.exp(-0.5 * dn * dn);
+        for (int i = LAYERS - 2; i >= 1; i--) {
+            dn = Math.sqrt(-2.0 * Math.log(AREA / dn + Math.exp(-0.5 * dn * dn)));
+            KN[i + 1] = (long) ((dn / tn) * M1);
+            tn = dn;
+            FN[i] = Math.exp(-0.5 * dn * dn);
+            WN[i] = dn / M1;
+        }
+    }
+
+    private final RandomGenerator random;
+
+    public ZigguratNormalSource(final RandomGenerator random) {
+        this.random = random;
+    }
+
+    @Override
+    public double nextNormal() {
+        final int hz = random.nextInt();
+        final int iz = hz & (LAYERS - 1);
+        if (Math.abs((long) hz) < KN[iz]) {
+            return hz * WN[iz];
+        }
+        return nextNormalSlow(hz, iz);
+    }
+
+    private double nextNormalSlow(int hz, int iz) {
+        while (true) {
+            final double x = hz * WN[iz];
+            if (0 == iz) {
+                // base layer, sample the tail beyond R
+                double tailX;
+                double tailY;
+                do {
+                    tailX = -Math.log(uniform()) * INV_R;
+                    tailY = -Math.log(uniform());
+                } while (tailY + tailY < tailX * tailX);
+                return hz > 0 ? R + tailX : -R - tailX;
+            }
+            if (FN[iz] + uniform() * (FN[iz - 1] - FN[iz]) < Math.exp(-0.5 * x * x)) {
+                return x;
+            }
+
+            hz = random.nextInt();
+            iz = hz & (LAYERS - 1);
+            if (Math.abs((long) hz) < KN[iz]) {
+                return hz * WN[iz];
+            }
+        }
+    }
+
+    // in (0, 1] so that log never sees zero
+    private double uniform() {
+        return 1.0 - random.nextDouble();
+    }
+}
@@ -2,8 +2,8 @@ package play.lab.marketdata.model;
 
 public class RawPriceConfig {
     private final String ccy;
-    private double volatility;
-    private double spread;
+    private final double volatility;
+    private final double spread;
 
     public RawPriceConfig(String symbol, double vol, double spr) {
         this.ccy = symbol;
@@ -19,15 +19,7 @@ public class RawPriceConfig {
         return volatility;
     }
 
-    public void setVolatility(double volatility) {
-        this.volatility = volatility;
-    }
-
     public double getSpread() {
         return spread;
     }
-
-    public void setSpread(double spread) {
-        this.spread = spread;
-    }
 }
@@ -0,0 +1,101 @@
+package play.lab.marketdata.feed;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AsciiDecimalTest {
+    @Test
+    public void decimalsParseToTheNearestDouble() {
+        assertEquals(1.0825, parseDouble("1.0825"), 0.0);
+        assertEquals(-1.0825, parseDouble("-1.0825"), 0.0);
+        assertEquals(1.5, parseDouble("+1.5"), 0.0);
+        assertEquals(154.123, parseDouble("154.123"), 0.0);
+        assertEquals(1_000_000.0, parseDouble("1000000"), 0.0);
+        assertEquals(0.0, parseDouble("0"), 0.0);
+        assertEquals(2.0, parseDouble("2."), 0.0);
+        assertEquals(0.5, parseDouble(".5"), 0.0);
+    }
+
+    @Test
+    public void leadingZerosAreNotSignificant() {
+        assertEquals(0.000123, parseDouble("0.000123"), 0.0);
+        assertEquals(0.00912, parseDouble("0.00912"), 0.0);
+        assertEquals(154.25, parseDouble("000154.25"), 0.0);
+        assertEquals(1.23456789012345e-10, parseDouble("0.000000000123456789012345"), 0.0);
+    }
+
+    @Test
+    public void exponentsScaleTheMantissa() {
+        assertEquals(0.0015, parseDouble("1.5e-3"), 0.0);
+        assertEquals(200.0, parseDouble("2E2"), 0.0);
+        assertEquals(1.0825, parseDouble("10825e-4"), 0.0);
+        assertEquals(1.0825, parseDouble("1.0825e+0"), 0.0);
+        assertEquals(-3.0e22, parseDouble("-3e22"), 0.0);
+        // past the exact powers of ten the scale is computed, to within an ulp or so
+        assertEquals(-3.0e25, parseDouble("-3e25"), 3.0e25 * 1e-15);
+    }
+
+    @Test
+    public void fifteenSignificantDigitsAreExact() {
+        assertEquals(1.23456789012345, parseDouble("1.23456789012345"), 0.0);
+        assertEquals(999999999999999.0, parseDouble("999999999999999"), 0.0);
+        assertEquals(0.999999999999999, parseDouble("0.999999999999999"), 0.0);
+    }
+
+    @Test
+    public void digitsPastTheFifteenthAreDropped() {
+        assertEquals(1.23456789012345, parseDouble("1.2345678901234567"), 0.0);
+        // integer digits past the fifteenth still count towards the magnitude
+        assertEquals(1.23456789012345e18, parseDouble("1234567890123456789"), 0.0);
+    }
+
+    @Test
+    public void nonDecimalsAreNaN() {
+        assertTrue(Double.isNaN(parseDouble("")));
+        assertTrue(Double.isNaN(parseDouble("-")));
+        assertTrue(Double.isNaN(parseDouble(".")));
+        assertTrue(Double.isNaN(parseDouble("1.2.3")));
+        assertTrue(Double.isNaN(parseDouble("abc")));
+        assertTrue(Double.isNaN(parseDouble("1.2x")));
+        assertTrue(Double.isNaN(parseDouble("e5")));
+        assertTrue(Double.isNaN(parseDouble("1e")));
+        assertTrue(Double.isNaN(parseDouble("1e-")));
+        assertTrue(Double.isNaN(parseDouble("1.0825\r")));
+    }
+
+    @Test
+    public void integersParseWithAnOptionalSign() {
+        assertEquals(1_700_000_000_123_456_789L, parseLong("1700000000123456789"));
+        assertEquals(-5L, parseLong("-5"));
+        assertEquals(7L, parseLong("+7"));
+        assertEquals(0L, parseLong("000"));
+        assertEquals(Long.MIN_VALUE, parseLong(""));
+        assertEquals(Long.MIN_VALUE, parseLong("+"));
+        assertEquals(Long.MIN_VALUE, parseLong("12a"));
+        assertEquals(Long.MIN_VALUE, parseLong("1.5"));
+    }
+
+    @Test
+    public void onlyTheGivenRangeIsParsed() {
+        UnsafeBuffer buffer = buffer("x,1.0825,y");
+        assertEquals(1.0825, AsciiDecimal.parseDouble(buffer, 2, 8), 0.0);
+        assertEquals(82L, AsciiDecimal.parseLong(buffer, 5, 7));
+    }
+
+    private static double parseDouble(String text) {
+        return AsciiDecimal.parseDouble(buffer(text), 0, text.length());
+    }
+
+    private static long parseLong(String text) {
+        return AsciiDecimal.parseLong(buffer(text), 0, text.length());
+    }
+
+    static UnsafeBuffer buffer(String text) {
+        return new UnsafeBuffer(text.getBytes(StandardCharsets.US_ASCII));
+    }
+}
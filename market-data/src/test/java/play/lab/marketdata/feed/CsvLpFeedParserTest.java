@@ -0,0 +1,148 @@
+package play.lab.marketdata.feed;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+import pub.lab.trading.common.model.pricing.QuoteMessageWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CsvLpFeedParserTest {
+    private final CsvLpFeedParser parser = new CsvLpFeedParser();
+    private final LpQuote quote = new LpQuote();
+
+    @Test
+    public void aLineIsDecodedIntoTheQuote() {
+        String line = "1700000000000000001,EUR/USD,1.0825,1.0827,1000000\n";
+        assertEquals(line.length(), parse(line, false));
+        assertFalse(quote.malformed);
+        assertEquals(1_700_000_000_000_000_001L, quote.timestampNanos);
+        assertEquals("EURUSD", LpQuote.symbol(quote.symbolKey));
+        assertEquals(1, quote.rungCount);
+        assertEquals(1.0825, quote.bids[0], 0.0);
+        assertEquals(1.0827, quote.asks[0], 0.0);
+        assertEquals(1_000_000.0, quote.volumes[0], 0.0);
+    }
+
+    @Test
+    public void everyRungIsDecoded() {
+        String line = "1,USDJPY,150.123,150.125,1e6,150.12,150.13,5e6,150.1,150.15,1.0e7\n";
+        assertEquals(line.length(), parse(line, false));
+        assertEquals(3, quote.rungCount);
+        assertEquals(150.12, quote.bids[1], 0.0);
+        assertEquals(150.15, quote.asks[2], 0.0);
+        assertEquals(5_000_000.0, quote.volumes[1], 0.0);
+        assertEquals(10_000_000.0, quote.volumes[2], 0.0);
+    }
+
+    @Test
+    public void crlfLineEndingsAreAccepted() {
+        String line = "2,GBPUSD,1.27001,1.27003,2000000\r\n";
+        assertEquals(line.length(), parse(line, false));
+        assertFalse(quote.malformed);
+        assertEquals(1, quote.rungCount);
+        assertEquals(2_000_000.0, quote.volumes[0], 0.0);
+    }
+
+    @Test
+    public void exponentsAndLeadingZerosAfterThePointAreDecoded() {
+        String line = "3,USDSEK,1.05e1,10.51,0.00912e8\n";
+        assertEquals(line.length(), parse(line, false));
+        assertFalse(quote.malformed);
+        assertEquals(10.5, quote.bids[0], 0.0);
+        assertEquals(912_000.0, quote.volumes[0], 0.0);
+
+        parse("4,EURNOK,0.000123,0.000125,1\n", false);
+        assertEquals(0.000123, quote.bids[0], 0.0);
+    }
+
+    @Test
+    public void headerCommentAndBlankLinesAreSkipped() {
+        for (String line : new String[]{"timestamp,symbol,bid,ask,volume\n", "# LP dump\r\n", "\n", "\r\n"}) {
+            assertEquals(line, line.length(), parse(line, false));
+            assertEquals(line, 0, quote.rungCount);
+            assertFalse(line, quote.malformed);
+        }
+    }
+
+    @Test
+    public void linesAreConsumedOneAtATime() {
+        String text = "symbol,bid\r\n5,EURUSD,1.1,1.2,1\r\n# comment\n6,AUDUSD,0.65,0.66,2\n";
+        UnsafeBuffer buffer = AsciiDecimalTest.buffer(text);
+        int offset = 0;
+        int quotes = 0;
+        double lastBid = 0;
+        while (offset < text.length()) {
+            int consumed = parser.parse(buffer, offset, text.length(), true, quote);
+            assertTrue(consumed > 0);
+            offset += consumed;
+            if (quote.rungCount > 0) {
+                quotes++;
+                lastBid = quote.bids[0];
+            }
+        }
+        assertEquals(text.length(), offset);
+        assertEquals(2, quotes);
+        assertEquals(0.65, lastBid, 0.0);
+    }
+
+    @Test
+    public void aTruncatedLastLineWaitsForMoreInputUnlessTheFileHasEnded() {
+        String line = "7,EURUSD,1.1,1.2,1000";
+        assertEquals(0, parse(line, false));
+        assertEquals(line.length(), parse(line, true));
+        assertFalse(quote.malformed);
+        assertEquals(1_000.0, quote.volumes[0], 0.0);
+
+        assertEquals(0, parse("", true));
+    }
+
+    @Test
+    public void aTruncatedRungIsMalformed() {
+        String line = "8,EURUSD,1.1,1.2";
+        assertEquals(line.length(), parse(line, true));
+        assertTrue(quote.malformed);
+    }
+
+    @Test
+    public void undecodableLinesAreMalformedButConsumed() {
+        String[] lines = {
+                "9,EURUSD,1.1,x,1000\n",
+                "9,EURUSD,1.1,,1000\n",
+                "9,EURUSD\n",
+                "9\n",
+                "9x,EURUSD,1.1,1.2,1000\n",
+                "9,,1.1,1.2,1000\n",
+                "9,EURUSDXYZ,1.1,1.2,1000\n",
+        };
+        for (String line : lines) {
+            assertEquals(line, line.length(), parse(line, false));
+            assertTrue(line, quote.malformed);
+        }
+    }
+
+    @Test
+    public void moreRungsThanAQuoteCarriesIsMalformed() {
+        StringBuilder line = new StringBuilder("10,EURUSD");
+        for (int rung = 0; rung <= QuoteMessageWriter.MAX_LEVELS; rung++) {
+            line.append(",1.1,1.2,1000");
+        }
+        line.append('\n');
+        assertEquals(line.length(), parse(line.toString(), false));
+        assertTrue(quote.malformed);
+    }
+
+    @Test
+    public void aMalformedQuoteIsResetByTheNextLine() {
+        parse("11,EURUSD,1.1,x,1000\n", false);
+        assertTrue(quote.malformed);
+        parse("12,EURUSD,1.1,1.2,1000\n", false);
+        assertFalse(quote.malformed);
+        assertEquals(1, quote.rungCount);
+    }
+
+    private int parse(String text, boolean endOfInput) {
+        return parser.parse(AsciiDecimalTest.buffer(text), 0, text.length(), endOfInput, quote);
+    }
+}
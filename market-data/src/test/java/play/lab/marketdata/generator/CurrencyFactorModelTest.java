@@ -0,0 +1,119 @@
+package play.lab.marketdata.generator;
+
+import org.junit.Test;
+import play.lab.marketdata.generator.random.NormalSource;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class CurrencyFactorModelTest {
+    private static final double DT = 1.0 / (252 * 24 * 3600);
+
+    @Test
+    public void theCholeskyFactorRebuildsTheCorrelationMatrix() {
+        int n = CurrencyFactorModel.G10.length;
+        double[] correlation = CurrencyFactorModel.correlation(CurrencyFactorModel.G10_FACTOR_LOADINGS);
+        double[] l = CurrencyFactorModel.cholesky(correlation, n);
+
+        for (int i = 0; i < n; i++) {
+            assertEquals(1.0, correlation[i * n + i], 0.0);
+            for (int j = 0; j < n; j++) {
+                assertEquals(correlation[i * n + j], correlation[j * n + i], 0.0);
+                if (j > i) {
+                    assertEquals("upper triangle at " + i + "," + j, 0.0, l[i * n + j], 0.0);
+                }
+                double llt = 0.0;
+                for (int k = 0; k < n; k++) {
+                    llt += l[i * n + k] * l[j * n + k];
+                }
+                assertEquals("L.Lt at " + i + "," + j, correlation[i * n + j], llt, 1e-12);
+            }
+        }
+    }
+
+    @Test
+    public void aMatrixThatIsNotPositiveDefiniteIsRejected() {
+        double[] correlation = {
+                1.0, 0.9, -0.9,
+                0.9, 1.0, 0.9,
+                -0.9, 0.9, 1.0
+        };
+        assertThrows(IllegalArgumentException.class, () -> CurrencyFactorModel.cholesky(correlation, 3));
+    }
+
+    @Test
+    public void aCrossIsPricedFromItsLegs() {
+        CurrencyFactorModel model = new CurrencyFactorModel(jdkNormals(7));
+        int usd = model.currencyId("USD");
+        int eur = model.currencyId("EUR");
+        int jpy = model.currencyId("JPY");
+        int gbp = model.currencyId("GBP");
+        for (String currency : CurrencyFactorModel.G10) {
+            model.volatility(model.currencyId(currency), 0.10);
+        }
+
+        assertTrue(model.anchor(eur, usd, 1.08));
+        assertTrue(model.anchor(usd, jpy, 150.0));
+        assertTrue(model.anchor(gbp, usd, 1.27));
+        // both legs are known, so the quoted cross is ignored
+        assertFalse(model.anchor(eur, jpy, 200.0));
+        assertEquals(1.08, model.price(eur, usd), 1e-12);
+        assertEquals(150.0, model.price(usd, jpy), 1e-9);
+        assertEquals(1.08 * 150.0, model.price(eur, jpy), 1e-9);
+        assertEquals(1.08 / 1.27, model.price(eur, gbp), 1e-12);
+
+        for (int i = 0; i < 10_000; i++) {
+            model.step(DT);
+            double eurJpy = model.price(eur, jpy);
+            assertEquals(eurJpy, model.price(eur, usd) * model.price(usd, jpy), eurJpy * 1e-12);
+            double eurGbp = model.price(eur, gbp);
+            assertEquals(eurGbp, model.price(eur, usd) / model.price(gbp, usd), eurGbp * 1e-12);
+        }
+        assertTrue("the legs moved", Math.abs(model.price(eur, usd) - 1.08) > 1e-9);
+    }
+
+    @Test
+    public void anUnknownCurrencyHasNoId() {
+        CurrencyFactorModel model = new CurrencyFactorModel(jdkNormals(1));
+        assertEquals(CurrencyFactorModel.MISSING_CURRENCY, model.currencyId("XAU"));
+    }
+
+    @Test
+    public void stepsAreCorrelatedAsConfigured() {
+        double[] correlation = {
+                1.0, 0.6,
+                0.6, 1.0
+        };
+        CurrencyFactorModel model = new CurrencyFactorModel(new String[]{"AAA", "BBB"}, correlation, jdkNormals(42));
+        model.volatility(0, 0.2);
+        model.volatility(1, 0.2);
+        model.anchor(0, 1, 1.0);
+
+        // only the pair is observable, its log return variance is 2 sigma^2 dt (1 - rho) for equal volatilities
+        int steps = 50_000;
+        double dt = 1.0 / 252;
+        double sum = 0.0;
+        double sumSquares = 0.0;
+        double previous = Math.log(model.price(0, 1));
+        for (int i = 0; i < steps; i++) {
+            model.step(dt);
+            double current = Math.log(model.price(0, 1));
+            double r = current - previous;
+            sum += r;
+            sumSquares += r * r;
+            previous = current;
+        }
+        double mean = sum / steps;
+        double variance = sumSquares / steps - mean * mean;
+        double impliedRho = 1.0 - variance / (2 * 0.2 * 0.2 * dt);
+        assertEquals(0.6, impliedRho, 0.03);
+    }
+
+    private static NormalSource jdkNormals(long seed) {
+        return NormalSource.create("jdk", new SplittableRandom(seed));
+    }
+}
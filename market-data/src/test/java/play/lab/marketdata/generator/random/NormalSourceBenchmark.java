@@ -0,0 +1,101 @@
+package play.lab.marketdata.generator.random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one GBM tick: the old path drawing from {@link ThreadLocalRandom#nextGaussian()} and recomputing the
+ * drift and {@code sqrt(dt)} per tick, against each {@link NormalSource} with the terms precomputed.
+ * <p>
+ * Run with {@code mvn -pl market-data test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=play.lab.marketdata.generator.random.NormalSourceBenchmark} or from the IDE.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NormalSourceBenchmark {
+    private static final long SEED = 42L;
+    private static final double VOLATILITY = 0.08;
+    private static final double DT = 1.0 / (252 * 24 * 3600 * 1000.0);
+
+    private NormalSource ziggurat;
+    private NormalSource block;
+    private NormalSource jdk;
+    private double drift;
+    private double diffusion;
+    private double price;
+
+    @Setup
+    public void setUp() {
+        ziggurat = new ZigguratNormalSource(new SplittableRandom(SEED));
+        block = new BlockNormalSource(new ZigguratNormalSource(new SplittableRandom(SEED)), BlockNormalSource.DEFAULT_BLOCK_SIZE);
+        jdk = NormalSource.create("jdk", new SplittableRandom(SEED));
+        drift = -0.5 * VOLATILITY * VOLATILITY * DT;
+        diffusion = VOLATILITY * Math.sqrt(DT);
+        price = 1.1;
+    }
+
+    @Benchmark
+    public double threadLocalGaussian() {
+        return ThreadLocalRandom.current().nextGaussian();
+    }
+
+    @Benchmark
+    public double jdkGaussian() {
+        return jdk.nextNormal();
+    }
+
+    @Benchmark
+    public double zigguratGaussian() {
+        return ziggurat.nextNormal();
+    }
+
+    @Benchmark
+    public double blockGaussian() {
+        return block.nextNormal();
+    }
+
+    @Benchmark
+    public double baselineStep() {
+        double z = ThreadLocalRandom.current().nextGaussian();
+        price *= Math.exp(-0.5 * VOLATILITY * VOLATILITY * DT + VOLATILITY * Math.sqrt(DT) * z);
+        return price;
+    }
+
+    @Benchmark
+    public double precomputedZigguratStep() {
+        price *= Math.exp(drift + diffusion * ziggurat.nextNormal());
+        return price;
+    }
+
+    @Benchmark
+    public double precomputedBlockStep() {
+        price *= Math.exp(drift + diffusion * block.nextNormal());
+        return price;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NormalSourceBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
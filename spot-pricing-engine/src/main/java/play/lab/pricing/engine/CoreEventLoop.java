@@ -3,6 +3,7 @@ package play.lab.pricing.engine;
 import io.aeron.Aeron;
 import org.agrona.concurrent.AgentRunner;
 import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.SleepingMillisIdleStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.lab.pricing.engine.feed.SpotPricerPipe;
@@ -12,34 +13,82 @@ import pub.lab.trading.common.config.caches.ConfigAgent;
 import pub.lab.trading.common.lifecycle.HeartBeatAgent;
 import pub.lab.trading.common.lifecycle.MultiStreamPoller;
 import pub.lab.trading.common.lifecycle.Worker;
+import pub.lab.trading.common.logging.BinaryLogAgent;
+import pub.lab.trading.common.logging.BinaryLogger;
+
+import java.util.function.Supplier;
 
 public class CoreEventLoop {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CoreEventLoop.class);
+    // pricing shards run by this process, each on its own thread, of the shard count set by config-service
+    private static final String LOCAL_SHARDS_PROPERTY = "pricing.shards.local";
+    // first shard id run by this process, processes splitting the shards between them each take a distinct range
+    private static final String FIRST_SHARD_PROPERTY = "pricing.shard.first";
 
     private final AgentRunner agentRunner;
+    // pricing agents for this process's shards after the first, which runs on agentRunner with the config agent
+    private final AgentRunner[] shardRunners;
+    // drains the pricing audit log to disk, null when binary logging is disabled
+    private final AgentRunner binaryLogRunner;
     private final Aeron aeron;
 
-    public CoreEventLoop(final IdleStrategy idleStrategy, final long heartbeatIntervalMs) {
+    public CoreEventLoop(final Supplier<IdleStrategy> idleStrategySupplier, final long heartbeatIntervalMs) {
+        final int localShards = Integer.getInteger(LOCAL_SHARDS_PROPERTY, 1);
+        final int firstShard = Integer.getInteger(FIRST_SHARD_PROPERTY, 0);
+        if (localShards < 1 || firstShard < 0) {
+            throw new IllegalArgumentException("Invalid pricing shards " + LOCAL_SHARDS_PROPERTY + "=" + localShards
+                    + " " + FIRST_SHARD_PROPERTY + "=" + firstShard);
+        }
         this.aeron = Aeron.connect(new Aeron.Context().aeronDirectoryName(AeronConfigs.AERON_LIVE_DIR));
         ConfigAgent configAgent = new ConfigAgent(aeron);
-        agentRunner = new AgentRunner(idleStrategy, Throwable::printStackTrace, null, new MultiStreamPoller(
+        BinaryLogger binaryLogger = BinaryLogger.fromSystemProperties();
+        binaryLogRunner = binaryLogger.isEnabled() ?
+                new AgentRunner(new SleepingMillisIdleStrategy(1), Throwable::printStackTrace, null,
+                        BinaryLogAgent.fromSystemProperties(binaryLogger, "pricing-engine")) :
+                null;
+        agentRunner = new AgentRunner(idleStrategySupplier.get(), Throwable::printStackTrace, null, new MultiStreamPoller(
                 "pricing-engine-poller",
                 new Worker[]{
                         configAgent,
-                        new SpotPricerPipe(aeron, configAgent),
+                        new SpotPricerPipe(aeron, configAgent, binaryLogger, firstShard),
                         new HeartBeatAgent(AppId.PRICING_ENGINE, heartbeatIntervalMs, aeron)
                 }
         ));
+        // the config caches are safe to read from any thread and the binary logger takes many producers
+        shardRunners = new AgentRunner[localShards - 1];
+        for (int i = 0; i < shardRunners.length; i++) {
+            final int shardId = firstShard + 1 + i;
+            shardRunners[i] = new AgentRunner(idleStrategySupplier.get(), Throwable::printStackTrace, null,
+                    new MultiStreamPoller(
+                            "pricing-engine-poller-" + shardId,
+                            new Worker[]{
+                                    new SpotPricerPipe(aeron, configAgent, binaryLogger, shardId)
+                            }
+                    ));
+        }
     }
 
     void start() {
+        if (null != binaryLogRunner) {
+            AgentRunner.startOnThread(binaryLogRunner);
+        }
         AgentRunner.startOnThread(agentRunner);
         LOGGER.info("Started {}", agentRunner.agent());
+        for (AgentRunner shardRunner : shardRunners) {
+            AgentRunner.startOnThread(shardRunner);
+            LOGGER.info("Started {}", shardRunner.agent());
+        }
     }
 
     void stop() {
+        for (AgentRunner shardRunner : shardRunners) {
+            shardRunner.close();
+        }
         agentRunner.close();
+        if (null != binaryLogRunner) {
+            binaryLogRunner.close();
+        }
         aeron.close();
     }
 }
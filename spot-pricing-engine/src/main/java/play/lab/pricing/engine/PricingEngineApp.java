@@ -4,6 +4,6 @@ import org.agrona.concurrent.BackoffIdleStrategy;
 
 public class PricingEngineApp {
     public static void main(String[] args) {
-        new CoreEventLoop(new BackoffIdleStrategy(), 1_000).start();
+        new CoreEventLoop(BackoffIdleStrategy::new, 1_000).start();
     }
 }
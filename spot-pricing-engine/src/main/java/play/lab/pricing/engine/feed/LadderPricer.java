@@ -0,0 +1,104 @@
+package play.lab.pricing.engine.feed;
+
+import pub.lab.trading.common.config.caches.TierPricingTable;
+import pub.lab.trading.common.model.ClientTierLevel;
+import pub.lab.trading.common.model.pricing.QuoteMessageWriter;
+
+/**
+ * Prices one source ladder for every client tier. Rungs are decoded once into primitive arrays, with the mid and
+ * volume factor computed as each rung is added, then {@link #price(TierPricingTable, double)} fills a flat tier by
+ * rung table of bids and asks. The inner loop is plain array arithmetic with no calls or branches, which C2 unrolls and
+ * vectorises on its own.
+ */
+final class LadderPricer {
+    static final ClientTierLevel[] TIERS = ClientTierLevel.values();
+    static final int MAX_RUNGS = QuoteMessageWriter.MAX_LEVELS;
+
+    private final double[] rungVolumes = new double[MAX_RUNGS];
+    private final double[] mids = new double[MAX_RUNGS];
+    private final double[] skewedMids = new double[MAX_RUNGS];
+    private final double[] volumeFactors = new double[MAX_RUNGS];
+    private final boolean[] tierEnabled = new boolean[TIERS.length];
+    // indexed by tier ordinal * MAX_RUNGS + rung
+    private final double[] bids = new double[TIERS.length * MAX_RUNGS];
+    private final double[] asks = new double[TIERS.length * MAX_RUNGS];
+    private int rungCount;
+
+    void clear() {
+        rungCount = 0;
+    }
+
+    /**
+     * Adds the next rung of the source ladder, rungs beyond {@link #MAX_RUNGS} are ignored.
+     */
+    void addRung(double bid, double ask, double volume) {
+        if (rungCount < MAX_RUNGS) {
+            rungVolumes[rungCount] = volume;
+            mids[rungCount] = (bid + ask) / 2.0;
+            volumeFactors[rungCount] = TierPricingTable.volumeFactor(volume);
+            rungCount++;
+        }
+    }
+
+    /**
+     * @param skewBps shift of every mid in basis points, from the symbol's external signal
+     */
+    void price(TierPricingTable pricingTable, double skewBps) {
+        final int rungCount = this.rungCount;
+        final double skewFactor = 1.0 + skewBps * 1e-4;
+        for (int rung = 0; rung < rungCount; rung++) {
+            skewedMids[rung] = mids[rung] * skewFactor;
+        }
+        for (int tier = 0; tier < TIERS.length; tier++) {
+            final int tierId = TIERS[tier].getId();
+            tierEnabled[tier] = pricingTable.isEnabled(tierId);
+            if (!tierEnabled[tier]) {
+                continue;
+            }
+            final double baseOffset = pricingTable.baseOffset(tierId);
+            final double slope = pricingTable.volumeFactorSlope(tierId);
+            final int base = tier * MAX_RUNGS;
+            for (int rung = 0; rung < rungCount; rung++) {
+                final double offset = baseOffset + slope * volumeFactors[rung];
+                bids[base + rung] = skewedMids[rung] - offset;
+                asks[base + rung] = skewedMids[rung] + offset;
+            }
+        }
+    }
+
+    int rungCount() {
+        return rungCount;
+    }
+
+    /**
+     * @return the volume of the source rung
+     */
+    double volume(int rung) {
+        return rungVolumes[rung];
+    }
+
+    /**
+     * Copies the tier's priced ladder, with the source volumes, into the given arrays.
+     *
+     * @return the number of rungs copied
+     */
+    int copyTier(int tier, double[] tierBids, double[] tierAsks, double[] tierVolumes) {
+        final int base = tier * MAX_RUNGS;
+        System.arraycopy(bids, base, tierBids, 0, rungCount);
+        System.arraycopy(asks, base, tierAsks, 0, rungCount);
+        System.arraycopy(rungVolumes, 0, tierVolumes, 0, rungCount);
+        return rungCount;
+    }
+
+    boolean isPriced(int tier) {
+        return tierEnabled[tier];
+    }
+
+    double bid(int tier, int rung) {
+        return bids[tier * MAX_RUNGS + rung];
+    }
+
+    double ask(int tier, int rung) {
+        return asks[tier * MAX_RUNGS + rung];
+    }
+}
@@ -0,0 +1,78 @@
+package play.lab.pricing.engine.feed;
+
+import pub.lab.trading.common.model.pricing.QuoteMessageWriter;
+
+import java.util.Arrays;
+
+/**
+ * Protects one tier against latency arbitrage by smoothing the prices it is quoted. Each rung of each symbol keeps
+ * a time weighted EWMA of its bid and ask, with weight {@code dt / (horizon + dt)} for a new price {@code dt} ms
+ * after the last, and the tier is quoted the wider of the raw and smoothed price on each side. A jump therefore
+ * widens the quote on the side it moves away from and the quote closes in again over the tier's
+ * {@code latencyProtectionMs}, so a client with a faster feed cannot hit a price that has already moved.
+ * The quote is never tighter than the raw price. Callers give each symbol a dense slot, typically its symbol id.
+ * <p>
+ * Not thread safe, owned by the pricing agent.
+ */
+final class LatencyProtection {
+    private static final int LEVELS = QuoteMessageWriter.MAX_LEVELS;
+
+    private long[] lastUpdateMs;
+    private int[] rungCounts;
+    private double[] smoothedBids;
+    private double[] smoothedAsks;
+
+    LatencyProtection(int initialSlots) {
+        this.lastUpdateMs = new long[initialSlots];
+        this.rungCounts = new int[initialSlots];
+        this.smoothedBids = new double[initialSlots * LEVELS];
+        this.smoothedAsks = new double[initialSlots * LEVELS];
+    }
+
+    /**
+     * Forgets the slot's smoothed prices, its next ladder restarts them.
+     */
+    void reset(int slot) {
+        if (slot < lastUpdateMs.length) {
+            lastUpdateMs[slot] = 0;
+        }
+    }
+
+    /**
+     * Folds the priced ladder into the slot's smoothed prices and widens the ladder in place to them. With no
+     * horizon, or when the ladder depth changes, the smoothed prices restart from the ladder as is.
+     */
+    void protect(int slot, long nowMs, long horizonMs, double[] bids, double[] asks, int rungCount) {
+        ensureCapacity(slot + 1);
+        final int base = slot * LEVELS;
+        if (horizonMs <= 0 || 0 == lastUpdateMs[slot] || rungCounts[slot] != rungCount) {
+            System.arraycopy(bids, 0, smoothedBids, base, rungCount);
+            System.arraycopy(asks, 0, smoothedAsks, base, rungCount);
+            rungCounts[slot] = rungCount;
+            lastUpdateMs[slot] = nowMs;
+            return;
+        }
+
+        final long dt = Math.max(0, nowMs - lastUpdateMs[slot]);
+        lastUpdateMs[slot] = nowMs;
+        final double alpha = (double) dt / (horizonMs + dt);
+        for (int rung = 0; rung < rungCount; rung++) {
+            final double smoothedBid = smoothedBids[base + rung] + alpha * (bids[rung] - smoothedBids[base + rung]);
+            final double smoothedAsk = smoothedAsks[base + rung] + alpha * (asks[rung] - smoothedAsks[base + rung]);
+            smoothedBids[base + rung] = smoothedBid;
+            smoothedAsks[base + rung] = smoothedAsk;
+            bids[rung] = Math.min(bids[rung], smoothedBid);
+            asks[rung] = Math.max(asks[rung], smoothedAsk);
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > lastUpdateMs.length) {
+            final int newCapacity = Math.max(required, lastUpdateMs.length << 1);
+            lastUpdateMs = Arrays.copyOf(lastUpdateMs, newCapacity);
+            rungCounts = Arrays.copyOf(rungCounts, newCapacity);
+            smoothedBids = Arrays.copyOf(smoothedBids, newCapacity * LEVELS);
+            smoothedAsks = Arrays.copyOf(smoothedAsks, newCapacity * LEVELS);
+        }
+    }
+}
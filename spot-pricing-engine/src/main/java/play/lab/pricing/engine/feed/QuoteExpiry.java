@@ -0,0 +1,169 @@
+package play.lab.pricing.engine.feed;
+
+import org.agrona.DeadlineTimerWheel;
+import org.agrona.collections.Long2LongHashMap;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires one tier's quotes for a symbol once no new quote has been sent for the tier's {@code quoteExpiryMs}. Each
+ * live symbol has a single timer in a {@link DeadlineTimerWheel}; a quote only records its time, and a timer that
+ * fires before the latest quote's expiry is rescheduled to it, so a duty cycle costs O(expiring) rather than
+ * O(live) and quoting does not touch the wheel. Callers give each symbol a dense slot, typically its symbol id.
+ * <p>
+ * Not thread safe, owned by the pricing agent.
+ */
+final class QuoteExpiry implements DeadlineTimerWheel.TimerHandler {
+    private static final long NO_TIMER = -1;
+    private static final int TICK_RESOLUTION_MS = 1;
+    private static final int TICKS_PER_WHEEL = 1024;
+    private static final int EXPIRY_LIMIT = 64;
+
+    /**
+     * Receives the last top of book sent for a symbol whose quote has expired.
+     */
+    @FunctionalInterface
+    interface ExpiryHandler {
+        void onExpiry(CharSequence symbol, int symbolId, long valueDate, long tenor, long clientTier, double bid,
+                      double ask, long nowMs);
+    }
+
+    private final DeadlineTimerWheel timerWheel;
+    private final Long2LongHashMap slotByTimerId = new Long2LongHashMap(NO_TIMER);
+    private final ExpiryHandler expiryHandler;
+
+    private long[] expiriesMs;
+    private long[] lastQuoteMs;
+    private long[] timerIds;
+    private CharSequence[] symbols;
+    private int[] symbolIds;
+    private long[] valueDates;
+    private long[] tenors;
+    private long[] clientTiers;
+    private double[] bids;
+    private double[] asks;
+    private long expiredCount;
+
+    QuoteExpiry(int initialSlots, long nowMs, ExpiryHandler expiryHandler) {
+        this.timerWheel = new DeadlineTimerWheel(TimeUnit.MILLISECONDS, nowMs, TICK_RESOLUTION_MS, TICKS_PER_WHEEL);
+        this.expiryHandler = expiryHandler;
+        this.expiriesMs = new long[initialSlots];
+        this.lastQuoteMs = new long[initialSlots];
+        this.timerIds = new long[initialSlots];
+        Arrays.fill(timerIds, NO_TIMER);
+        this.symbols = new CharSequence[initialSlots];
+        this.symbolIds = new int[initialSlots];
+        this.valueDates = new long[initialSlots];
+        this.tenors = new long[initialSlots];
+        this.clientTiers = new long[initialSlots];
+        this.bids = new double[initialSlots];
+        this.asks = new double[initialSlots];
+    }
+
+    /**
+     * Records a quote sent for the slot, which then expires {@code expiryMs} from now unless another is sent. An
+     * {@code expiryMs} of zero means the quote never expires. The symbol is held by reference so it must not be
+     * mutated while the quote is live.
+     */
+    void onQuote(int slot, long nowMs, long expiryMs, CharSequence symbol, int symbolId, long valueDate, long tenor,
+                 long clientTier, double bid, double ask) {
+        ensureCapacity(slot + 1);
+        expiriesMs[slot] = expiryMs;
+        lastQuoteMs[slot] = nowMs;
+        symbols[slot] = symbol;
+        symbolIds[slot] = symbolId;
+        valueDates[slot] = valueDate;
+        tenors[slot] = tenor;
+        clientTiers[slot] = clientTier;
+        bids[slot] = bid;
+        asks[slot] = ask;
+        if (expiryMs > 0 && NO_TIMER == timerIds[slot]) {
+            if (0 == timerWheel.timerCount()) {
+                // the wheel only steps a tick per poll, bring an idle wheel to now so the timer is not polled late
+                timerWheel.resetStartTime(nowMs);
+            }
+            schedule(slot, nowMs + expiryMs);
+        }
+    }
+
+    /**
+     * Expires the quotes whose expiry has passed.
+     *
+     * @return the number of timers that fired
+     */
+    int poll(long nowMs) {
+        return timerWheel.poll(nowMs, this, EXPIRY_LIMIT);
+    }
+
+    /**
+     * Stops tracking the slot's quote, it will not be expired.
+     */
+    void cancel(int slot) {
+        if (slot >= timerIds.length) {
+            return;
+        }
+        if (NO_TIMER != timerIds[slot]) {
+            timerWheel.cancelTimer(timerIds[slot]);
+            slotByTimerId.remove(timerIds[slot]);
+            timerIds[slot] = NO_TIMER;
+        }
+        symbols[slot] = null;
+    }
+
+    /**
+     * @return how many quotes have expired
+     */
+    long expiredCount() {
+        return expiredCount;
+    }
+
+    @Override
+    public boolean onTimerExpiry(TimeUnit timeUnit, long now, long timerId) {
+        final int slot = (int) slotByTimerId.remove(timerId);
+        if (NO_TIMER == slot) {
+            return true;
+        }
+        timerIds[slot] = NO_TIMER;
+        final long expiryMs = expiriesMs[slot];
+        if (expiryMs <= 0) {
+            // expiry was turned off for the tier after the timer was set
+            return true;
+        }
+        final long deadline = lastQuoteMs[slot] + expiryMs;
+        if (deadline > now) {
+            schedule(slot, deadline);
+            return true;
+        }
+        final CharSequence symbol = symbols[slot];
+        symbols[slot] = null;
+        expiredCount++;
+        expiryHandler.onExpiry(symbol, symbolIds[slot], valueDates[slot], tenors[slot], clientTiers[slot],
+                bids[slot], asks[slot], now);
+        return true;
+    }
+
+    private void schedule(int slot, long deadline) {
+        final long timerId = timerWheel.scheduleTimer(deadline);
+        timerIds[slot] = timerId;
+        slotByTimerId.put(timerId, slot);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > timerIds.length) {
+            final int oldCapacity = timerIds.length;
+            final int newCapacity = Math.max(required, oldCapacity << 1);
+            expiriesMs = Arrays.copyOf(expiriesMs, newCapacity);
+            lastQuoteMs = Arrays.copyOf(lastQuoteMs, newCapacity);
+            timerIds = Arrays.copyOf(timerIds, newCapacity);
+            Arrays.fill(timerIds, oldCapacity, newCapacity, NO_TIMER);
+            symbols = Arrays.copyOf(symbols, newCapacity);
+            symbolIds = Arrays.copyOf(symbolIds, newCapacity);
+            valueDates = Arrays.copyOf(valueDates, newCapacity);
+            tenors = Arrays.copyOf(tenors, newCapacity);
+            clientTiers = Arrays.copyOf(clientTiers, newCapacity);
+            bids = Arrays.copyOf(bids, newCapacity);
+            asks = Arrays.copyOf(asks, newCapacity);
+        }
+    }
+}
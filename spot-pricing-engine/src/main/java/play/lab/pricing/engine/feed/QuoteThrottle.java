@@ -0,0 +1,193 @@
+package play.lab.pricing.engine.feed;
+
+import org.agrona.DeadlineTimerWheel;
+import org.agrona.collections.Long2LongHashMap;
+import pub.lab.trading.common.model.pricing.QuoteMessageWriter;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how often one tier is sent quotes for a symbol. A quote arriving inside the throttle interval of the last
+ * quote sent for its symbol is held, a newer quote replacing the held one, and a timer releases the latest held
+ * quote when the interval is up. Timers live in a {@link DeadlineTimerWheel} so holding and releasing quotes does
+ * not allocate once the slot arrays have grown to the symbol universe. Callers give each symbol a dense slot,
+ * typically its symbol id.
+ * <p>
+ * Not thread safe, owned by the pricing agent.
+ */
+final class QuoteThrottle implements DeadlineTimerWheel.TimerHandler {
+    private static final int LEVELS = QuoteMessageWriter.MAX_LEVELS;
+    private static final long NO_TIMER = -1;
+    private static final int TICK_RESOLUTION_MS = 1;
+    private static final int TICKS_PER_WHEEL = 1024;
+    private static final int EXPIRY_LIMIT = 64;
+
+    /**
+     * Receives a released quote, its ladder having been copied into the arrays given to the throttle.
+     */
+    @FunctionalInterface
+    interface ReleaseHandler {
+        void onRelease(CharSequence symbol, int symbolId, long valueDate, long timestamp, long tenor, long clientTier,
+                       int rungCount);
+    }
+
+    private final DeadlineTimerWheel timerWheel;
+    private final Long2LongHashMap slotByTimerId = new Long2LongHashMap(NO_TIMER);
+    private final double[] releaseBids;
+    private final double[] releaseAsks;
+    private final double[] releaseVolumes;
+    private final ReleaseHandler releaseHandler;
+
+    private long[] intervalsMs;
+    private long[] nextReleaseMs;
+    private long[] timerIds;
+    private CharSequence[] symbols;
+    private int[] symbolIds;
+    private long[] valueDates;
+    private long[] timestamps;
+    private long[] tenors;
+    private long[] clientTiers;
+    private int[] rungCounts;
+    private double[] bids;
+    private double[] asks;
+    private double[] volumes;
+    private long throttledCount;
+
+    QuoteThrottle(int initialSlots, long nowMs, double[] releaseBids, double[] releaseAsks, double[] releaseVolumes,
+                  ReleaseHandler releaseHandler) {
+        this.timerWheel = new DeadlineTimerWheel(TimeUnit.MILLISECONDS, nowMs, TICK_RESOLUTION_MS, TICKS_PER_WHEEL);
+        this.releaseBids = releaseBids;
+        this.releaseAsks = releaseAsks;
+        this.releaseVolumes = releaseVolumes;
+        this.releaseHandler = releaseHandler;
+        this.intervalsMs = new long[initialSlots];
+        this.nextReleaseMs = new long[initialSlots];
+        this.timerIds = new long[initialSlots];
+        Arrays.fill(timerIds, NO_TIMER);
+        this.symbols = new CharSequence[initialSlots];
+        this.symbolIds = new int[initialSlots];
+        this.valueDates = new long[initialSlots];
+        this.timestamps = new long[initialSlots];
+        this.tenors = new long[initialSlots];
+        this.clientTiers = new long[initialSlots];
+        this.rungCounts = new int[initialSlots];
+        this.bids = new double[initialSlots * LEVELS];
+        this.asks = new double[initialSlots * LEVELS];
+        this.volumes = new double[initialSlots * LEVELS];
+    }
+
+    /**
+     * @return true if a quote for the slot may be sent now, false if it must be {@link #hold held}. Either way
+     * quotes for the slot go out at least {@code intervalMs} apart.
+     */
+    boolean tryAcquire(int slot, long nowMs, long intervalMs) {
+        ensureCapacity(slot + 1);
+        intervalsMs[slot] = intervalMs;
+        if (NO_TIMER != timerIds[slot] || nowMs < nextReleaseMs[slot]) {
+            return false;
+        }
+        nextReleaseMs[slot] = nowMs + intervalMs;
+        return true;
+    }
+
+    /**
+     * Holds the quote as the slot's latest, to be released when the slot's interval is up. The symbol is held by
+     * reference so it must not be mutated while held.
+     */
+    void hold(int slot, long nowMs, CharSequence symbol, int symbolId, long valueDate, long timestamp, long tenor, long clientTier,
+              double[] rungBids, double[] rungAsks, double[] rungVolumes, int rungCount) {
+        if (NO_TIMER == timerIds[slot]) {
+            if (0 == timerWheel.timerCount()) {
+                // the wheel only steps a tick per poll, bring an idle wheel to now so the timer is not polled late
+                timerWheel.resetStartTime(nowMs);
+            }
+            final long timerId = timerWheel.scheduleTimer(nextReleaseMs[slot]);
+            timerIds[slot] = timerId;
+            slotByTimerId.put(timerId, slot);
+        } else {
+            throttledCount++;
+        }
+        symbols[slot] = symbol;
+        symbolIds[slot] = symbolId;
+        valueDates[slot] = valueDate;
+        timestamps[slot] = timestamp;
+        tenors[slot] = tenor;
+        clientTiers[slot] = clientTier;
+        rungCounts[slot] = rungCount;
+        final int base = slot * LEVELS;
+        System.arraycopy(rungBids, 0, bids, base, rungCount);
+        System.arraycopy(rungAsks, 0, asks, base, rungCount);
+        System.arraycopy(rungVolumes, 0, volumes, base, rungCount);
+    }
+
+    /**
+     * Releases the held quotes whose interval is up.
+     *
+     * @return the number of quotes released
+     */
+    int poll(long nowMs) {
+        return timerWheel.poll(nowMs, this, EXPIRY_LIMIT);
+    }
+
+    /**
+     * Drops the slot's held quote, if any, without releasing it.
+     */
+    void cancel(int slot) {
+        if (slot >= timerIds.length || NO_TIMER == timerIds[slot]) {
+            return;
+        }
+        timerWheel.cancelTimer(timerIds[slot]);
+        slotByTimerId.remove(timerIds[slot]);
+        timerIds[slot] = NO_TIMER;
+        symbols[slot] = null;
+    }
+
+    /**
+     * @return how many held quotes have been replaced by a newer one before release
+     */
+    long throttledCount() {
+        return throttledCount;
+    }
+
+    @Override
+    public boolean onTimerExpiry(TimeUnit timeUnit, long now, long timerId) {
+        final int slot = (int) slotByTimerId.remove(timerId);
+        if (NO_TIMER == slot) {
+            return true;
+        }
+        timerIds[slot] = NO_TIMER;
+        nextReleaseMs[slot] = now + intervalsMs[slot];
+        final CharSequence symbol = symbols[slot];
+        symbols[slot] = null;
+        final int rungCount = rungCounts[slot];
+        final int base = slot * LEVELS;
+        System.arraycopy(bids, base, releaseBids, 0, rungCount);
+        System.arraycopy(asks, base, releaseAsks, 0, rungCount);
+        System.arraycopy(volumes, base, releaseVolumes, 0, rungCount);
+        releaseHandler.onRelease(symbol, symbolIds[slot], valueDates[slot], timestamps[slot], tenors[slot],
+                clientTiers[slot], rungCount);
+        return true;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > timerIds.length) {
+            final int oldCapacity = timerIds.length;
+            final int newCapacity = Math.max(required, oldCapacity << 1);
+            intervalsMs = Arrays.copyOf(intervalsMs, newCapacity);
+            nextReleaseMs = Arrays.copyOf(nextReleaseMs, newCapacity);
+            timerIds = Arrays.copyOf(timerIds, newCapacity);
+            Arrays.fill(timerIds, oldCapacity, newCapacity, NO_TIMER);
+            symbols = Arrays.copyOf(symbols, newCapacity);
+            symbolIds = Arrays.copyOf(symbolIds, newCapacity);
+            valueDates = Arrays.copyOf(valueDates, newCapacity);
+            timestamps = Arrays.copyOf(timestamps, newCapacity);
+            tenors = Arrays.copyOf(tenors, newCapacity);
+            clientTiers = Arrays.copyOf(clientTiers, newCapacity);
+            rungCounts = Arrays.copyOf(rungCounts, newCapacity);
+            bids = Arrays.copyOf(bids, newCapacity * LEVELS);
+            asks = Arrays.copyOf(asks, newCapacity * LEVELS);
+            volumes = Arrays.copyOf(volumes, newCapacity * LEVELS);
+        }
+    }
+}
@@ -1,42 +1,113 @@
 package play.lab.pricing.engine.feed;
 
 import io.aeron.Aeron;
+import io.aeron.ExclusivePublication;
 import io.aeron.Publication;
 import io.aeron.Subscription;
 import io.aeron.logbuffer.FragmentHandler;
 import org.agrona.DirectBuffer;
-import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.CachedEpochClock;
+import org.agrona.concurrent.EpochClock;
+import org.agrona.concurrent.SystemEpochClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import play.lab.model.sbe.FixedPointQuoteMessageDecoder;
+import play.lab.model.sbe.MarketSnapshotMessageDecoder;
 import play.lab.model.sbe.MessageHeaderDecoder;
 import play.lab.model.sbe.QuoteMessageDecoder;
+import play.lab.model.sbe.SignalMessageDecoder;
 import pub.lab.trading.common.config.AeronConfigs;
 import pub.lab.trading.common.config.StreamId;
-import pub.lab.trading.common.config.caches.ClientTierConfig;
 import pub.lab.trading.common.config.caches.ClientTierConfigCache;
 import pub.lab.trading.common.config.caches.ConfigAgent;
+import pub.lab.trading.common.config.caches.CurrencyConfigCache;
+import pub.lab.trading.common.config.caches.PricingShards;
+import pub.lab.trading.common.config.caches.SymbolRegistry;
+import pub.lab.trading.common.config.caches.TierPricingTable;
 import pub.lab.trading.common.lifecycle.Worker;
+import pub.lab.trading.common.logging.BinaryLogEvent;
+import pub.lab.trading.common.logging.BinaryLogger;
 import pub.lab.trading.common.model.ClientTierLevel;
+import pub.lab.trading.common.model.pricing.FixedPointQuoteView;
+import pub.lab.trading.common.model.pricing.MarketSnapshotView;
+import pub.lab.trading.common.model.pricing.PriceRounding;
+import pub.lab.trading.common.model.pricing.QuoteConflationBuffer;
 import pub.lab.trading.common.model.pricing.QuoteMessageWriter;
 import pub.lab.trading.common.model.pricing.QuoteView;
 import pub.lab.trading.common.util.MutableString;
 
 import java.util.EnumMap;
 
+/**
+ * Prices the raw quotes of one shard of the symbols for every client tier. Every pipe subscribes to RAW_QUOTE and
+ * skips the symbols {@link PricingShards} assigns to other shards, so pipes on separate threads or processes split
+ * the symbol by tier fan-out between them.
+ */
 public class SpotPricerPipe implements Worker {
     private static final Logger LOGGER = LoggerFactory.getLogger(SpotPricerPipe.class);
 
+    private final int shardId;
+    private final PricingShards pricingShards;
+    private final String roleName;
+    // shard count the pipe's per symbol state was last pruned for
+    private int appliedShardCount = PricingShards.DEFAULT_SHARD_COUNT;
+
     private final Subscription quoteSub;
-    private final EnumMap<ClientTierLevel, Publication> marketQuotePublications = new EnumMap<>(ClientTierLevel.class);
+    // per symbol skews from the external signal model
+    private final Subscription signalSub;
+    private final SignalMessageDecoder signalDecoder = new SignalMessageDecoder();
+    private final SymbolSignals symbolSignals = new SymbolSignals(64);
+    private final EnumMap<ClientTierLevel, ExclusivePublication> marketQuotePublications = new EnumMap<>(ClientTierLevel.class);
+    // latest unsent quote per symbol for each tier while its publication is back pressured
+    private final EnumMap<ClientTierLevel, QuoteConflationBuffer> conflationBuffers = new EnumMap<>(ClientTierLevel.class);
+    // latest quote per symbol for each tier held back by the tier's quoteThrottleMs, indexed by tier ordinal
+    private final QuoteThrottle[] throttles = new QuoteThrottle[LadderPricer.TIERS.length];
+    // smoothed prices per symbol for each tier, widening quotes after a jump over the tier's latencyProtectionMs
+    private final LatencyProtection[] latencyProtections = new LatencyProtection[LadderPricer.TIERS.length];
+    // stale quotes per symbol for each tier, expired with a zero size quote after the tier's quoteExpiryMs
+    private final QuoteExpiry[] expiries = new QuoteExpiry[LadderPricer.TIERS.length];
+    private final EpochClock epochClock = SystemEpochClock.INSTANCE;
+    // time of the current duty cycle
+    private final CachedEpochClock clock = new CachedEpochClock();
+    private final ClientTierLevel[] drainOrder = ClientTierLevel.values();
+    private final double[] pricedBids = new double[QuoteMessageWriter.MAX_LEVELS];
+    private final double[] pricedAsks = new double[QuoteMessageWriter.MAX_LEVELS];
+    private final double[] pricedVolumes = new double[QuoteMessageWriter.MAX_LEVELS];
     private final ClientTierConfigCache clientTierConfigCache;
+    private final CurrencyConfigCache currencyConfigCache;
+    private final SymbolRegistry symbolRegistry;
+    private final BinaryLogger binaryLogger;
     private final QuoteMessageWriter quoteMessageWriter = new QuoteMessageWriter();
     private final QuoteView quoteView = new QuoteView();
+    private final FixedPointQuoteView fixedPointQuoteView = new FixedPointQuoteView();
+    private final MarketSnapshotView snapshotView = new MarketSnapshotView();
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
     private final FragmentHandler fragmentHandler;
+    private final FragmentHandler signalHandler;
     private final MutableString symbolMutableString = new MutableString();
 
-    public SpotPricerPipe(final Aeron aeron, final ConfigAgent configAgent) {
+    // symbol of the quote being priced, from the registry when the quote carries an id, else decoded
+    private int symbolId;
+    private CharSequence symbol;
+    private boolean registered;
+
+    // ladder of the quote being priced, decoded once and priced for every tier in one pass
+    private final LadderPricer ladderPricer = new LadderPricer();
+
+    public SpotPricerPipe(final Aeron aeron, final ConfigAgent configAgent, final BinaryLogger binaryLogger,
+                          final int shardId) {
+        if (shardId < 0) {
+            throw new IllegalArgumentException("Invalid pricing shard id " + shardId);
+        }
+        this.shardId = shardId;
+        this.pricingShards = configAgent.getPricingShards();
+        this.roleName = "MarketDataConsumer-" + shardId;
         this.clientTierConfigCache = configAgent.getClientTierConfigCache();
-        this.fragmentHandler = (buf, offset, len, hdr) -> consumeQuotes(buf, offset);
+        this.currencyConfigCache = configAgent.getCurrencyConfigCache();
+        this.symbolRegistry = configAgent.getSymbolRegistry();
+        this.binaryLogger = binaryLogger;
+        this.fragmentHandler = (buf, offset, len, hdr) -> onFragment(buf, offset);
+        this.signalHandler = (buf, offset, len, hdr) -> onSignal(buf, offset);
         this.quoteSub = aeron.addSubscription(AeronConfigs.LIVE_CHANNEL,
                 StreamId.RAW_QUOTE.getCode(),
                 image -> LOGGER.info("Image available: sessionId={}, channel={}, streamId={}",
@@ -44,72 +115,407 @@ public class SpotPricerPipe implements Worker {
                 image -> LOGGER.warn("Image unavailable: sessionId={}, channel={}, streamId={}",
                         image.sessionId(), image.sourceIdentity(), image.subscription().streamId())
         );
-        for (ClientTierLevel clientTierLevel : ClientTierLevel.values()) {
+        this.signalSub = aeron.addSubscription(AeronConfigs.LIVE_CHANNEL, StreamId.SIGNAL.getCode());
+        for (ClientTierLevel clientTierLevel : LadderPricer.TIERS) {
             marketQuotePublications.put(clientTierLevel, aeron.addExclusivePublication(AeronConfigs.LIVE_CHANNEL,
                     StreamId.MARKET_QUOTE.getCode() + clientTierLevel.getId())
             );
+            conflationBuffers.put(clientTierLevel, new QuoteConflationBuffer(64, 1));
+        }
+        clock.update(epochClock.time());
+        for (int tier = 0; tier < throttles.length; tier++) {
+            final int tierIndex = tier;
+            latencyProtections[tier] = new LatencyProtection(64);
+            throttles[tier] = new QuoteThrottle(64, clock.time(), pricedBids, pricedAsks, pricedVolumes,
+                    (releasedSymbol, releasedSymbolId, valueDate, timestamp, tenor, clientTier, rungCount) ->
+                            publishTracked(tierIndex, releasedSymbol, releasedSymbolId, valueDate, timestamp,
+                                    tenor, clientTier, rungCount));
+            expiries[tier] = new QuoteExpiry(64, clock.time(),
+                    (expiredSymbol, expiredSymbolId, valueDate, tenor, clientTier, bid, ask, nowMs) ->
+                            publishExpired(tierIndex, expiredSymbol, expiredSymbolId, valueDate, tenor, clientTier,
+                                    bid, ask, nowMs));
+        }
+        LOGGER.info("Connected Aeron Dir : {} {} {} shard {}", aeron.context().aeronDirectory(), quoteSub.channel(),
+                quoteSub.streamId(), shardId);
+    }
+
+    private void onFragment(DirectBuffer buf, int offset) {
+        headerDecoder.wrap(buf, offset);
+        int templateId = headerDecoder.templateId();
+        if (QuoteMessageDecoder.TEMPLATE_ID == templateId) {
+            consumeQuotes(buf, offset);
+        } else if (MarketSnapshotMessageDecoder.TEMPLATE_ID == templateId) {
+            consumeSnapshot(buf, offset);
+        } else if (FixedPointQuoteMessageDecoder.TEMPLATE_ID == templateId) {
+            consumeFixedPointQuotes(buf, offset);
+        } else {
+            LOGGER.warn("Unknown quote message templateId: {}", templateId);
+        }
+    }
+
+    private void onSignal(DirectBuffer buf, int offset) {
+        headerDecoder.wrap(buf, offset);
+        if (SignalMessageDecoder.TEMPLATE_ID != headerDecoder.templateId()) {
+            LOGGER.warn("Unknown signal message templateId: {}", headerDecoder.templateId());
+            return;
         }
-        LOGGER.info("Connected Aeron Dir : {} {} {}", aeron.context().aeronDirectory(), quoteSub.channel(), quoteSub.streamId());
+        signalDecoder.wrapAndApplyHeader(buf, offset, headerDecoder);
+        int signalSymbolId = (int) signalDecoder.symbolId();
+        if (null == symbolRegistry.symbol(signalSymbolId)) {
+            // the id sizes the signal table, so only ids this pricer has registered are taken
+            LOGGER.warn("Ignoring signal for unregistered symbol id {}", signalSymbolId);
+            return;
+        }
+        if (!pricingShards.owns(shardId, signalSymbolId)) {
+            return;
+        }
+        symbolSignals.onSignal(signalSymbolId, signalDecoder.timestamp(), signalDecoder.skewBps());
     }
 
     private void consumeQuotes(DirectBuffer buf, int offset) {
         quoteView.wrap(buf, offset + MessageHeaderDecoder.ENCODED_LENGTH);
+        if (!pricingShards.owns(shardId, quoteView.getSymbolId())) {
+            return;
+        }
 
-        quoteView.getSymbol(symbolMutableString.init());
+        resolveSymbol(quoteView.getSymbolId());
+        if (null == symbol) {
+            quoteView.getSymbol(symbolMutableString.init());
+            symbol = symbolMutableString;
+        }
         long timestamp = quoteView.priceCreationTimestamp();
         long tenor = quoteView.getTenor();
         long valueDate = quoteView.getValueDate();
         long clientTier = quoteView.getClientTier();
 
-        for (ClientTierLevel clientTierLevel : ClientTierLevel.values()) {
-            double volume = 1_000_000.0;
-            while (quoteView.getRung().hasNext()) {
-                ClientTierConfig clientTierConfig = clientTierConfigCache.get(clientTierLevel.getId());
-                if (null != clientTierConfig) {
-                    QuoteMessageDecoder.RungDecoder nextRung = quoteView.getRung().next();
-                    double mid = (nextRung.bid() + nextRung.ask()) / 2.0;
-                    double volFactor = Math.log10(nextRung.volume() / volume + 1.0);
-                    double spreadAdjust = clientTierConfig.spreadTighteningFactor() * (1 + 0.05 * volFactor);
-                    double markupAdjust = clientTierConfig.markupBps() * (1 + 0.1 * volFactor);
-                    double skewAdjust = clientTierConfig.tierSkew() * volFactor;
-                    double adjustment = clientTierConfig.signal() * (markupAdjust + skewAdjust);
-                    double bid = mid - (spreadAdjust / 2.0) - adjustment;
-                    double ask = mid + (spreadAdjust / 2.0) + adjustment;
-
-                    LOGGER.info("symbol={}, timestamp={}, tenor={}, valueDate={}, clientTier={}, bid={}, ask={}",
-                            symbolMutableString, timestamp, tenor, valueDate, clientTier, bid, ask);
-                    quoteMessageWriter.beginQuote(
-                            symbolMutableString,
-                            valueDate,
-                            timestamp,
-                            tenor,
-                            clientTier,
-                            1
-                    ).addRung(
-                            bid,
-                            ask,
-                            volume
-                    );
-                    UnsafeBuffer buffer = quoteMessageWriter.buffer();
-                    int encodedLength = quoteMessageWriter.encodedLength();
-
-                    long result = marketQuotePublications.get(clientTierLevel).offer(buffer, 0, encodedLength);
-                    if (result < 0) {
-                        LOGGER.error("❌ Failed to publish quote");
-                    } else {
-                        LOGGER.info("✅ Published quote for");
-                    }
+        ladderPricer.clear();
+        QuoteMessageDecoder.RungDecoder rungDecoder = quoteView.getRung();
+        while (rungDecoder.hasNext()) {
+            rungDecoder.next();
+            ladderPricer.addRung(rungDecoder.bid(), rungDecoder.ask(), rungDecoder.volume());
+        }
+        priceLadder(timestamp, tenor, valueDate, clientTier);
+    }
+
+    private void consumeFixedPointQuotes(DirectBuffer buf, int offset) {
+        fixedPointQuoteView.wrap(buf, offset + MessageHeaderDecoder.ENCODED_LENGTH);
+        if (!pricingShards.owns(shardId, fixedPointQuoteView.getSymbolId())) {
+            return;
+        }
+
+        resolveSymbol(fixedPointQuoteView.getSymbolId());
+        if (null == symbol) {
+            fixedPointQuoteView.getSymbol(symbolMutableString.init());
+            symbol = symbolMutableString;
+        }
+        int decimals = fixedPointQuoteView.decimals();
+        if (decimals < 0 || decimals > PriceRounding.MAX_DECIMALS) {
+            LOGGER.warn("Dropping {} quote with unsupported price exponent {}", symbol, -decimals);
+            return;
+        }
+        long timestamp = fixedPointQuoteView.priceCreationTimestamp();
+        long tenor = fixedPointQuoteView.getTenor();
+        long valueDate = fixedPointQuoteView.getValueDate();
+        long clientTier = fixedPointQuoteView.getClientTier();
+
+        ladderPricer.clear();
+        FixedPointQuoteMessageDecoder.RungDecoder rungDecoder = fixedPointQuoteView.getRung();
+        while (rungDecoder.hasNext()) {
+            rungDecoder.next();
+            ladderPricer.addRung(PriceRounding.toPrice(rungDecoder.bidMantissa(), decimals),
+                    PriceRounding.toPrice(rungDecoder.askMantissa(), decimals), rungDecoder.volume());
+        }
+        priceLadder(timestamp, tenor, valueDate, clientTier);
+    }
+
+    private void consumeSnapshot(DirectBuffer buf, int offset) {
+        snapshotView.wrap(buf, offset + MessageHeaderDecoder.ENCODED_LENGTH);
+
+        long timestamp = snapshotView.priceCreationTimestamp();
+        long tenor = snapshotView.getTenor();
+        long valueDate = snapshotView.getValueDate();
+        long clientTier = snapshotView.getClientTier();
+
+        MarketSnapshotMessageDecoder.EntryDecoder entryDecoder = snapshotView.getEntries();
+        while (entryDecoder.hasNext()) {
+            entryDecoder.next();
+            MarketSnapshotMessageDecoder.EntryDecoder.RungDecoder rungDecoder = entryDecoder.rung();
+            if (!pricingShards.owns(shardId, (int) entryDecoder.symbolId())) {
+                // the next entry starts after this one's rungs
+                while (rungDecoder.hasNext()) {
+                    rungDecoder.next();
+                }
+                continue;
+            }
+            resolveSymbol((int) entryDecoder.symbolId());
+            if (null == symbol) {
+                entryDecoder.getSymbol(symbolMutableString.init());
+                symbol = symbolMutableString;
+            }
+
+            ladderPricer.clear();
+            while (rungDecoder.hasNext()) {
+                rungDecoder.next();
+                ladderPricer.addRung(rungDecoder.bid(), rungDecoder.ask(), rungDecoder.volume());
+            }
+            priceLadder(timestamp, tenor, valueDate, clientTier);
+        }
+    }
+
+    private void resolveSymbol(int symbolId) {
+        this.symbolId = symbolId;
+        this.symbol = symbolRegistry.symbol(symbolId);
+        this.registered = null != symbol;
+    }
+
+    /**
+     * Publishes the priced ladder to every configured tier as one quote per tier, so a subscriber sees the whole
+     * ladder change at once. Prices are rounded to the symbol's spot precision, capped by the tier's price
+     * precision. A tier with a {@code latencyProtectionMs} is quoted smoothed prices and a tier with a
+     * {@code quoteThrottleMs} gets at most one quote per symbol per interval, the latest ladder being held and sent
+     * when the interval is up. A tier with a {@code quoteExpiryMs} is sent a zero size quote for a symbol whose
+     * quotes stop for that long.
+     */
+    private void priceLadder(long timestamp, long tenor, long valueDate, long clientTier) {
+        if (0 == ladderPricer.rungCount()) {
+            return;
+        }
+        TierPricingTable pricingTable = clientTierConfigCache.pricingTable();
+        ladderPricer.price(pricingTable, registered ? symbolSignals.skewBps(symbolId) : 0.0);
+        long nowMs = clock.time();
+        int spotPrecision = registered ? currencyConfigCache.spotPrecision(symbolId) : CurrencyConfigCache.NO_PRECISION;
+        for (int tier = 0; tier < LadderPricer.TIERS.length; tier++) {
+            if (!ladderPricer.isPriced(tier)) {
+                continue;
+            }
+            ClientTierLevel clientTierLevel = LadderPricer.TIERS[tier];
+            int rungCount = ladderPricer.copyTier(tier, pricedBids, pricedAsks, pricedVolumes);
+            if (registered) {
+                latencyProtections[tier].protect(symbolId, nowMs, pricingTable.latencyProtectionMs(clientTierLevel.getId()),
+                        pricedBids, pricedAsks, rungCount);
+                if (CurrencyConfigCache.NO_PRECISION != spotPrecision) {
+                    roundLadder(decimals(spotPrecision, pricingTable.pricePrecision(clientTierLevel.getId())), rungCount);
+                }
+                // an unthrottled tier still goes through its throttle so a quote held before a config change is not
+                // released after a newer one
+                QuoteThrottle throttle = throttles[tier];
+                if (!throttle.tryAcquire(symbolId, nowMs, pricingTable.quoteThrottleMs(clientTierLevel.getId()))) {
+                    throttle.hold(symbolId, nowMs, symbol, symbolId, valueDate, timestamp, tenor, clientTier,
+                            pricedBids, pricedAsks, pricedVolumes, rungCount);
+                    continue;
                 }
+                publishTracked(tier, symbol, symbolId, valueDate, timestamp, tenor, clientTier, rungCount);
+            } else {
+                publishLadder(clientTierLevel, symbol, symbolId, valueDate, timestamp, tenor, clientTier, rungCount);
             }
         }
     }
 
+    /**
+     * @return the decimals a tier is quoted a symbol to, its spot precision capped by the tier's price precision
+     */
+    private static int decimals(int spotPrecision, int tierPrecision) {
+        int decimals = tierPrecision > 0 ? Math.min(spotPrecision, tierPrecision) : spotPrecision;
+        return Math.min(decimals, PriceRounding.MAX_DECIMALS);
+    }
+
+    /**
+     * Rounds the priced ladder outwards, bids down and asks up, so the tier is never quoted tighter than priced.
+     */
+    private void roundLadder(int decimals, int rungCount) {
+        for (int rung = 0; rung < rungCount; rung++) {
+            pricedBids[rung] = PriceRounding.floor(pricedBids[rung], decimals);
+            pricedAsks[rung] = PriceRounding.ceil(pricedAsks[rung], decimals);
+        }
+    }
+
+    /**
+     * Publishes the priced ladder of a registered symbol and restarts its quote expiry.
+     */
+    private void publishTracked(int tier, CharSequence symbol, int symbolId, long valueDate, long timestamp,
+                                long tenor, long clientTier, int rungCount) {
+        ClientTierLevel clientTierLevel = LadderPricer.TIERS[tier];
+        publishLadder(clientTierLevel, symbol, symbolId, valueDate, timestamp, tenor, clientTier, rungCount);
+        long expiryMs = clientTierConfigCache.pricingTable().quoteExpiryMs(clientTierLevel.getId());
+        expiries[tier].onQuote(symbolId, clock.time(), expiryMs, symbol, symbolId, valueDate, tenor, clientTier,
+                pricedBids[0], pricedAsks[0]);
+    }
+
+    /**
+     * Replaces a stale quote with a zero size quote at the last top of book, so clients see the price is no longer
+     * dealable until a fresh quote arrives.
+     */
+    private void publishExpired(int tier, CharSequence symbol, int symbolId, long valueDate, long tenor, long clientTier,
+                                double bid, double ask, long nowMs) {
+        ClientTierLevel clientTierLevel = LadderPricer.TIERS[tier];
+        binaryLogger.logQuote(BinaryLogEvent.QUOTE_EXPIRED, symbol, symbolId, clientTierLevel.getId(), 1, nowMs,
+                valueDate, bid, ask, 0.0, 0);
+        pricedBids[0] = bid;
+        pricedAsks[0] = ask;
+        pricedVolumes[0] = 0.0;
+        publishLadder(clientTierLevel, symbol, symbolId, valueDate, nowMs, tenor, clientTier, 1);
+    }
+
+    /**
+     * Publishes the ladder held in the priced arrays to the tier, conflating it while the tier is back pressured.
+     */
+    private void publishLadder(ClientTierLevel clientTierLevel, CharSequence symbol, int symbolId, long valueDate,
+                               long timestamp, long tenor, long clientTier, int rungCount) {
+        QuoteConflationBuffer conflationBuffer = conflationBuffers.get(clientTierLevel);
+        long result = conflationBuffer.hasPending() ? Publication.BACK_PRESSURED : quoteMessageWriter.tryClaimQuote(
+                marketQuotePublications.get(clientTierLevel),
+                symbol,
+                symbolId,
+                valueDate,
+                timestamp,
+                tenor,
+                clientTier,
+                rungCount
+        );
+        if (result > 0) {
+            for (int rung = 0; rung < rungCount; rung++) {
+                quoteMessageWriter.addRung(pricedBids[rung], pricedAsks[rung], pricedVolumes[rung]);
+            }
+            result = quoteMessageWriter.commit();
+        }
+        if (result < 0) {
+            conflate(conflationBuffer, clientTierLevel, symbol, symbolId, result, timestamp, tenor, valueDate, clientTier, rungCount);
+        } else {
+            binaryLogger.logQuote(BinaryLogEvent.TIER_QUOTE_PUBLISHED, symbol, symbolId, clientTierLevel.getId(),
+                    rungCount, timestamp, valueDate, pricedBids[0], pricedAsks[0], pricedVolumes[0], result);
+        }
+    }
+
+    private void conflate(QuoteConflationBuffer conflationBuffer, ClientTierLevel clientTierLevel, CharSequence symbol,
+                          int symbolId, long result, long timestamp, long tenor, long valueDate, long clientTier, int rungCount) {
+        String registeredSymbol = symbolRegistry.symbol(symbolId);
+        if (null == registeredSymbol) {
+            // without an id this pricer has registered there is no slot to hold the quote in
+            binaryLogger.logQuote(BinaryLogEvent.QUOTE_DROPPED, symbol, symbolId, clientTierLevel.getId(), rungCount,
+                    timestamp, valueDate, pricedBids[0], pricedAsks[0], pricedVolumes[0], result);
+            return;
+        }
+        binaryLogger.logQuote(BinaryLogEvent.QUOTE_CONFLATED, symbol, symbolId, clientTierLevel.getId(), rungCount,
+                timestamp, valueDate, pricedBids[0], pricedAsks[0], pricedVolumes[0], result);
+        if (!conflationBuffer.hasPending()) {
+            LOGGER.warn("Conflating {} quotes — code {}", clientTierLevel, result);
+        }
+        conflationBuffer.put(symbolId, 0, registeredSymbol, symbolId, valueDate, timestamp, tenor,
+                clientTier, pricedBids, pricedAsks, pricedVolumes, rungCount);
+    }
+
+    private int releaseThrottled() {
+        long nowMs = clock.time();
+        int released = 0;
+        for (QuoteThrottle throttle : throttles) {
+            released += throttle.poll(nowMs);
+        }
+        return released;
+    }
+
+    private int expireStale() {
+        long nowMs = clock.time();
+        int expired = 0;
+        for (QuoteExpiry expiry : expiries) {
+            expired += expiry.poll(nowMs);
+        }
+        return expired;
+    }
+
+    /**
+     * Sends conflated quotes tier by tier, lowest {@code tierPriority} value first, stopping at a tier whose
+     * publication is still back pressured so lower priority tiers do not take its room.
+     */
+    private int drainConflated() {
+        sortDrainOrder();
+        int drained = 0;
+        for (ClientTierLevel clientTierLevel : drainOrder) {
+            QuoteConflationBuffer conflationBuffer = conflationBuffers.get(clientTierLevel);
+            if (conflationBuffer.hasPending()) {
+                drained += conflationBuffer.drain(quoteMessageWriter, marketQuotePublications.get(clientTierLevel));
+                if (conflationBuffer.hasPending()) {
+                    break;
+                }
+            }
+        }
+        return drained;
+    }
+
+    // insertion sort, there are a handful of tiers and priorities can change with config updates
+    private void sortDrainOrder() {
+        TierPricingTable pricingTable = clientTierConfigCache.pricingTable();
+        for (int i = 1; i < drainOrder.length; i++) {
+            ClientTierLevel tier = drainOrder[i];
+            int priority = pricingTable.priority(tier.getId());
+            int j = i - 1;
+            while (j >= 0 && pricingTable.priority(drainOrder[j].getId()) > priority) {
+                drainOrder[j + 1] = drainOrder[j];
+                j--;
+            }
+            drainOrder[j + 1] = tier;
+        }
+    }
+
+    private boolean hasConflated() {
+        for (ClientTierLevel clientTierLevel : drainOrder) {
+            if (conflationBuffers.get(clientTierLevel).hasPending()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drops the held, conflated and expiry state of symbols the shard no longer owns after a shard count change, so
+     * the pipe does not release, drain or expire quotes for symbols another shard now prices.
+     */
+    private void releaseUnownedSymbols(int shardCount) {
+        int released = releaseUnownedSymbols(shardId, shardCount, symbolRegistry.size(), throttles, expiries,
+                latencyProtections, conflationBuffers, symbolSignals);
+        LOGGER.info("Shard {} of {} released {} symbols", shardId, shardCount, released);
+    }
+
+    /**
+     * @return the number of symbol ids below {@code symbolCount} the shard no longer owns, whose state was dropped
+     */
+    static int releaseUnownedSymbols(int shardId, int shardCount, int symbolCount, QuoteThrottle[] throttles,
+                                     QuoteExpiry[] expiries, LatencyProtection[] latencyProtections,
+                                     EnumMap<ClientTierLevel, QuoteConflationBuffer> conflationBuffers,
+                                     SymbolSignals symbolSignals) {
+        int released = 0;
+        for (int releasedSymbolId = 0; releasedSymbolId < symbolCount; releasedSymbolId++) {
+            if (PricingShards.shardOf(releasedSymbolId, shardCount) == shardId) {
+                continue;
+            }
+            for (int tier = 0; tier < LadderPricer.TIERS.length; tier++) {
+                throttles[tier].cancel(releasedSymbolId);
+                expiries[tier].cancel(releasedSymbolId);
+                latencyProtections[tier].reset(releasedSymbolId);
+                conflationBuffers.get(LadderPricer.TIERS[tier]).cancel(releasedSymbolId);
+            }
+            symbolSignals.clear(releasedSymbolId);
+            released++;
+        }
+        return released;
+    }
+
     @Override
     public int doWork() {
+        clock.update(epochClock.time());
+        int shardCount = pricingShards.shardCount();
+        if (shardCount != appliedShardCount) {
+            releaseUnownedSymbols(shardCount);
+            appliedShardCount = shardCount;
+        }
+        int workCount = hasConflated() ? drainConflated() : 0;
+        workCount += releaseThrottled();
+        workCount += expireStale();
+        // signals first so quotes polled in this cycle are priced with the latest skew
+        workCount += signalSub.poll(signalHandler, 10);
         if (quoteSub.isConnected()) {
-            return quoteSub.poll(fragmentHandler, 10);
+            workCount += quoteSub.poll(fragmentHandler, 10);
         }
-        return 0;
+        return workCount;
     }
 
     @Override
@@ -119,6 +525,6 @@ public class SpotPricerPipe implements Worker {
 
     @Override
     public String roleName() {
-        return "MarketDataConsumer";
+        return roleName;
     }
 }
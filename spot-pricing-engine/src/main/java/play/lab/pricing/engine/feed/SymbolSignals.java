@@ -0,0 +1,70 @@
+package play.lab.pricing.engine.feed;
+
+import java.util.Arrays;
+
+/**
+ * Latest external skew signal per symbol, indexed by symbol registry id. Signals are written and read on the
+ * pricing agent's thread, so the pricer reads a plain array slot with no lock or lookup. A signal older than the
+ * one held for its symbol is ignored, so a late message cannot undo a newer signal.
+ * <p>
+ * Not thread safe, owned by the pricing agent.
+ */
+final class SymbolSignals {
+    private double[] skewsBps;
+    private long[] timestamps;
+    private long staleCount;
+
+    SymbolSignals(int initialSymbols) {
+        this.skewsBps = new double[initialSymbols];
+        this.timestamps = new long[initialSymbols];
+    }
+
+    /**
+     * @return true if the signal replaced the symbol's signal, false if it was older
+     */
+    boolean onSignal(int symbolId, long timestamp, double skewBps) {
+        if (symbolId < 0) {
+            throw new IllegalArgumentException("Invalid symbol id " + symbolId);
+        }
+        ensureCapacity(symbolId + 1);
+        if (timestamp < timestamps[symbolId]) {
+            staleCount++;
+            return false;
+        }
+        timestamps[symbolId] = timestamp;
+        skewsBps[symbolId] = skewBps;
+        return true;
+    }
+
+    /**
+     * Forgets the symbol's signal, it is priced with no skew until the next one.
+     */
+    void clear(int symbolId) {
+        if (symbolId >= 0 && symbolId < skewsBps.length) {
+            skewsBps[symbolId] = 0.0;
+            timestamps[symbolId] = 0;
+        }
+    }
+
+    /**
+     * @return the symbol's skew in basis points of mid, zero if it has no signal
+     */
+    double skewBps(int symbolId) {
+        return symbolId >= 0 && symbolId < skewsBps.length ? skewsBps[symbolId] : 0.0;
+    }
+
+    /**
+     * @return how many signals were ignored for being older than the symbol's current one
+     */
+    long staleCount() {
+        return staleCount;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > skewsBps.length) {
+            final int newCapacity = Math.max(required, skewsBps.length << 1);
+            skewsBps = Arrays.copyOf(skewsBps, newCapacity);
+            timestamps = Arrays.copyOf(timestamps, newCapacity);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package play.lab;
+
+import io.aeron.Aeron;
+import io.aeron.ExclusivePublication;
+import org.agrona.concurrent.UnsafeBuffer;
+import play.lab.model.sbe.MessageHeaderEncoder;
+import play.lab.model.sbe.SignalMessageEncoder;
+import pub.lab.trading.common.config.AeronConfigs;
+import pub.lab.trading.common.config.StreamId;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stand-in for the external signal model, publishes a mean reverting random skew for each of the first
+ * {@code symbols} registry ids on the signal stream every {@code intervalMs}.
+ * <pre>
+ *   SignalPublisher [symbols=10] [intervalMs=10] [maxSkewBps=2.0]
+ * </pre>
+ */
+public class SignalPublisher {
+    public static void main(String[] args) throws InterruptedException {
+        int symbols = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        long intervalMs = args.length > 1 ? Long.parseLong(args[1]) : 10;
+        double maxSkewBps = args.length > 2 ? Double.parseDouble(args[2]) : 2.0;
+
+        UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(64));
+        MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+        SignalMessageEncoder encoder = new SignalMessageEncoder();
+        SplittableRandom random = new SplittableRandom(42);
+        double[] skews = new double[symbols];
+
+        try (Aeron aeron = Aeron.connect(new Aeron.Context().aeronDirectoryName(AeronConfigs.AERON_LIVE_DIR));
+             ExclusivePublication publication = aeron.addExclusivePublication(AeronConfigs.LIVE_CHANNEL, StreamId.SIGNAL.getCode())) {
+            long rounds = 0;
+            long sent = 0;
+            long dropped = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                for (int symbolId = 0; symbolId < symbols; symbolId++) {
+                    skews[symbolId] = Math.max(-maxSkewBps, Math.min(maxSkewBps,
+                            0.9 * skews[symbolId] + 0.2 * maxSkewBps * random.nextGaussian()));
+                    encoder.wrapAndApplyHeader(buffer, 0, headerEncoder)
+                            .symbolId(symbolId)
+                            .timestamp(System.currentTimeMillis())
+                            .skewBps(skews[symbolId]);
+                    if (publication.offer(buffer, 0, MessageHeaderEncoder.ENCODED_LENGTH + encoder.encodedLength()) > 0) {
+                        sent++;
+                    } else {
+                        dropped++;
+                    }
+                }
+                if (0 == ++rounds % 1_000) {
+                    System.out.println("Signals sent=" + sent + " dropped=" + dropped);
+                }
+                TimeUnit.MILLISECONDS.sleep(intervalMs);
+            }
+        }
+    }
+}
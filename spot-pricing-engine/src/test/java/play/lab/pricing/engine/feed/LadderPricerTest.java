@@ -0,0 +1,118 @@
+package play.lab.pricing.engine.feed;
+
+import org.junit.Before;
+import org.junit.Test;
+import pub.lab.trading.common.config.caches.ClientTierConfig;
+import pub.lab.trading.common.config.caches.ClientTierConfigCache;
+import pub.lab.trading.common.config.caches.TierPricingTable;
+import pub.lab.trading.common.model.ClientTierLevel;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LadderPricerTest {
+    private static final double SKEW_BPS = 2.5;
+    private static final double[] BIDS = {1.08340, 1.08335, 1.08328};
+    private static final double[] ASKS = {1.08350, 1.08356, 1.08364};
+    private static final double[] VOLUMES = {1_000_000, 5_000_000, 7_500_000};
+
+    private final ClientTierConfigCache cache = new ClientTierConfigCache();
+    private final LadderPricer pricer = new LadderPricer();
+
+    @Before
+    public void setUp() {
+        cache.update(ClientTierLevel.GOLD, tier(ClientTierLevel.GOLD, 0.5, 0.00008, 0.25, 1.0));
+        cache.update(ClientTierLevel.SILVER, tier(ClientTierLevel.SILVER, 1.5, 0.00012, 0.75, -0.5));
+        for (int rung = 0; rung < BIDS.length; rung++) {
+            pricer.addRung(BIDS[rung], ASKS[rung], VOLUMES[rung]);
+        }
+    }
+
+    @Test
+    public void everyConfiguredTierIsPricedAroundTheSkewedMid() {
+        TierPricingTable table = cache.pricingTable();
+        pricer.price(table, SKEW_BPS);
+
+        for (ClientTierLevel level : new ClientTierLevel[]{ClientTierLevel.GOLD, ClientTierLevel.SILVER}) {
+            int tier = level.ordinal();
+            assertTrue(pricer.isPriced(tier));
+            double[] bids = new double[LadderPricer.MAX_RUNGS];
+            double[] asks = new double[LadderPricer.MAX_RUNGS];
+            double[] volumes = new double[LadderPricer.MAX_RUNGS];
+            assertEquals(BIDS.length, pricer.copyTier(tier, bids, asks, volumes));
+
+            for (int rung = 0; rung < BIDS.length; rung++) {
+                double mid = (BIDS[rung] + ASKS[rung]) / 2.0 * (1.0 + SKEW_BPS * 1e-4);
+                double offset = table.baseOffset(level.getId())
+                        + table.volumeFactorSlope(level.getId()) * TierPricingTable.volumeFactor(VOLUMES[rung]);
+                assertEquals(mid - offset, bids[rung], 1e-12);
+                assertEquals(mid + offset, asks[rung], 1e-12);
+                assertEquals(bids[rung], pricer.bid(tier, rung), 0.0);
+                assertEquals(asks[rung], pricer.ask(tier, rung), 0.0);
+            }
+            assertArrayEquals(VOLUMES, Arrays.copyOf(volumes, BIDS.length), 0.0);
+        }
+    }
+
+    @Test
+    public void tiersWithoutConfigAreNotPriced() {
+        pricer.price(cache.pricingTable(), SKEW_BPS);
+
+        assertFalse(pricer.isPriced(ClientTierLevel.BRONZE.ordinal()));
+        assertFalse(pricer.isPriced(ClientTierLevel.PLATINUM.ordinal()));
+    }
+
+    @Test
+    public void sourceVolumesPassThroughUnchanged() {
+        pricer.price(cache.pricingTable(), SKEW_BPS);
+
+        assertEquals(BIDS.length, pricer.rungCount());
+        for (int rung = 0; rung < BIDS.length; rung++) {
+            assertEquals(VOLUMES[rung], pricer.volume(rung), 0.0);
+        }
+    }
+
+    @Test
+    public void noSkewPricesAroundTheRawMid() {
+        TierPricingTable table = cache.pricingTable();
+        pricer.price(table, 0.0);
+
+        int goldId = ClientTierLevel.GOLD.getId();
+        double offset = table.baseOffset(goldId) + table.volumeFactorSlope(goldId) * TierPricingTable.volumeFactor(VOLUMES[0]);
+        assertEquals((BIDS[0] + ASKS[0]) / 2.0 - offset, pricer.bid(ClientTierLevel.GOLD.ordinal(), 0), 1e-12);
+    }
+
+    @Test
+    public void clearStartsANewLadder() {
+        pricer.clear();
+        pricer.addRung(1.2000, 1.2002, 2_000_000);
+        pricer.price(cache.pricingTable(), 0.0);
+
+        double[] bids = new double[LadderPricer.MAX_RUNGS];
+        double[] asks = new double[LadderPricer.MAX_RUNGS];
+        double[] volumes = new double[LadderPricer.MAX_RUNGS];
+        assertEquals(1, pricer.copyTier(ClientTierLevel.GOLD.ordinal(), bids, asks, volumes));
+        assertEquals(2_000_000, volumes[0], 0.0);
+    }
+
+    @Test
+    public void rungsBeyondTheMaximumAreIgnored() {
+        pricer.clear();
+        for (int rung = 0; rung <= LadderPricer.MAX_RUNGS; rung++) {
+            pricer.addRung(1.2000, 1.2002, (rung + 1) * 1_000_000);
+        }
+
+        assertEquals(LadderPricer.MAX_RUNGS, pricer.rungCount());
+        assertEquals(LadderPricer.MAX_RUNGS * 1_000_000, pricer.volume(LadderPricer.MAX_RUNGS - 1), 0.0);
+    }
+
+    private static ClientTierConfig tier(ClientTierLevel level, double markupBps, double spreadTighteningFactor,
+                                         double tierSkew, double signal) {
+        return new ClientTierConfig().init(level.getId(), level.name(), markupBps, spreadTighteningFactor, 0, 0, 0,
+                0, 1e9, (short) 5, true, true, true, 1e9, (short) level.getId(), tierSkew, 0.0, signal);
+    }
+}
@@ -0,0 +1,108 @@
+package play.lab.pricing.engine.feed;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyProtectionTest {
+    private static final int SLOT = 3;
+    private static final long HORIZON_MS = 100;
+    private static final double JUMP = 0.0010;
+
+    private final LatencyProtection protection = new LatencyProtection(2);
+
+    @Test
+    public void aJumpWidensTheSideItMovesAwayFrom() {
+        protect(1_000, HORIZON_MS, 1.1000, 1.1002);
+
+        double[] bids = {1.1000 + JUMP, 1.0999 + JUMP};
+        double[] asks = {1.1002 + JUMP, 1.1003 + JUMP};
+        protection.protect(SLOT, 1_010, HORIZON_MS, bids, asks, 2);
+
+        // the first ladder had one rung, so the depth change restarts the smoothing from these prices
+        assertEquals(1.1000 + JUMP, bids[0], 0.0);
+
+        bids = new double[]{1.1000 + 2 * JUMP, 1.0999 + 2 * JUMP};
+        asks = new double[]{1.1002 + 2 * JUMP, 1.1003 + 2 * JUMP};
+        protection.protect(SLOT, 1_020, HORIZON_MS, bids, asks, 2);
+
+        double alpha = 10.0 / (HORIZON_MS + 10);
+        assertEquals(1.1000 + JUMP + alpha * JUMP, bids[0], 1e-12);
+        assertEquals(1.0999 + JUMP + alpha * JUMP, bids[1], 1e-12);
+        assertEquals(1.1002 + 2 * JUMP, asks[0], 0.0);
+        assertEquals(1.1003 + 2 * JUMP, asks[1], 0.0);
+    }
+
+    @Test
+    public void aDropWidensTheAsk() {
+        protect(1_000, HORIZON_MS, 1.1000, 1.1002);
+        double[] quote = protect(1_010, HORIZON_MS, 1.1000 - JUMP, 1.1002 - JUMP);
+
+        double alpha = 10.0 / (HORIZON_MS + 10);
+        assertEquals(1.1000 - JUMP, quote[0], 0.0);
+        assertEquals(1.1002 - alpha * JUMP, quote[1], 1e-12);
+    }
+
+    @Test
+    public void theQuoteClosesInOnTheRawPriceOverTheHorizon() {
+        protect(1_000, HORIZON_MS, 1.1000, 1.1002);
+
+        double gap = JUMP;
+        for (long nowMs = 1_001; nowMs <= 1_000 + HORIZON_MS; nowMs++) {
+            double[] quote = protect(nowMs, HORIZON_MS, 1.1000 + JUMP, 1.1002 + JUMP);
+            double newGap = 1.1000 + JUMP - quote[0];
+            assertTrue(newGap > 0 && newGap < gap);
+            assertEquals(1.1002 + JUMP, quote[1], 0.0);
+            gap = newGap;
+        }
+        // (h / (h + 1))^h of the jump is left after one horizon of 1ms updates, close to 1/e
+        assertEquals(Math.pow((double) HORIZON_MS / (HORIZON_MS + 1), HORIZON_MS) * JUMP, gap, 1e-12);
+
+        double[] quote = null;
+        for (long nowMs = 1_001 + HORIZON_MS; nowMs <= 1_000 + 10 * HORIZON_MS; nowMs++) {
+            quote = protect(nowMs, HORIZON_MS, 1.1000 + JUMP, 1.1002 + JUMP);
+        }
+        assertEquals(1.1000 + JUMP, quote[0], 1e-4 * JUMP);
+    }
+
+    @Test
+    public void aLongGapCatchesUpInOneStep() {
+        protect(1_000, HORIZON_MS, 1.1000, 1.1002);
+        double[] quote = protect(1_000 + 1_000 * HORIZON_MS, HORIZON_MS, 1.1000 + JUMP, 1.1002 + JUMP);
+
+        assertEquals(1.1000 + JUMP, quote[0], 1e-3 * JUMP);
+    }
+
+    @Test
+    public void noHorizonPassesPricesThrough() {
+        protect(1_000, 0, 1.1000, 1.1002);
+        double[] bids = {1.1000 + JUMP, 1.0999 + JUMP};
+        double[] asks = {1.1002 + JUMP, 1.1003 + JUMP};
+        protection.protect(SLOT, 1_001, 0, bids, asks, 2);
+        assertArrayEquals(new double[]{1.1000 + JUMP, 1.0999 + JUMP}, bids, 0.0);
+        assertArrayEquals(new double[]{1.1002 + JUMP, 1.1003 + JUMP}, asks, 0.0);
+
+        double[] quote = protect(1_002, 0, 1.1000 - JUMP, 1.1002 - JUMP);
+        assertEquals(1.1000 - JUMP, quote[0], 0.0);
+        assertEquals(1.1002 - JUMP, quote[1], 0.0);
+    }
+
+    @Test
+    public void resetRestartsFromTheNextLadder() {
+        protect(1_000, HORIZON_MS, 1.1000, 1.1002);
+        protection.reset(SLOT);
+        double[] quote = protect(1_010, HORIZON_MS, 1.1000 + JUMP, 1.1002 + JUMP);
+
+        assertEquals(1.1000 + JUMP, quote[0], 0.0);
+        assertEquals(1.1002 + JUMP, quote[1], 0.0);
+    }
+
+    private double[] protect(long nowMs, long horizonMs, double bid, double ask) {
+        double[] bids = {bid};
+        double[] asks = {ask};
+        protection.protect(SLOT, nowMs, horizonMs, bids, asks, 1);
+        return new double[]{bids[0], asks[0]};
+    }
+}
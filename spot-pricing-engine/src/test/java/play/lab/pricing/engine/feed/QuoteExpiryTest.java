@@ -0,0 +1,119 @@
+package play.lab.pricing.engine.feed;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class QuoteExpiryTest {
+    private static final int SLOT = 2;
+    private static final long EXPIRY_MS = 50;
+
+    private final List<double[]> expired = new ArrayList<>();
+    private QuoteExpiry expiry;
+
+    @Before
+    public void setUp() {
+        expiry = new QuoteExpiry(2, 0, (symbol, symbolId, valueDate, tenor, clientTier, bid, ask, nowMs) ->
+                expired.add(new double[]{symbolId, bid, ask, nowMs}));
+    }
+
+    @Test
+    public void aQuoteExpiresWhenNoNewerQuoteIsSent() {
+        quote(1_000, 1.1);
+        pollEachMs(1_001, 1_049);
+        assertEquals(0, expired.size());
+        pollEachMs(1_050, 1_051);
+        assertEquals(1, expired.size());
+        assertEquals(SLOT, expired.get(0)[0], 0.0);
+        assertEquals(1.1, expired.get(0)[1], 0.0);
+        assertEquals(1.1002, expired.get(0)[2], 0.0);
+        assertEquals(1, expiry.expiredCount());
+
+        pollEachMs(1_052, 1_200);
+        assertEquals(1, expired.size());
+    }
+
+    @Test
+    public void aNewerQuotePushesTheExpiryBack() {
+        quote(1_000, 1.1);
+        pollEachMs(1_001, 1_029);
+        quote(1_030, 1.2);
+        pollEachMs(1_030, 1_079);
+        assertEquals(0, expired.size());
+        pollEachMs(1_080, 1_081);
+        assertEquals(1, expired.size());
+        assertEquals(1.2, expired.get(0)[1], 0.0);
+    }
+
+    @Test
+    public void anExpiredQuoteIsTrackedAgainByTheNextQuote() {
+        quote(1_000, 1.1);
+        pollEachMs(1_001, 1_051);
+        assertEquals(1, expired.size());
+
+        quote(1_100, 1.3);
+        pollEachMs(1_101, 1_149);
+        assertEquals(1, expired.size());
+        pollEachMs(1_150, 1_151);
+        assertEquals(2, expired.size());
+        assertEquals(1.3, expired.get(1)[1], 0.0);
+    }
+
+    @Test
+    public void aQuoteIsExpiredOnTimeAfterAnIdleGapLongerThanTheWheel() {
+        pollEachMs(1, 10);
+        // no quotes for several wheel revolutions
+        quote(50_000, 1.1);
+        pollEachMs(50_001, 50_049);
+        assertEquals(0, expired.size());
+        pollEachMs(50_050, 50_051);
+        assertEquals(1, expired.size());
+        assertEquals(50_050, expired.get(0)[3], 1.0);
+
+        quote(90_000, 1.2);
+        pollEachMs(90_001, 90_051);
+        assertEquals(2, expired.size());
+    }
+
+    @Test
+    public void aZeroExpiryNeverExpires() {
+        expiry.onQuote(SLOT, 1_000, 0, "EURUSD", SLOT, 20250101, 0, 1, 1.1, 1.1002);
+        pollEachMs(1_001, 3_000);
+        assertEquals(0, expired.size());
+    }
+
+    @Test
+    public void expiryTurnedOffAfterTheTimerWasSetDoesNotExpire() {
+        quote(1_000, 1.1);
+        expiry.onQuote(SLOT, 1_010, 0, "EURUSD", SLOT, 20250101, 0, 1, 1.1, 1.1002);
+        pollEachMs(1_011, 1_100);
+        assertEquals(0, expired.size());
+    }
+
+    @Test
+    public void aCancelledQuoteDoesNotExpire() {
+        quote(1_000, 1.1);
+        expiry.cancel(SLOT);
+        pollEachMs(1_001, 1_100);
+        assertEquals(0, expired.size());
+
+        quote(1_200, 1.2);
+        pollEachMs(1_201, 1_251);
+        assertEquals(1, expired.size());
+    }
+
+    private void quote(long nowMs, double bid) {
+        expiry.onQuote(SLOT, nowMs, EXPIRY_MS, "EURUSD", SLOT, 20250101, 0, 1, bid, bid + 0.0002);
+    }
+
+    // the pricing agent polls every duty cycle, the wheel advances a tick per poll
+    private void pollEachMs(long fromMs, long toMs) {
+        for (long nowMs = fromMs; nowMs <= toMs; nowMs++) {
+            expiry.poll(nowMs);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package play.lab.pricing.engine.feed;
+
+import org.junit.Before;
+import org.junit.Test;
+import pub.lab.trading.common.model.pricing.QuoteMessageWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class QuoteThrottleTest {
+    private static final int SLOT = 3;
+    private static final long INTERVAL_MS = 10;
+
+    private final double[] releaseBids = new double[QuoteMessageWriter.MAX_LEVELS];
+    private final double[] releaseAsks = new double[QuoteMessageWriter.MAX_LEVELS];
+    private final double[] releaseVolumes = new double[QuoteMessageWriter.MAX_LEVELS];
+    private final List<long[]> releases = new ArrayList<>();
+    private final List<Double> releasedBids = new ArrayList<>();
+    private QuoteThrottle throttle;
+
+    @Before
+    public void setUp() {
+        throttle = new QuoteThrottle(2, 0, releaseBids, releaseAsks, releaseVolumes,
+                (symbol, symbolId, valueDate, timestamp, tenor, clientTier, rungCount) -> {
+                    releases.add(new long[]{symbolId, timestamp, rungCount});
+                    releasedBids.add(releaseBids[0]);
+                });
+    }
+
+    @Test
+    public void quotesInsideTheIntervalAreHeldAndTheLatestReleased() {
+        assertTrue(throttle.tryAcquire(SLOT, 1_000, INTERVAL_MS));
+        assertFalse(throttle.tryAcquire(SLOT, 1_004, INTERVAL_MS));
+        hold(1_004, 1.1);
+        assertFalse(throttle.tryAcquire(SLOT, 1_006, INTERVAL_MS));
+        hold(1_006, 1.2);
+        assertEquals(1, throttle.throttledCount());
+
+        pollEachMs(1_001, 1_009);
+        assertEquals(0, releases.size());
+        pollEachMs(1_010, 1_011);
+        assertEquals(1, releases.size());
+        assertEquals(SLOT, releases.get(0)[0]);
+        assertEquals(1_006, releases.get(0)[1]);
+        assertEquals(2, releases.get(0)[2]);
+        assertEquals(1.2, releasedBids.get(0), 0.0);
+    }
+
+    @Test
+    public void aReleaseStartsTheNextInterval() {
+        assertTrue(throttle.tryAcquire(SLOT, 1_000, INTERVAL_MS));
+        assertFalse(throttle.tryAcquire(SLOT, 1_005, INTERVAL_MS));
+        hold(1_005, 1.1);
+        pollEachMs(1_006, 1_011);
+        assertEquals(1, releases.size());
+
+        assertFalse(throttle.tryAcquire(SLOT, 1_015, INTERVAL_MS));
+        assertTrue(throttle.tryAcquire(SLOT, 1_021, INTERVAL_MS));
+    }
+
+    @Test
+    public void aHeldQuoteIsReleasedOnTimeAfterAnIdleGapLongerThanTheWheel() {
+        pollEachMs(1, 10);
+        // no quotes for several wheel revolutions
+        assertTrue(throttle.tryAcquire(SLOT, 50_000, INTERVAL_MS));
+        assertFalse(throttle.tryAcquire(SLOT, 50_002, INTERVAL_MS));
+        hold(50_002, 1.1);
+
+        pollEachMs(50_003, 50_009);
+        assertEquals(0, releases.size());
+        pollEachMs(50_010, 50_011);
+        assertEquals(1, releases.size());
+
+        // and again after a second idle gap
+        assertFalse(throttle.tryAcquire(SLOT, 50_015, INTERVAL_MS));
+        hold(50_015, 1.2);
+        pollEachMs(50_016, 50_022);
+        assertEquals(2, releases.size());
+        assertTrue(throttle.tryAcquire(SLOT, 90_000, INTERVAL_MS));
+        assertFalse(throttle.tryAcquire(SLOT, 90_001, INTERVAL_MS));
+        hold(90_001, 1.3);
+        pollEachMs(90_002, 90_011);
+        assertEquals(3, releases.size());
+        assertEquals(1.3, releasedBids.get(2), 0.0);
+    }
+
+    @Test
+    public void aZeroIntervalNeverHolds() {
+        assertTrue(throttle.tryAcquire(SLOT, 1_000, 0));
+        assertTrue(throttle.tryAcquire(SLOT, 1_000, 0));
+        assertTrue(throttle.tryAcquire(SLOT, 1_001, 0));
+    }
+
+    @Test
+    public void slotsBeyondTheInitialCapacityAreThrottled() {
+        int slot = 100;
+        assertTrue(throttle.tryAcquire(slot, 1_000, INTERVAL_MS));
+        assertFalse(throttle.tryAcquire(slot, 1_001, INTERVAL_MS));
+        throttle.hold(slot, 1_001, "USDJPY", slot, 0, 1_001, 0, 0,
+                new double[]{150.0}, new double[]{150.1}, new double[]{1e6}, 1);
+        pollEachMs(1_002, 1_011);
+        assertEquals(1, releases.size());
+        assertEquals(slot, releases.get(0)[0]);
+    }
+
+    @Test
+    public void aCancelledQuoteIsNotReleased() {
+        assertTrue(throttle.tryAcquire(SLOT, 1_000, INTERVAL_MS));
+        assertFalse(throttle.tryAcquire(SLOT, 1_002, INTERVAL_MS));
+        hold(1_002, 1.1);
+        throttle.cancel(SLOT);
+        pollEachMs(1_003, 1_020);
+        assertEquals(0, releases.size());
+        assertTrue(throttle.tryAcquire(SLOT, 1_021, INTERVAL_MS));
+    }
+
+    private void hold(long nowMs, double bid) {
+        throttle.hold(SLOT, nowMs, "EURUSD", SLOT, 20250101, nowMs, 0, 1,
+                new double[]{bid, bid - 0.0001}, new double[]{bid + 0.0001, bid + 0.0002}, new double[]{1e6, 5e6}, 2);
+    }
+
+    // the pricing agent polls every duty cycle, the wheel advances a tick per poll
+    private void pollEachMs(long fromMs, long toMs) {
+        for (long nowMs = fromMs; nowMs <= toMs; nowMs++) {
+            throttle.poll(nowMs);
+        }
+    }
+}
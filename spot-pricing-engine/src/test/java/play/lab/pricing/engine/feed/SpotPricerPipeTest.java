@@ -0,0 +1,123 @@
+package play.lab.pricing.engine.feed;
+
+import org.junit.Before;
+import org.junit.Test;
+import pub.lab.trading.common.config.caches.PricingShards;
+import pub.lab.trading.common.model.ClientTierLevel;
+import pub.lab.trading.common.model.pricing.QuoteConflationBuffer;
+import pub.lab.trading.common.model.pricing.QuoteMessageWriter;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class SpotPricerPipeTest {
+    private static final int SHARD_ID = 1;
+    private static final int SHARD_COUNT = 3;
+    private static final int SYMBOL_COUNT = 12;
+    private static final long INTERVAL_MS = 10;
+    private static final long HORIZON_MS = 100;
+
+    private final double[] bids = {1.1000};
+    private final double[] asks = {1.1002};
+    private final double[] volumes = {1_000_000};
+    private final double[] releaseBids = new double[QuoteMessageWriter.MAX_LEVELS];
+    private final double[] releaseAsks = new double[QuoteMessageWriter.MAX_LEVELS];
+    private final double[] releaseVolumes = new double[QuoteMessageWriter.MAX_LEVELS];
+    private final QuoteThrottle[] throttles = new QuoteThrottle[LadderPricer.TIERS.length];
+    private final QuoteExpiry[] expiries = new QuoteExpiry[LadderPricer.TIERS.length];
+    private final LatencyProtection[] latencyProtections = new LatencyProtection[LadderPricer.TIERS.length];
+    private final EnumMap<ClientTierLevel, QuoteConflationBuffer> conflationBuffers = new EnumMap<>(ClientTierLevel.class);
+    private final SymbolSignals symbolSignals = new SymbolSignals(4);
+    private final List<Integer> released = new ArrayList<>();
+    private final List<Integer> expired = new ArrayList<>();
+    private final List<Integer> drained = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        for (int tier = 0; tier < LadderPricer.TIERS.length; tier++) {
+            throttles[tier] = new QuoteThrottle(4, 0, releaseBids, releaseAsks, releaseVolumes,
+                    (symbol, symbolId, valueDate, timestamp, tenor, clientTier, rungCount) -> released.add(symbolId));
+            expiries[tier] = new QuoteExpiry(4, 0,
+                    (symbol, symbolId, valueDate, tenor, clientTier, bid, ask, nowMs) -> expired.add(symbolId));
+            latencyProtections[tier] = new LatencyProtection(4);
+            conflationBuffers.put(LadderPricer.TIERS[tier], new QuoteConflationBuffer(4, 1));
+        }
+
+        // every symbol has a held, tracked, smoothed and conflated quote on every tier, and a signal
+        for (int symbolId = 0; symbolId < SYMBOL_COUNT; symbolId++) {
+            for (int tier = 0; tier < LadderPricer.TIERS.length; tier++) {
+                throttles[tier].tryAcquire(symbolId, 1_000, INTERVAL_MS);
+                throttles[tier].hold(symbolId, 1_001, "EURUSD", symbolId, 0, 1_001, 0, 0, bids, asks, volumes, 1);
+                expiries[tier].onQuote(symbolId, 1_000, 50, "EURUSD", symbolId, 0, 0, 0, bids[0], asks[0]);
+                latencyProtections[tier].protect(symbolId, 1_000, HORIZON_MS, new double[]{1.1000}, new double[]{1.1002}, 1);
+                conflationBuffers.get(LadderPricer.TIERS[tier]).put(symbolId, 0, "EURUSD", symbolId, 0, 1_000, 0, 0,
+                        bids, asks, volumes, 1);
+            }
+            symbolSignals.onSignal(symbolId, 1_000, 1.5);
+        }
+    }
+
+    @Test
+    public void onlyTheStateOfSymbolsOfOtherShardsIsReleased() {
+        int releasedCount = SpotPricerPipe.releaseUnownedSymbols(SHARD_ID, SHARD_COUNT, SYMBOL_COUNT, throttles,
+                expiries, latencyProtections, conflationBuffers, symbolSignals);
+
+        List<Integer> owned = new ArrayList<>();
+        for (int symbolId = 0; symbolId < SYMBOL_COUNT; symbolId++) {
+            if (PricingShards.shardOf(symbolId, SHARD_COUNT) == SHARD_ID) {
+                owned.add(symbolId);
+            }
+        }
+        assertEquals(SYMBOL_COUNT - owned.size(), releasedCount);
+
+        for (long nowMs = 1_001; nowMs <= 1_100; nowMs++) {
+            for (int tier = 0; tier < LadderPricer.TIERS.length; tier++) {
+                throttles[tier].poll(nowMs);
+                expiries[tier].poll(nowMs);
+            }
+        }
+        for (QuoteConflationBuffer conflationBuffer : conflationBuffers.values()) {
+            conflationBuffer.drain((symbol, symbolId, valueDate, timestamp, tenor, clientTier, rungBids, rungAsks,
+                                    rungVolumes, rungOffset, rungCount) -> drained.add(symbolId));
+        }
+
+        assertEquals(LadderPricer.TIERS.length * owned.size(), released.size());
+        assertEquals(LadderPricer.TIERS.length * owned.size(), expired.size());
+        assertEquals(LadderPricer.TIERS.length * owned.size(), drained.size());
+        for (int symbolId = 0; symbolId < SYMBOL_COUNT; symbolId++) {
+            boolean isOwned = owned.contains(symbolId);
+            int perTier = isOwned ? LadderPricer.TIERS.length : 0;
+            assertEquals(perTier, count(released, symbolId));
+            assertEquals(perTier, count(expired, symbolId));
+            assertEquals(perTier, count(drained, symbolId));
+            assertEquals(isOwned ? 1.5 : 0.0, symbolSignals.skewBps(symbolId), 0.0);
+
+            // a jump is smoothed for owned symbols and passed through for released ones, which restart from it
+            double[] jumpBids = {1.1010};
+            latencyProtections[0].protect(symbolId, 1_010, HORIZON_MS, jumpBids, new double[]{1.1012}, 1);
+            assertEquals(isOwned, jumpBids[0] < 1.1010);
+        }
+    }
+
+    @Test
+    public void aSingleShardReleasesNothing() {
+        int releasedCount = SpotPricerPipe.releaseUnownedSymbols(0, 1, SYMBOL_COUNT, throttles, expiries,
+                latencyProtections, conflationBuffers, symbolSignals);
+
+        assertEquals(0, releasedCount);
+        for (QuoteConflationBuffer conflationBuffer : conflationBuffers.values()) {
+            assertEquals(SYMBOL_COUNT, conflationBuffer.pendingCount());
+        }
+    }
+
+    private static int count(List<Integer> symbolIds, int symbolId) {
+        int count = 0;
+        for (int id : symbolIds) {
+            count += id == symbolId ? 1 : 0;
+        }
+        return count;
+    }
+}